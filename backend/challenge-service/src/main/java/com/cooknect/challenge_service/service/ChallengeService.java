@@ -21,6 +21,7 @@ import com.cooknect.challenge_service.service.PaymentService;
 import com.recipe.GetRecipeByIdRequest;
 import com.recipe.RecipeResponse;
 import com.recipe.RecipeServiceGrpc;
+import com.recipe.RecipeView;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -394,8 +395,12 @@ public class ChallengeService {
 //        }
 
         // Validate recipe existence and ownership via gRPC
+        // Existence and ownership only need the summary view, ingredients and comments are not loaded
         RecipeResponse grpcResponse = recipeServiceStub.getRecipeById(
-            GetRecipeByIdRequest.newBuilder().setRecipeId(request.getRecipeId()).build()
+            GetRecipeByIdRequest.newBuilder()
+                .setRecipeId(request.getRecipeId())
+                .setView(RecipeView.RECIPE_VIEW_SUMMARY)
+                .build()
         );
         if (grpcResponse == null || grpcResponse.getId() == 0) {
             throw new RuntimeException("Recipe does not exist");
@@ -1,8 +1,10 @@
 package com.cooknect.nutrition_service.service;
 
 import com.recipe.GetRecipeByIdRequest;
+import com.recipe.GetRecipesByIdsRequest;
 import com.recipe.RecipeResponse;
 import com.recipe.RecipeServiceGrpc;
+import com.recipe.RecipeView;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.grpc.StatusRuntimeException;
@@ -10,6 +12,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -53,8 +57,10 @@ public class RecipeGrpcClient {
 
             logger.debug("Fetching recipe via gRPC for ID: {}", recipeId);
 
+            // Nutrition analysis only needs the title and the ingredients, comments are not loaded
             GetRecipeByIdRequest request = GetRecipeByIdRequest.newBuilder()
                     .setRecipeId(recipeId)
+                    .setView(RecipeView.RECIPE_VIEW_WITH_INGREDIENTS)
                     .build();
 
             // Set deadline per-call to avoid "deadline already exceeded" errors
@@ -91,6 +97,35 @@ public class RecipeGrpcClient {
         }
     }
 
+    /**
+     * Fetch several recipes with one batch RPC instead of one GetRecipeById call per recipe
+     *
+     * @param recipeIds The IDs of the recipes to fetch
+     * @return Recipes by ID, IDs that do not exist are absent; empty if the call failed
+     */
+    @CircuitBreaker(name = "recipeService", fallbackMethod = "getRecipesByIdsFallback")
+    @Retry(name = "recipeService")
+    public Map<Long, RecipeResponse> getRecipesByIds(Collection<Long> recipeIds) {
+        if (recipeIds == null || recipeIds.isEmpty()) {
+            return Map.of();
+        }
+        logger.debug("Fetching {} recipes via gRPC", recipeIds.size());
+
+        GetRecipesByIdsRequest request = GetRecipesByIdsRequest.newBuilder()
+                .addAllRecipeIds(recipeIds)
+                .setView(RecipeView.RECIPE_VIEW_WITH_INGREDIENTS)
+                .build();
+        return recipeServiceStub
+                .withDeadlineAfter(5, java.util.concurrent.TimeUnit.SECONDS)
+                .getRecipesByIds(request)
+                .getRecipesMap();
+    }
+
+    private Map<Long, RecipeResponse> getRecipesByIdsFallback(Collection<Long> recipeIds, Throwable t) {
+        logger.warn("Applying fallback for {} recipe IDs due to: {}", recipeIds == null ? 0 : recipeIds.size(), t.getMessage());
+        return Map.of();
+    }
+
     /**
      * Fallback handler when gRPC call fails
      * Can be enhanced with caching or alternative data sources
@@ -116,6 +151,7 @@ public class RecipeGrpcClient {
             // A proper implementation might use a dedicated health check RPC
             GetRecipeByIdRequest request = GetRecipeByIdRequest.newBuilder()
                     .setRecipeId(-1L)
+                    .setView(RecipeView.RECIPE_VIEW_SUMMARY)
                     .build();
             // Set deadline per-call
             recipeServiceStub
@@ -2,14 +2,26 @@ package com.cooknect.recipe_service.config;
 
 
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @Configuration
+@EnableScheduling
 public class AppConfig {
+    /* Shared client for user-service calls, a hung user-service must not hold threads forever */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+                                     @Value("${recipe.http.connect-timeout-millis:1000}") long connectTimeoutMillis,
+                                     @Value("${recipe.http.read-timeout-millis:2000}") long readTimeoutMillis) {
+        return builder
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .setReadTimeout(Duration.ofMillis(readTimeoutMillis))
+                .build();
     }
 }
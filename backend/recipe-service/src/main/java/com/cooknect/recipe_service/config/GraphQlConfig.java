@@ -0,0 +1,59 @@
+package com.cooknect.recipe_service.config;
+
+import com.cooknect.recipe_service.utils.PaginationUtils;
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.FieldComplexityEnvironment;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.schema.GraphQLNamedType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/*
+ * Limits on the shape of GraphQL queries, so a single query cannot walk the whole catalogue.
+ * Queries over the limits are rejected before any field is fetched.
+ */
+@Configuration
+public class GraphQlConfig {
+
+    // List fields without a "first" argument, each returns at most PaginationUtils.MAX_PAGE_SIZE items
+    private static final Set<String> CAPPED_LISTS = Set.of(
+            "Query.searchRecipes", "Query.recipesByIngredient", "Recipe.comments");
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(
+            @Value("${recipe.graphql.max-depth:8}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(
+            @Value("${recipe.graphql.max-complexity:1000}") int maxComplexity) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity, pageSizeComplexity());
+    }
+
+    /*
+     * Every field costs 1, its selection is counted once per item the field can resolve to. A paged field is counted
+     * with its "first" argument (the schema default when it is omitted), clamped to the page size cap. An explicit
+     * null counts as the cap, as RecipeService.getRecipeConnection then returns a full page. The list fields without
+     * paging arguments return up to the same cap.
+     */
+    static FieldComplexityCalculator pageSizeComplexity() {
+        return (environment, childComplexity) -> 1 + childComplexity * items(environment);
+    }
+
+    private static int items(FieldComplexityEnvironment environment) {
+        if (environment.getFieldDefinition().getArgument("first") != null) {
+            Object first = environment.getArguments().get("first");
+            int requested = first instanceof Number number ? number.intValue() : PaginationUtils.MAX_PAGE_SIZE;
+            return Math.min(Math.max(requested, 1), PaginationUtils.MAX_PAGE_SIZE);
+        }
+        String parentType = ((GraphQLNamedType) environment.getParentType()).getName();
+        return CAPPED_LISTS.contains(parentType + "." + environment.getFieldDefinition().getName())
+                ? PaginationUtils.MAX_PAGE_SIZE
+                : 1;
+    }
+}
@@ -1,33 +1,55 @@
 package com.cooknect.recipe_service.controller;
 
-import com.cooknect.common.events.RecipeEvent;
+import com.cooknect.recipe_service.dto.AudioJobDTO;
 import com.cooknect.recipe_service.dto.CreateCommentDto;
+import com.cooknect.recipe_service.dto.CursorPageResponseDTO;
+import com.cooknect.recipe_service.dto.GetCommentDto;
 import com.cooknect.recipe_service.dto.GetRecipeDTO;
+import com.cooknect.recipe_service.dto.GetRecipeSummaryDTO;
+import com.cooknect.recipe_service.dto.PantryMatchDTO;
 import com.cooknect.recipe_service.dto.RecipeCreateDTO;
+import com.cooknect.recipe_service.dto.RecipeTranslationDTO;
+import com.cooknect.recipe_service.dto.TrendingRecipeDTO;
 import com.cooknect.common.dto.PageRequestDTO;
 import com.cooknect.common.dto.PageResponseDTO;
 import com.cooknect.recipe_service.event.RecipeEventProducer;
+import com.cooknect.recipe_service.exception.BadRequestException;
+import com.cooknect.recipe_service.exception.NotFoundException;
 import com.cooknect.recipe_service.model.*;
+import com.cooknect.recipe_service.service.AudioJobService;
+import com.cooknect.recipe_service.service.RecipeImportService;
 import com.cooknect.recipe_service.service.RecipeService;
 import com.cooknect.recipe_service.service.SpeechSynthService;
+import com.cooknect.recipe_service.service.TranslationService;
+import com.cooknect.recipe_service.service.TrendingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.MediaType;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 // Logger
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/recipes")
@@ -35,14 +57,26 @@ public class RecipeController {
 
     private final RecipeService svc;
     private final SpeechSynthService speechSynth;
+    private final AudioJobService audioJobs;
+    private final TranslationService translations;
+    private final TrendingService trending;
+    private final RecipeImportService recipeImport;
+    private final ObjectMapper mapper;
     private static final Logger log = LoggerFactory.getLogger(RecipeController.class);
 
     @Autowired
     private RecipeEventProducer recipeEventProducer;
 
-    public RecipeController(RecipeService svc, SpeechSynthService speechSynth) {
+    public RecipeController(RecipeService svc, SpeechSynthService speechSynth, AudioJobService audioJobs,
+                            TranslationService translations, TrendingService trending,
+                            RecipeImportService recipeImport, ObjectMapper mapper) {
         this.svc = svc;
         this.speechSynth = speechSynth;
+        this.audioJobs = audioJobs;
+        this.translations = translations;
+        this.trending = trending;
+        this.recipeImport = recipeImport;
+        this.mapper = mapper;
     }
 
     /* Create a new recipe */
@@ -60,16 +94,40 @@ public class RecipeController {
 
         Recipe saved = svc.create(recipe, id);
 
-        Map<String, Object> user = svc.getUserDetailsById(id);
-        RecipeEvent event = new RecipeEvent(
-            user.get("email").toString(),
-            "New Recipe Created Successfully",
-            String.format("Hi %s! \nYou have successfully created a new recipe on Cooknect.", user.get("fullName").toString())
-        );
-        recipeEventProducer.sendRecipeEvent(event);
+        recipeEventProducer.publish(id, RecipeEventProducer.Type.RECIPE_CREATED);
         return ResponseEntity.ok(saved);
     }
 
+    /*
+     * Bulk import, one recipe (same body as POST /api/v1/recipes) per NDJSON line.
+     * A progress line is streamed back after every saved batch, the last one has done = true.
+     * Written straight to the response instead of a StreamingResponseBody, a large import outlives the async timeout.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk import recipes from NDJSON", security = @SecurityRequirement(name = "bearerAuth"))
+    public void importRecipes(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String userIdHeader = request.getHeader("X-User-Id");
+
+        Long id;
+        try {
+            id = Long.parseLong(userIdHeader);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid user id");
+        }
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        recipeImport.importRecipes(request.getInputStream(), id, progress -> {
+            try {
+                out.write(mapper.writeValueAsBytes(progress));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
     /* Like or Unlike a recipe */
     @PostMapping("/{recipeId}/like")
     @Operation(summary = "Like a recipe", security = @SecurityRequirement(name = "bearerAuth"))
@@ -84,13 +142,7 @@ public class RecipeController {
         }
 
         svc.likeAndUnlike(recipeId, id);
-        Map<String, Object> user = svc.getUserDetailsById(id);
-        RecipeEvent event = new RecipeEvent(
-            user.get("email").toString(),
-            "Recipe Liked/Unliked Successfully",
-            String.format("Hi %s! \nYou have successfully liked/unliked a recipe on Cooknect.", user.get("fullName").toString())
-        );
-        recipeEventProducer.sendRecipeEvent(event);
+        recipeEventProducer.publish(id, RecipeEventProducer.Type.RECIPE_LIKED);
         return ResponseEntity.noContent().build();
     }
 
@@ -108,13 +160,7 @@ public class RecipeController {
         }
 
         svc.saveAndUnsave(recipeId, userId);
-        Map<String, Object> user = svc.getUserDetailsById(userId);
-        RecipeEvent event = new RecipeEvent(
-            user.get("email").toString(),
-            "Saved/Unsaved Recipe Successfully",
-            String.format("Hi %s! \nYou have successfully saved/unsaved a recipe on Cooknect.", user.get("fullName").toString())
-        );
-        recipeEventProducer.sendRecipeEvent(event);
+        recipeEventProducer.publish(userId, RecipeEventProducer.Type.RECIPE_SAVED);
         return ResponseEntity.noContent().build();
     }
 
@@ -123,7 +169,7 @@ public class RecipeController {
     // Add title as an optional query parameter
     @GetMapping
     @Operation(summary = "Get all recipes optionally by userId, saved status, and title", security = @SecurityRequirement(name = "bearerAuth"))
-    public PageResponseDTO<GetRecipeDTO> listAll(
+    public PageResponseDTO<?> listAll(
             HttpServletRequest request,
             @RequestParam(required = false) Long userId,
             @RequestParam(required = false) Boolean saved,
@@ -137,16 +183,23 @@ public class RecipeController {
             @Parameter(
                     name = "sortBy",
                     description = "Sort field",
-                    schema = @Schema(allowableValues = {"id", "title", "description", "cuisine"})
+                    schema = @Schema(allowableValues = {"id", "title", "description", "cuisine", "likes"})
             )
             @RequestParam(defaultValue = "id", name = "sortBy", required = false) String sortBy,
-            @RequestParam(defaultValue = "asc") String direction
+            @RequestParam(defaultValue = "asc") String direction,
+            @Parameter(
+                    name = "view",
+                    description = "summary (default) or full, full adds ingredients, preparation steps and a comment preview",
+                    schema = @Schema(allowableValues = {"summary", "full"})
+            )
+            @RequestParam(defaultValue = "summary") String view
     ) {
         PageRequestDTO pageRequestDTO = new PageRequestDTO();
         pageRequestDTO.setPage(page - 1);
         pageRequestDTO.setSize(size);
         pageRequestDTO.setSortBy(sortBy);
         pageRequestDTO.setDirection(direction);
+        boolean full = isFullView(view);
 
         String userIdHeader = request.getHeader("X-User-Id");
         Long authenticatedUserId = null;
@@ -158,19 +211,27 @@ public class RecipeController {
             }
         }
 
-        PageResponseDTO<GetRecipeDTO> result;
+        PageResponseDTO<?> result;
         if (title != null && !title.trim().isEmpty()) {
             // Filter by title (and optionally userId/saved)
             if(userId == null) {
                 userId = authenticatedUserId;
             }
-            result = svc.getRecipesByTitle(title, userId, saved, pageRequestDTO);
+            result = full
+                    ? svc.getRecipesByTitle(title, userId, saved, pageRequestDTO)
+                    : svc.getRecipeSummariesByTitle(title, userId, saved, pageRequestDTO);
         } else if (userId != null && Boolean.TRUE.equals(saved)) {
-            result = svc.getSavedRecipesByUserId(userId, pageRequestDTO);
+            result = full
+                    ? svc.getSavedRecipesByUserId(userId, pageRequestDTO)
+                    : svc.getSavedRecipeSummariesByUserId(userId, pageRequestDTO);
         } else if (userId != null) {
-            result = svc.getRecipesByUserId(userId, pageRequestDTO);
+            result = full
+                    ? svc.getRecipesByUserId(userId, pageRequestDTO)
+                    : svc.getRecipeSummariesByUserId(userId, pageRequestDTO);
         } else {
-            result = svc.getAllRecipes(authenticatedUserId, pageRequestDTO);
+            result = full
+                    ? svc.getAllRecipes(authenticatedUserId, pageRequestDTO)
+                    : svc.getAllRecipeSummaries(authenticatedUserId, pageRequestDTO);
         }
 
         result.setPage(result.getPage() + 1);
@@ -179,6 +240,75 @@ public class RecipeController {
 
 
 
+    /*
+        * Keyset paginated recipe feed.
+        * Returns an opaque cursor that is passed back to fetch the next page,
+        * the offset based listing above is kept for the admin UI.
+     */
+    @GetMapping("/feed")
+    @Operation(summary = "Get the recipe feed using cursor pagination", security = @SecurityRequirement(name = "bearerAuth"))
+    public CursorPageResponseDTO<GetRecipeDTO> feed(
+            HttpServletRequest request,
+            @Parameter(
+                    name = "cursor",
+                    description = "Cursor returned by the previous page, omit for the first page"
+            )
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(
+                    name = "sortBy",
+                    description = "Feed ordering, ignored when a cursor is given",
+                    schema = @Schema(allowableValues = {"id", "likes", "createdAt"})
+            )
+            @RequestParam(defaultValue = "id", name = "sortBy", required = false) String sortBy
+    ) {
+        String userIdHeader = request.getHeader("X-User-Id");
+        Long authenticatedUserId = null;
+        if (userIdHeader != null && !userIdHeader.trim().isEmpty()) {
+            try {
+                authenticatedUserId = Long.parseLong(userIdHeader);
+            } catch (NumberFormatException e) {
+                log.warn("Invalid X-User-Id header value: {}", userIdHeader);
+            }
+        }
+
+        return svc.getRecipeFeed(authenticatedUserId, cursor, sortBy, size);
+    }
+
+    /* Newest recipes of the cuisines the user prefers, cursor paginated like /feed */
+    @GetMapping("/feed/personalized")
+    @Operation(summary = "Get the recipe feed personalized by cuisine preferences", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<CursorPageResponseDTO<GetRecipeSummaryDTO>> personalizedFeed(
+            HttpServletRequest request,
+            @Parameter(
+                    name = "cursor",
+                    description = "Cursor returned by the previous page, omit for the first page"
+            )
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        String userIdHeader = request.getHeader("X-User-Id");
+
+        Long userId;
+        try {
+            userId = Long.parseLong(userIdHeader);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(svc.getPersonalizedFeed(userId, cursor, size));
+    }
+
+    /* Recipes with the most recent likes and comments, served from the in-memory ranking */
+    @GetMapping("/trending")
+    @Operation(summary = "Get the trending recipes", security = @SecurityRequirement(name = "bearerAuth"))
+    public PageResponseDTO<TrendingRecipeDTO> trending(
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return trending.getTrending(page, size);
+    }
+
     /* Get recipe by ID */
     @GetMapping("/{recipeId}")
     @Operation(summary = "Get recipe by ID", security = @SecurityRequirement(name = "bearerAuth"))
@@ -228,28 +358,58 @@ public class RecipeController {
         comment.setText(dto.getText());
 
         svc.addComment(recipeId, comment);
-        Map<String, Object> user = svc.getUserDetailsById(userId);
-        RecipeEvent event = new RecipeEvent(
-            user.get("email").toString(),
-            "New Comment Added Successfully",
-            String.format("Hi %s! \nYou have successfully added a new comment on Cooknect.", user.get("fullName").toString())
-        );
-        recipeEventProducer.sendRecipeEvent(event);
+        recipeEventProducer.publish(userId, RecipeEventProducer.Type.COMMENT_ADDED);
 
         return ResponseEntity.noContent().build();
     }
 
+    /* Comments of a recipe, newest first, paged with the opaque nextCursor of the previous page */
+    @GetMapping("/{recipeId}/comments")
+    @Operation(summary = "Get the comments of a recipe", security = @SecurityRequirement(name = "bearerAuth"))
+    public CursorPageResponseDTO<GetCommentDto> getComments(
+            @PathVariable Long recipeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return svc.getComments(recipeId, cursor, size);
+    }
+
     /*
-         * Searches for recipes whose titles match the given query string.
-         * Returns the recipe with the maximum number of likes among all matches.
+         * Full-text search over recipe title, description and ingredient names.
+         * Results are ranked by text relevance, boosted by the number of likes.
      */
 
     @GetMapping("/search")
-    @Operation(summary = "Search for the most liked recipe by title", 
-               description = "Returns the recipe with the highest number of likes among all recipes matching the search query.",
+    @Operation(summary = "Search recipes",
+               description = "Returns recipes matching the query in title, description or ingredients, ranked by relevance and likes.",
                security = @SecurityRequirement(name = "bearerAuth"))
-    public List<Recipe> search(@RequestParam String q) {
-        return svc.searchByTitle(q);
+    public PageResponseDTO<?> search(
+            HttpServletRequest request,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(
+                    name = "view",
+                    description = "summary (default) or full, full adds ingredients, preparation steps and a comment preview",
+                    schema = @Schema(allowableValues = {"summary", "full"})
+            )
+            @RequestParam(defaultValue = "summary") String view
+    ) {
+        String userIdHeader = request.getHeader("X-User-Id");
+        Long authenticatedUserId = null;
+        if (userIdHeader != null && !userIdHeader.trim().isEmpty()) {
+            try {
+                authenticatedUserId = Long.parseLong(userIdHeader);
+            } catch (NumberFormatException e) {
+                log.warn("Invalid X-User-Id header value: {}", userIdHeader);
+            }
+        }
+
+        PageResponseDTO<?> result = isFullView(view)
+                ? svc.searchRecipes(q, authenticatedUserId, page - 1, size)
+                : svc.searchRecipeSummaries(q, authenticatedUserId, page - 1, size);
+        result.setPage(result.getPage() + 1);
+        return result;
     }
 
     /*
@@ -260,14 +420,36 @@ public class RecipeController {
 
     @GetMapping("/cuisine/{type}")
     @Operation(summary = "Get all recipes by cuisine", security = @SecurityRequirement(name = "bearerAuth"))
-    public List<Recipe> byCuisine(@PathVariable String type) {
+    public List<?> byCuisine(
+            HttpServletRequest request,
+            @PathVariable String type,
+            @Parameter(
+                    name = "view",
+                    description = "summary (default) or full, full adds ingredients, preparation steps and a comment preview",
+                    schema = @Schema(allowableValues = {"summary", "full"})
+            )
+            @RequestParam(defaultValue = "summary") String view
+    ) {
         Cuisine c;
         try {
             c = Cuisine.valueOf(type.toUpperCase());
         } catch (Exception e) {
             c = Cuisine.OTHER;
         }
-        return svc.findByCuisine(c);
+        if (isFullView(view)) {
+            return svc.findByCuisine(c);
+        }
+
+        String userIdHeader = request.getHeader("X-User-Id");
+        Long authenticatedUserId = null;
+        if (userIdHeader != null && !userIdHeader.trim().isEmpty()) {
+            try {
+                authenticatedUserId = Long.parseLong(userIdHeader);
+            } catch (NumberFormatException e) {
+                log.warn("Invalid X-User-Id header value: {}", userIdHeader);
+            }
+        }
+        return svc.findSummariesByCuisine(c, authenticatedUserId);
     }
 
    /*
@@ -275,8 +457,79 @@ public class RecipeController {
     */
     @GetMapping("/ingredient")
     @Operation(summary = "Get all recipes by ingredient", security = @SecurityRequirement(name = "bearerAuth"))
-    public List<Recipe> byIngredient(@RequestParam String q) {
-        return svc.findByIngredient(q);
+    public PageResponseDTO<?> byIngredient(
+            HttpServletRequest request,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(
+                    name = "sortBy",
+                    description = "Sort field",
+                    schema = @Schema(allowableValues = {"id", "title", "description", "cuisine", "likes"})
+            )
+            @RequestParam(defaultValue = "id", name = "sortBy", required = false) String sortBy,
+            @RequestParam(defaultValue = "asc") String direction,
+            @Parameter(
+                    name = "view",
+                    description = "summary (default) or full, full adds ingredients, preparation steps and a comment preview",
+                    schema = @Schema(allowableValues = {"summary", "full"})
+            )
+            @RequestParam(defaultValue = "summary") String view
+    ) {
+        PageRequestDTO pageRequestDTO = new PageRequestDTO();
+        pageRequestDTO.setPage(page - 1);
+        pageRequestDTO.setSize(size);
+        pageRequestDTO.setSortBy(sortBy);
+        pageRequestDTO.setDirection(direction);
+
+        PageResponseDTO<?> result;
+        if (isFullView(view)) {
+            result = svc.findByIngredient(q, pageRequestDTO);
+        } else {
+            String userIdHeader = request.getHeader("X-User-Id");
+            Long authenticatedUserId = null;
+            if (userIdHeader != null && !userIdHeader.trim().isEmpty()) {
+                try {
+                    authenticatedUserId = Long.parseLong(userIdHeader);
+                } catch (NumberFormatException e) {
+                    log.warn("Invalid X-User-Id header value: {}", userIdHeader);
+                }
+            }
+            result = svc.findSummariesByIngredient(q, authenticatedUserId, pageRequestDTO);
+        }
+        result.setPage(result.getPage() + 1);
+        return result;
+    }
+
+   /*
+        * "What can I cook": recipes ranked by how much of their ingredient list the pantry covers.
+        * Recipes must use every ingredient in required and match at least minMatched pantry ingredients.
+    */
+    @GetMapping("/pantry")
+    @Operation(summary = "Find recipes that can be cooked from the given ingredients",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    public PageResponseDTO<PantryMatchDTO> byPantry(
+            HttpServletRequest request,
+            @RequestParam List<String> ingredients,
+            @RequestParam(required = false) List<String> required,
+            @RequestParam(defaultValue = "1") int minMatched,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        String userIdHeader = request.getHeader("X-User-Id");
+        Long authenticatedUserId = null;
+        if (userIdHeader != null && !userIdHeader.trim().isEmpty()) {
+            try {
+                authenticatedUserId = Long.parseLong(userIdHeader);
+            } catch (NumberFormatException e) {
+                log.warn("Invalid X-User-Id header value: {}", userIdHeader);
+            }
+        }
+
+        PageResponseDTO<PantryMatchDTO> result = svc.findByPantry(
+                ingredients, required, minMatched, authenticatedUserId, page - 1, size);
+        result.setPage(result.getPage() + 1);
+        return result;
     }
 
 //    @GetMapping(value = "/{id}/speak", produces = "audio/wav")
@@ -318,17 +571,158 @@ public class RecipeController {
 //    }
 
     //Translate Recipe into target language
+    /*
+        * Translated recipe audio, generated synchronously on the request thread.
+        * Prefer POST /{id}/audio/{language}, which queues the generation and returns right away.
+    */
     @GetMapping("/{id}/translate/{targetLanguage}")
     @Operation(summary = "Translate recipe text to target language", security = @SecurityRequirement(name = "bearerAuth"), hidden = true)
-    public ResponseEntity<byte[]> translateRecipe(
+    public ResponseEntity<?> translateRecipe(
             @PathVariable Long id,
-            @PathVariable String targetLanguage) {
+            @PathVariable String targetLanguage,
+            WebRequest webRequest) {
         // Just call getOrCreateAudio - it will handle everything
-        byte[] wav = speechSynth.getOrCreateAudio(id, targetLanguage, "Kore");
+        RecipeAudio audio = speechSynth.getOrCreateAudio(id, targetLanguage, "Kore");
+        return audioResponse(audio, id, targetLanguage, webRequest);
+    }
+
+    /* Recipe text translated into the given language, translations are cached per recipe version */
+    @GetMapping("/{id}/translation/{language}")
+    @Operation(summary = "Get the recipe text translated into a language", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<RecipeTranslationDTO> getTranslation(
+            @PathVariable Long id,
+            @PathVariable String language) {
+        RecipeTranslation translation = translations.translate(id, language);
+        return ResponseEntity.ok(new RecipeTranslationDTO(translation.getRecipeId(), translation.getRecipeVersion(),
+                translation.getLanguage(), translation.getTranslatedText(), translation.getCreatedAt()));
+    }
+
+    /*
+        * Queues the generation of the recipe audio in the given language.
+        * Returns 202 with the job while it is pending and 200 once the audio is ready; repeated requests
+        * for the same recipe, language and voice return the same job.
+    */
+    @PostMapping("/{id}/audio/{language}")
+    @Operation(summary = "Request translated recipe audio", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<AudioJobDTO> requestAudio(
+            @PathVariable Long id,
+            @PathVariable String language,
+            @RequestParam(required = false) String voice) {
+        AudioJob job = audioJobs.submit(id, language, voice);
+        return jobResponse(job);
+    }
+
+    /* Status of an audio job */
+    @GetMapping("/audio-jobs/{jobId}")
+    @Operation(summary = "Get the status of an audio job", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<AudioJobDTO> getAudioJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(toAudioJobDTO(audioJobs.getJob(jobId)));
+    }
+
+    /*
+        * The recipe audio once its job is done, otherwise the job status (202 while pending).
+        * The file is streamed from the audio store, Range requests are answered with 206 partial content
+        * (handled by Spring for Resource bodies) and the content hash is sent as a strong ETag.
+    */
+    @GetMapping("/{id}/audio/{language}")
+    @Operation(summary = "Get translated recipe audio or the status of its generation", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<?> getAudio(
+            @PathVariable Long id,
+            @PathVariable String language,
+            @RequestParam(required = false) String voice,
+            WebRequest webRequest) {
+        AudioJob job = audioJobs.findJob(id, language, voice)
+                .orElseThrow(() -> new NotFoundException("No audio requested for this recipe and language"));
+        RecipeAudio audio = audioJobs.findAudio(job);
+        if (audio != null) {
+            return audioResponse(audio, id, language, webRequest);
+        }
+        if (job.getStatus() == AudioJob.Status.DONE) {
+            // The audio was removed since (e.g. the recipe changed), generate it again
+            job = audioJobs.submit(id, language, voice);
+        }
+        return jobResponse(job);
+    }
+
+    /*
+        * Compressed (IMA-ADPCM) audio is sent as stored to clients that accept audio/vnd.wave;codec=11,
+        * everyone else gets it decoded to PCM WAV on the fly (without Range support).
+    */
+    private ResponseEntity<?> audioResponse(RecipeAudio audio, Long id, String language, WebRequest webRequest) {
+        String disposition = "inline; filename=\"recipe-" + id + "-" + language + ".wav\"";
+        if (speechSynth.isCompressed(audio) && !acceptsCompressedAudio(webRequest.getHeader(HttpHeaders.ACCEPT))) {
+            String etag = "\"" + audio.getContentHash() + "-pcm\"";
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            long length;
+            try {
+                length = speechSynth.decodedLength(audio);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            StreamingResponseBody body = out -> speechSynth.decodeAudio(audio, out);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("audio/wav"))
+                    .contentLength(length)
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                    .header(HttpHeaders.ACCEPT_RANGES, "none")
+                    .header("Content-Disposition", disposition)
+                    .body(body);
+        }
+
+        String etag = "\"" + audio.getContentHash() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType("audio/wav"))
-                .header("Content-Disposition", "inline; filename=\"recipe-" + id + "-" + targetLanguage + ".wav\"")
-                .body(wav);
+                .contentType(MediaType.parseMediaType(audio.getContentType() != null ? audio.getContentType() : "audio/wav"))
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header("Content-Disposition", disposition)
+                .body(speechSynth.openAudio(audio));
+    }
+
+    /* Only an explicit audio/vnd.wave;codec=11 counts, wildcards get the PCM WAV every browser can play */
+    private static boolean acceptsCompressedAudio(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if ("audio".equalsIgnoreCase(type.getType()) && "vnd.wave".equalsIgnoreCase(type.getSubtype())
+                        && "11".equals(type.getParameter("codec")) && type.getQualityValue() > 0) {
+                    return true;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        return false;
+    }
+
+    private ResponseEntity<AudioJobDTO> jobResponse(AudioJob job) {
+        AudioJobDTO dto = toAudioJobDTO(job);
+        switch (job.getStatus()) {
+            case QUEUED, RUNNING:
+                return ResponseEntity.accepted()
+                        .location(URI.create("/api/v1/recipes/audio-jobs/" + job.getId()))
+                        .body(dto);
+            case FAILED:
+                return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(dto);
+            default:
+                return ResponseEntity.ok(dto);
+        }
+    }
+
+    private static AudioJobDTO toAudioJobDTO(AudioJob job) {
+        String audioUrl = job.getStatus() == AudioJob.Status.DONE
+                ? "/api/v1/recipes/" + job.getRecipeId() + "/audio/" + job.getLanguage() + "?voice=" + job.getVoice()
+                : null;
+        return new AudioJobDTO(job.getId(), job.getRecipeId(), job.getLanguage(), job.getVoice(), job.getStatus().name(),
+                job.getAttempts(), job.getError(), job.getCreatedAt(), job.getUpdatedAt(), audioUrl);
     }
 
 
@@ -355,13 +749,7 @@ public class RecipeController {
         }
 
         Recipe updated = svc.patchUpdate(id, recipe, userId);
-        Map<String, Object> user = svc.getUserDetailsById(id);
-        RecipeEvent event = new RecipeEvent(
-            user.get("email").toString(),
-            "Recipe Updated Successfully",
-            String.format("Hi %s! \nYou have successfully updated a recipe on Cooknect.", user.get("fullName").toString())
-        );
-        recipeEventProducer.sendRecipeEvent(event);
+        recipeEventProducer.publish(userId, RecipeEventProducer.Type.RECIPE_UPDATED);
         speechSynth.deleteAudioForRecipe(id);
         return ResponseEntity.ok(updated);
     }
@@ -386,15 +774,9 @@ public class RecipeController {
             return ResponseEntity.badRequest().build();
         }
 
-        Map<String, Object> user = svc.getUserDetailsById(userId);
-        RecipeEvent event = new RecipeEvent(
-            user.get("email").toString(),
-            "Recipe Deleted Successfully",
-            String.format("Hi %s! \nYou have successfully deleted a recipe on Cooknect.", user.get("fullName").toString())
-        );
-        recipeEventProducer.sendRecipeEvent(event);
         // Call service method to delete the recipe
         svc.deleteRecipeByUser(userId, recipeId);
+        recipeEventProducer.publish(userId, RecipeEventProducer.Type.RECIPE_DELETED);
 
         return ResponseEntity.noContent().build();
     }
@@ -419,16 +801,15 @@ public class RecipeController {
             return ResponseEntity.status(403).build(); // Forbidden
         }
 
-        Map<String, Object> user = svc.getUserDetailsById(userIdHeaderLong);
-        RecipeEvent event = new RecipeEvent(
-            user.get("email").toString(),
-            "Recipes Deleted Successfully",
-            String.format("Hi %s! \nYou have successfully deleted all your recipes on Cooknect.", user.get("fullName").toString())
-        );
-        recipeEventProducer.sendRecipeEvent(event);
         // Call service method to delete all recipes for this user
         svc.deleteAllByUser(userId);
+        recipeEventProducer.publish(userIdHeaderLong, RecipeEventProducer.Type.ALL_RECIPES_DELETED);
 
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    /* List endpoints return summaries unless the full view is asked for */
+    private static boolean isFullView(String view) {
+        return "full".equalsIgnoreCase(view);
+    }
+}
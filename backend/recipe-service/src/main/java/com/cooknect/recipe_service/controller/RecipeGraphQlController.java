@@ -1,14 +1,22 @@
 package com.cooknect.recipe_service.controller;
 
+import com.cooknect.recipe_service.dto.ConnectionDTO;
 import com.cooknect.recipe_service.model.*;
 import com.cooknect.recipe_service.service.RecipeService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Controller
 public class RecipeGraphQlController {
@@ -22,8 +30,8 @@ public class RecipeGraphQlController {
     // === QUERIES ===
 
     @QueryMapping(name = "recipes")
-    public List<Recipe> recipes() {
-        return svc.listAll();
+    public ConnectionDTO<Recipe> recipes(@Argument Integer first, @Argument String after) {
+        return svc.getRecipeConnection(null, first, after);
     }
 
 //    @QueryMapping(name = "recipeById")
@@ -37,14 +45,8 @@ public class RecipeGraphQlController {
     }
 
     @QueryMapping(name = "recipesByCuisine")
-    public List<Recipe> recipesByCuisine(@Argument String cuisine) {
-        Cuisine c;
-        try {
-            c = Cuisine.valueOf(cuisine.toUpperCase());
-        } catch (Exception e) {
-            c = Cuisine.OTHER;
-        }
-        return svc.findByCuisine(c);
+    public ConnectionDTO<Recipe> recipesByCuisine(@Argument Cuisine cuisine, @Argument Integer first, @Argument String after) {
+        return svc.getRecipeConnection(cuisine, first, after);
     }
 
     @QueryMapping(name = "recipesByIngredient")
@@ -52,6 +54,50 @@ public class RecipeGraphQlController {
         return svc.findByIngredient(name);
     }
 
+    // === BATCHED FIELDS ===
+    // Resolved once for all recipes of a response instead of lazily per recipe
+
+    @BatchMapping(typeName = "Recipe")
+    public Map<Recipe, List<Ingredient>> ingredients(List<Recipe> recipes) {
+        Map<Long, List<Ingredient>> byRecipeId = svc.findIngredientsByRecipeIds(ids(recipes));
+        return byRecipe(recipes, recipe -> byRecipeId.getOrDefault(recipe.getId(), List.of()));
+    }
+
+    @BatchMapping(typeName = "Recipe")
+    public Map<Recipe, List<Comment>> comments(List<Recipe> recipes) {
+        Map<Long, List<Comment>> byRecipeId = svc.findCommentsByRecipeIds(ids(recipes));
+        return byRecipe(recipes, recipe -> byRecipeId.getOrDefault(recipe.getId(), List.of()));
+    }
+
+    @BatchMapping(typeName = "Recipe")
+    public Map<Recipe, String> author(List<Recipe> recipes) {
+        Set<Long> userIds = recipes.stream()
+                .map(Recipe::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, String> usernames = svc.findUsernames(userIds);
+        // Recipes without a known author are left out, the field resolves to null
+        Map<Recipe, String> authors = new HashMap<>();
+        for (Recipe recipe : recipes) {
+            String username = recipe.getUserId() != null ? usernames.get(recipe.getUserId()) : null;
+            if (username != null) {
+                authors.put(recipe, username);
+            }
+        }
+        return authors;
+    }
+
+    private static List<Long> ids(List<Recipe> recipes) {
+        return recipes.stream().map(Recipe::getId).distinct().toList();
+    }
+
+    /* Recipe has identity equality, so the entities of the response can key the result */
+    private static <T> Map<Recipe, T> byRecipe(List<Recipe> recipes, Function<Recipe, T> value) {
+        Map<Recipe, T> result = new HashMap<>();
+        recipes.forEach(recipe -> result.put(recipe, value.apply(recipe)));
+        return result;
+    }
+
 //    @QueryMapping(name = "externalRecipes")
 //    public List<ExternalRecipe> externalRecipes(@Argument String query) {
 //        return svc.fetchExternalRecipes(query);
@@ -0,0 +1,26 @@
+package com.cooknect.recipe_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/* Status of an audio generation job, audioUrl is set once the audio can be fetched */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AudioJobDTO {
+    private Long jobId;
+    private Long recipeId;
+    private String language;
+    private String voice;
+    private String status;
+    private int attempts;
+    private String error;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private String audioUrl;
+}
@@ -0,0 +1,39 @@
+package com.cooknect.recipe_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/* Relay style connection, the GraphQL counterpart of CursorPageResponseDTO */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectionDTO<T> {
+    private List<Edge<T>> edges;
+    private PageInfo pageInfo;
+
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Edge<T> {
+        private T node;
+        // Opaque cursor positioned right after this node
+        private String cursor;
+    }
+
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PageInfo {
+        private boolean hasNextPage;
+        private boolean hasPreviousPage;
+        private String startCursor;
+        private String endCursor;
+    }
+}
@@ -0,0 +1,21 @@
+package com.cooknect.recipe_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponseDTO<T> {
+    private List<T> content;
+    private int size;
+    private String sortBy;
+    // Opaque cursor to pass back for the next page, null when there is nothing left
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -2,9 +2,13 @@ package com.cooknect.recipe_service.dto;
 
 import lombok.*;
 
+import java.time.Instant;
+
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor
 public class GetCommentDto {
+    private Long id;
     private String author;
     private String text;
+    private Instant createdAt;
 }
 
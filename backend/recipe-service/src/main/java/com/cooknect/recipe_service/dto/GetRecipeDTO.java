@@ -4,6 +4,7 @@ import com.cooknect.recipe_service.model.Ingredient;
 import com.cooknect.recipe_service.model.PreparationStep;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -14,6 +15,7 @@ import java.util.List;
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
+@Builder(toBuilder = true)
 public class GetRecipeDTO {
     private Long id;
     private String title;
@@ -0,0 +1,29 @@
+package com.cooknect.recipe_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/* Default list item, GetRecipeDTO is only returned for ?view=full */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetRecipeSummaryDTO {
+    private Long id;
+    private String title;
+    private String description;
+    private String cuisine;
+    private String recipeImageUrl;
+    private int likesCount;
+    private boolean likedByUser;
+    private boolean savedByUser;
+    private String username;
+    private int commentCount;
+    private Long userId;
+
+    @JsonProperty("isTribute")
+    private boolean isTribute;
+}
@@ -0,0 +1,21 @@
+package com.cooknect.recipe_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PantryMatchDTO {
+    private GetRecipeDTO recipe;
+    private int matchedIngredients;
+    private int totalIngredients;
+    // Share of the recipe's ingredients covered by the pantry, 1.0 means nothing is missing
+    private double coverage;
+    private List<String> missingIngredients;
+}
@@ -0,0 +1,24 @@
+package com.cooknect.recipe_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/* One NDJSON line of the bulk import response, written after every batch and once more at the end */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeImportProgressDTO {
+    private int batches;
+    // Non-blank input lines read so far
+    private long read;
+    private long imported;
+    private long failed;
+    // Problems since the previous progress line, e.g. "line 12: title is required"
+    private List<String> errors;
+    private boolean done;
+}
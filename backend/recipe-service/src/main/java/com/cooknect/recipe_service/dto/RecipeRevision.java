@@ -0,0 +1,9 @@
+package com.cooknect.recipe_service.dto;
+
+/* Current version, comment and like count of a recipe, a primary key lookup that never touches the collections */
+public interface RecipeRevision {
+    Long getVersion();
+    // Comments are only ever added, so the count identifies the comments the detail body holds
+    int getCommentCount();
+    int getLikes();
+}
@@ -0,0 +1,20 @@
+package com.cooknect.recipe_service.dto;
+
+import com.cooknect.recipe_service.model.Cuisine;
+
+/*
+ * Closed projection of the recipe columns list views need.
+ * Only these columns are selected, none of the ingredient, preparation or comment collections are touched.
+ */
+public interface RecipeSummary {
+    Long getId();
+    String getTitle();
+    String getDescription();
+    String getRecipeImageUrl();
+    Cuisine getCuisine();
+    int getLikes();
+    int getCommentCount();
+    Long getUserId();
+    // Named after the entity attribute, a plain isTribute() would not map onto it
+    boolean getIsTribute();
+}
@@ -0,0 +1,20 @@
+package com.cooknect.recipe_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeTranslationDTO {
+    private Long recipeId;
+    private long recipeVersion;
+    private String language;
+    private String text;
+    private Instant translatedAt;
+}
@@ -0,0 +1,28 @@
+package com.cooknect.recipe_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/*
+ * Entry of the trending list, score is the time decayed activity at the time of the request.
+ * The recipe fields are filled in the background, they can be null for a recipe that just started trending.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingRecipeDTO {
+    private Long id;
+    private String title;
+    private String cuisine;
+    private String recipeImageUrl;
+    private Long userId;
+
+    @JsonProperty("isTribute")
+    private boolean isTribute;
+
+    private double score;
+}
@@ -0,0 +1,19 @@
+package com.cooknect.recipe_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+ * In-process notification of user activity on a recipe (likes, unlikes, comments).
+ * Published by RecipeService inside the activity's transaction, listeners that must only
+ * see committed activity use @TransactionalEventListener.
+ */
+@Getter
+@AllArgsConstructor
+public class RecipeActivityEvent {
+
+    public enum Type { LIKED, UNLIKED, COMMENTED }
+
+    private final Type type;
+    private final Long recipeId;
+}
@@ -0,0 +1,22 @@
+package com.cooknect.recipe_service.event;
+
+import com.cooknect.recipe_service.model.Recipe;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+ * In-process notification that a recipe was created, updated or deleted.
+ * Published by RecipeService after the change is saved, so that in-memory
+ * indexes and caches can update incrementally instead of rebuilding.
+ */
+@Getter
+@AllArgsConstructor
+public class RecipeChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final Long recipeId;
+    // Saved state of the recipe, null for DELETED
+    private final Recipe recipe;
+}
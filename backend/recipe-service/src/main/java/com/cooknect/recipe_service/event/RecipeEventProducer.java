@@ -1,20 +1,255 @@
 package com.cooknect.recipe_service.event;
 
 import com.cooknect.common.events.RecipeEvent;
+import com.cooknect.recipe_service.service.RecipeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
-import lombok.RequiredArgsConstructor;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+/*
+ * Publishes the recipe notification events off the request path.
+ *
+ * Endpoints only hand over the userId and the event type, which is a non-blocking offer onto a bounded queue.
+ * A single publisher thread drains the queue in batches, looks up the email and name of all users of a batch
+ * with one bulk user-service call, builds the RecipeEvents and sends them. The Kafka producer batches and compresses the records
+ * (spring.kafka.producer.* settings), delivery results come back through the send futures.
+ * If the queue is full the event is dropped and counted, a notification email is not worth blocking a like for.
+ * If the user lookup fails the batch is kept and retried with backoff, only users user-service does not know are
+ * skipped. The queue keeps filling meanwhile and drops once it is full.
+ */
 @Service
-@RequiredArgsConstructor
 public class RecipeEventProducer {
-    private final KafkaTemplate<String, Object> kafkaTemplate;
 
+    private static final Logger log = LoggerFactory.getLogger(RecipeEventProducer.class);
     private static final String TOPIC = "recipe-topic";
+    private static final long SHUTDOWN_WAIT_MILLIS = 5000;
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final RecipeService recipeService;
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatchSize;
+    private final long retryBackoffMillis;
+    private final long maxRetryBackoffMillis;
+    private final Thread publisher;
+    private volatile boolean running = true;
+    // Batch whose user lookup failed, only touched by the publisher thread until it has stopped
+    private List<Pending> retrying;
+
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter dropped;
+    private final Counter unresolved;
+    private final Timer sentLatency;
+    private final Timer failedLatency;
+
+    public RecipeEventProducer(KafkaTemplate<String, Object> kafkaTemplate,
+                               RecipeService recipeService,
+                               MeterRegistry meterRegistry,
+                               @Value("${recipe.events.queue-capacity:10000}") int queueCapacity,
+                               @Value("${recipe.events.max-batch-size:500}") int maxBatchSize,
+                               @Value("${recipe.events.retry-backoff-millis:1000}") long retryBackoffMillis,
+                               @Value("${recipe.events.max-retry-backoff-millis:60000}") long maxRetryBackoffMillis) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.recipeService = recipeService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxRetryBackoffMillis = maxRetryBackoffMillis;
+        this.publisher = new Thread(this::publishLoop, "recipe-event-publisher");
+        this.publisher.setDaemon(true);
+
+        this.sent = meterRegistry.counter("recipe.events.published", "result", "sent");
+        this.failed = meterRegistry.counter("recipe.events.published", "result", "failed");
+        this.dropped = meterRegistry.counter("recipe.events.published", "result", "dropped");
+        this.unresolved = meterRegistry.counter("recipe.events.published", "result", "unresolved");
+        // From the hand-over by the endpoint to the broker acknowledgement (or the failure)
+        this.sentLatency = meterRegistry.timer("recipe.events.publish.latency", "result", "sent");
+        this.failedLatency = meterRegistry.timer("recipe.events.publish.latency", "result", "failed");
+        meterRegistry.gauge("recipe.events.queued", queue, BlockingQueue::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        publisher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        publisher.interrupt();
+        try {
+            // Let a batch in progress finish, so the final drain below is the only consumer of the queue
+            publisher.join(SHUTDOWN_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // A batch waiting for its retry and whatever is still queued go out with the final flush of the Kafka producer
+        if (!publisher.isAlive() && retrying != null) {
+            List<Pending> batch = retrying;
+            retrying = null;
+            publishOrDrop(batch);
+        }
+        publishPending();
+    }
+
+    /* Queues a notification for the user, never blocks */
+    public void publish(Long userId, Type type) {
+        if (userId == null) {
+            return;
+        }
+        if (!queue.offer(new Pending(userId, type, System.nanoTime()))) {
+            dropped.increment();
+            log.warn("Recipe event queue is full, dropping {} event for userId={}", type, userId);
+        }
+    }
+
+    private void publishLoop() {
+        int attempts = 0;
+        while (running) {
+            try {
+                List<Pending> batch = retrying != null ? retrying : nextBatch(queue.take());
+                retrying = null;
+                if (publishBatch(batch)) {
+                    attempts = 0;
+                } else {
+                    retrying = batch;
+                    attempts++;
+                    Thread.sleep(retryDelayMillis(attempts));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Publishing recipe events failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /* Publishes everything queued right now, used on shutdown and by tests */
+    void publishPending() {
+        Pending first;
+        while ((first = queue.poll()) != null) {
+            publishOrDrop(nextBatch(first));
+        }
+    }
+
+    /* retry-backoff-millis after the first failed lookup, doubling with every further one up to max-retry-backoff-millis */
+    long retryDelayMillis(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(retryBackoffMillis << doublings, maxRetryBackoffMillis);
+    }
+
+    private List<Pending> nextBatch(Pending first) {
+        List<Pending> batch = new ArrayList<>();
+        batch.add(first);
+        queue.drainTo(batch, maxBatchSize - 1);
+        return batch;
+    }
+
+    // Without a retry left, a batch whose users could not be looked up is dropped
+    private void publishOrDrop(List<Pending> batch) {
+        if (!publishBatch(batch)) {
+            dropped.increment(batch.size());
+            log.warn("Dropping {} recipe event(s), their users could not be looked up", batch.size());
+        }
+    }
+
+    /* Sends the events of the batch, false without sending any if the user lookup failed */
+    private boolean publishBatch(List<Pending> batch) {
+        // One user-service call for all distinct users of the batch
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (Pending pending : batch) {
+            userIds.add(pending.getUserId());
+        }
+        Map<Long, Map<String, Object>> users = lookupUsers(userIds);
+        if (users == null) {
+            return false;
+        }
+        for (Pending pending : batch) {
+            Map<String, Object> user = users.get(pending.getUserId());
+            if (user == null || user.get("email") == null) {
+                unresolved.increment();
+                continue;
+            }
+            send(pending, toEvent(pending.getType(), user));
+        }
+        return true;
+    }
+
+    private void send(Pending pending, RecipeEvent event) {
+        kafkaTemplate.send(TOPIC, String.valueOf(pending.getUserId()), event).whenComplete((result, ex) -> {
+            long latency = System.nanoTime() - pending.getQueuedAtNanos();
+            if (ex == null) {
+                sent.increment();
+                sentLatency.record(latency, TimeUnit.NANOSECONDS);
+            } else {
+                failed.increment();
+                failedLatency.record(latency, TimeUnit.NANOSECONDS);
+                log.warn("Sending {} event for userId={} to [{}] failed: {}", pending.getType(), pending.getUserId(), TOPIC, ex.getMessage());
+            }
+        });
+    }
+
+    /* Contacts of the users user-service knows, null if the lookup failed */
+    private Map<Long, Map<String, Object>> lookupUsers(Set<Long> userIds) {
+        try {
+            return recipeService.getUserContactsByIds(userIds);
+        } catch (RuntimeException e) {
+            log.warn("Could not load {} user(s) for recipe events: {}", userIds.size(), e.getMessage());
+            return null;
+        }
+    }
+
+    static RecipeEvent toEvent(Type type, Map<String, Object> user) {
+        Object fullName = user.get("fullName");
+        return new RecipeEvent(
+            user.get("email").toString(),
+            type.getSubject(),
+            String.format("Hi %s! \n%s", fullName == null ? "" : fullName, type.getMessage())
+        );
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public enum Type {
+        RECIPE_CREATED("New Recipe Created Successfully", "You have successfully created a new recipe on Cooknect."),
+        RECIPE_LIKED("Recipe Liked/Unliked Successfully", "You have successfully liked/unliked a recipe on Cooknect."),
+        RECIPE_SAVED("Saved/Unsaved Recipe Successfully", "You have successfully saved/unsaved a recipe on Cooknect."),
+        COMMENT_ADDED("New Comment Added Successfully", "You have successfully added a new comment on Cooknect."),
+        RECIPE_UPDATED("Recipe Updated Successfully", "You have successfully updated a recipe on Cooknect."),
+        RECIPE_DELETED("Recipe Deleted Successfully", "You have successfully deleted a recipe on Cooknect."),
+        ALL_RECIPES_DELETED("Recipes Deleted Successfully", "You have successfully deleted all your recipes on Cooknect."),
+        // One per imported batch, not one per recipe
+        RECIPES_IMPORTED("Recipes Imported Successfully", "A batch of your recipes has been imported into Cooknect.");
+
+        private final String subject;
+        private final String message;
+    }
 
-    public void sendRecipeEvent(RecipeEvent event) {
-        kafkaTemplate.send(TOPIC, event);
-        System.out.println("✅ Sent event to Kafka topic [" + TOPIC + "]: " + event);
+    @Getter
+    @AllArgsConstructor
+    private static class Pending {
+        private final Long userId;
+        private final Type type;
+        private final long queuedAtNanos;
     }
 }
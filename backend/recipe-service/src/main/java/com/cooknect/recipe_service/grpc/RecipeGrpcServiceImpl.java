@@ -1,78 +1,208 @@
 package com.cooknect.recipe_service.grpc;
 
+import com.cooknect.recipe_service.dto.RecipeSummary;
 import com.cooknect.recipe_service.model.Recipe;
+import com.cooknect.recipe_service.repository.CommentRepository;
 import com.cooknect.recipe_service.repository.RecipeRepository;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
-import org.springframework.beans.factory.annotation.Autowired;
 import com.recipe.RecipeServiceGrpc;
 import com.recipe.GetRecipeByIdRequest;
+import com.recipe.GetRecipesByIdsRequest;
+import com.recipe.GetRecipesByIdsResponse;
+import com.recipe.StreamRecipesRequest;
 import com.recipe.RecipeResponse;
+import com.recipe.RecipeView;
 import com.recipe.Ingredient;
 import com.recipe.Comment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @GrpcService
 public class RecipeGrpcServiceImpl extends RecipeServiceGrpc.RecipeServiceImplBase {
 
-    @Autowired
-    private RecipeRepository recipeRepository;
+    /* Ids per database round trip, keeps the IN lists and the result sets bounded */
+    static final int MAX_IDS_PER_QUERY = 500;
 
+    private final RecipeRepository recipeRepository;
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate readOnlyTx;
+
+    public RecipeGrpcServiceImpl(RecipeRepository recipeRepository,
+                                 CommentRepository commentRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.recipeRepository = recipeRepository;
+        this.commentRepository = commentRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /*
+     * The request view decides what is read: the full view keeps the single entity graph query,
+     * the narrower views go through the batch loaders and never touch the comments.
+     */
     @Override
     public void getRecipeById(GetRecipeByIdRequest request, StreamObserver<RecipeResponse> responseObserver) {
-        Optional<Recipe> recipeOpt = recipeRepository.findById(request.getRecipeId());
-        RecipeResponse.Builder responseBuilder = RecipeResponse.newBuilder();
+        RecipeResponse response;
+        if (request.getView() == RecipeView.RECIPE_VIEW_FULL) {
+            Optional<Recipe> recipeOpt = recipeRepository.findById(request.getRecipeId());
+            response = recipeOpt
+                    .map(recipe -> toResponse(recipe, recipe.getComments()))
+                    .orElse(RecipeResponse.getDefaultInstance());
+        } else {
+            response = loadResponses(List.of(request.getRecipeId()), request.getView())
+                    .getOrDefault(request.getRecipeId(), RecipeResponse.getDefaultInstance());
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
 
-        if (recipeOpt.isPresent()) {
-            Recipe recipe = recipeOpt.get();
-            responseBuilder
-                .setId(recipe.getId())
-                .setTitle(recipe.getTitle())
-                .setDescription(recipe.getDescription())
-//                .setUsername(recipe.getUsername())
-                .setLikes(recipe.getLikes())
-                .setCuisine(String.valueOf(recipe.getCuisine()))
-                .setLanguage(recipe.getLanguage())
-                .setUserId(recipe.getUserId() != null ? recipe.getUserId() : 0L) // Set userId
-                .setIsTribute(recipe.isTribute());
-                
-            // Set tribute fields if it's a tribute
-            if (recipe.isTribute()) {
-                if (recipe.getAuthorName() != null) {
-                    responseBuilder.setAuthorName(recipe.getAuthorName());
-                }
-                if (recipe.getTributeDescription() != null) {
-                    responseBuilder.setTributeDescription(recipe.getTributeDescription());
-                }
-                if (recipe.getTributeImageUrl() != null) {
-                    responseBuilder.setPhoto(recipe.getTributeImageUrl());
+    /*
+     * Several recipes in one call, instead of one GetRecipeById per recipe.
+     * Recipes with their ingredients and all their comments are loaded with two queries per MAX_IDS_PER_QUERY ids,
+     * narrower views need one.
+     */
+    @Override
+    public void getRecipesByIds(GetRecipesByIdsRequest request, StreamObserver<GetRecipesByIdsResponse> responseObserver) {
+        GetRecipesByIdsResponse.Builder responseBuilder = GetRecipesByIdsResponse.newBuilder();
+        for (List<Long> chunk : chunks(request.getRecipeIdsList())) {
+            loadResponses(chunk, request.getView()).forEach(responseBuilder::putRecipes);
+        }
+        responseObserver.onNext(responseBuilder.build());
+        responseObserver.onCompleted();
+    }
+
+    /*
+     * Streams the requested recipes in request order, one message per recipe.
+     * Loading happens chunk by chunk, so the first recipes go out before the last ones are read.
+     */
+    @Override
+    public void streamRecipes(StreamRecipesRequest request, StreamObserver<RecipeResponse> responseObserver) {
+        ServerCallStreamObserver<RecipeResponse> serverObserver = responseObserver instanceof ServerCallStreamObserver
+                ? (ServerCallStreamObserver<RecipeResponse>) responseObserver
+                : null;
+        for (List<Long> chunk : chunks(request.getRecipeIdsList())) {
+            if (serverObserver != null && serverObserver.isCancelled()) {
+                return;
+            }
+            Map<Long, RecipeResponse> loaded = loadResponses(chunk, request.getView());
+            for (Long id : chunk) {
+                RecipeResponse response = loaded.get(id);
+                if (response != null) {
+                    responseObserver.onNext(response);
                 }
             }
+        }
+        responseObserver.onCompleted();
+    }
 
-            // Add ingredients
-            if (recipe.getIngredients() != null) {
-                recipe.getIngredients().forEach(ing -> {
-                    Ingredient grpcIngredient = Ingredient.newBuilder()
-                        .setName(ing.getName())
-                        .setQuantity(ing.getQuantity())
-                        .build();
-                    responseBuilder.addIngredients(grpcIngredient);
-                });
+    private Map<Long, RecipeResponse> loadResponses(Collection<Long> ids, RecipeView view) {
+        if (view == RecipeView.RECIPE_VIEW_SUMMARY) {
+            // Closed projection, only the summary columns are selected
+            Map<Long, RecipeResponse> responses = new HashMap<>();
+            for (RecipeSummary summary : recipeRepository.findSummariesByIdIn(ids)) {
+                responses.put(summary.getId(), toResponse(summary));
             }
+            return responses;
+        }
+        boolean withComments = view != RecipeView.RECIPE_VIEW_WITH_INGREDIENTS;
+        return readOnlyTx.execute(status -> {
+            List<Recipe> recipes = recipeRepository.findAllWithIngredientsByIdIn(ids);
+            Map<Long, List<com.cooknect.recipe_service.model.Comment>> commentsByRecipe = recipes.isEmpty() || !withComments
+                    ? Map.of()
+                    : commentRepository.findByRecipeIdInOrderByIdAsc(ids).stream()
+                            .collect(Collectors.groupingBy(com.cooknect.recipe_service.model.Comment::getRecipeId));
+            Map<Long, RecipeResponse> responses = new HashMap<>();
+            for (Recipe recipe : recipes) {
+                responses.put(recipe.getId(), toResponse(recipe, commentsByRecipe.getOrDefault(recipe.getId(), List.of())));
+            }
+            return responses;
+        });
+    }
+
+    /* Distinct ids in request order, split into query sized chunks */
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += MAX_IDS_PER_QUERY) {
+            chunks.add(distinct.subList(from, Math.min(from + MAX_IDS_PER_QUERY, distinct.size())));
+        }
+        return chunks;
+    }
+
+    private static RecipeResponse toResponse(RecipeSummary summary) {
+        RecipeResponse.Builder responseBuilder = RecipeResponse.newBuilder()
+            .setId(summary.getId())
+            .setLikes(summary.getLikes())
+            .setCuisine(String.valueOf(summary.getCuisine()))
+            .setUserId(summary.getUserId() != null ? summary.getUserId() : 0L)
+            .setIsTribute(summary.getIsTribute());
+        if (summary.getTitle() != null) {
+            responseBuilder.setTitle(summary.getTitle());
+        }
+        if (summary.getDescription() != null) {
+            responseBuilder.setDescription(summary.getDescription());
+        }
+        return responseBuilder.build();
+    }
 
-            // Add comments
-            if (recipe.getComments() != null) {
-                recipe.getComments().forEach(com -> {
-                    Comment grpcComment = Comment.newBuilder()
-                        .setText(com.getText())
-                        .setAuthor(com.getAuthor())
-                        .build();
-                    responseBuilder.addComments(grpcComment);
-                });
+    private static RecipeResponse toResponse(Recipe recipe, List<com.cooknect.recipe_service.model.Comment> comments) {
+        RecipeResponse.Builder responseBuilder = RecipeResponse.newBuilder();
+        responseBuilder
+            .setId(recipe.getId())
+            .setTitle(recipe.getTitle())
+            .setDescription(recipe.getDescription())
+//            .setUsername(recipe.getUsername())
+            .setLikes(recipe.getLikes())
+            .setCuisine(String.valueOf(recipe.getCuisine()))
+            .setLanguage(recipe.getLanguage())
+            .setUserId(recipe.getUserId() != null ? recipe.getUserId() : 0L) // Set userId
+            .setIsTribute(recipe.isTribute());
+
+        // Set tribute fields if it's a tribute
+        if (recipe.isTribute()) {
+            if (recipe.getAuthorName() != null) {
+                responseBuilder.setAuthorName(recipe.getAuthorName());
+            }
+            if (recipe.getTributeDescription() != null) {
+                responseBuilder.setTributeDescription(recipe.getTributeDescription());
+            }
+            if (recipe.getTributeImageUrl() != null) {
+                responseBuilder.setPhoto(recipe.getTributeImageUrl());
             }
         }
-        responseObserver.onNext(responseBuilder.build());
-        responseObserver.onCompleted();
+
+        // Add ingredients
+        if (recipe.getIngredients() != null) {
+            recipe.getIngredients().forEach(ing -> {
+                Ingredient grpcIngredient = Ingredient.newBuilder()
+                    .setName(ing.getName())
+                    .setQuantity(ing.getQuantity())
+                    .build();
+                responseBuilder.addIngredients(grpcIngredient);
+            });
+        }
+
+        // Add comments
+        if (comments != null) {
+            comments.forEach(com -> {
+                Comment grpcComment = Comment.newBuilder()
+                    .setText(com.getText())
+                    .setAuthor(com.getAuthor())
+                    .build();
+                responseBuilder.addComments(grpcComment);
+            });
+        }
+        return responseBuilder.build();
     }
 }
@@ -0,0 +1,64 @@
+package com.cooknect.recipe_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/*
+ * Persistent queue entry for generating the audio of a recipe in one language and voice.
+ * There is one job per (recipe, language, voice), see db/recipe-audio-jobs.sql, finished or failed
+ * jobs are put back in the queue when the audio is requested again.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "audio_job", indexes = @Index(name = "idx_audio_job_status_id", columnList = "status, id"))
+public class AudioJob {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "recipe_id", nullable = false)
+    private Long recipeId;
+
+    @Column(name = "language", nullable = false)
+    private String language;
+
+    @Column(name = "voice", nullable = false)
+    private String voice;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // recipe_audio row produced by the job, set once it is DONE
+    @Column(name = "audio_id")
+    private Long audioId;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    // A failed attempt is only retried from this point on, null when the job can run right away
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
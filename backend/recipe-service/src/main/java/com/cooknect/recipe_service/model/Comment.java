@@ -1,8 +1,11 @@
 package com.cooknect.recipe_service.model;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.Instant;
 import lombok.*;
 @Entity
+// Keyset paging of a recipe's comments, newest first
+@Table(indexes = @Index(name = "idx_comment_recipe_id_id", columnList = "recipe_id, id"))
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @ToString
 public class Comment {
     @Id
@@ -14,4 +17,9 @@ public class Comment {
     private String text;
     private Instant createdAt = Instant.now();
 
+    // Owns the foreign key, comments are inserted on their own without touching the recipe aggregate
+    @JsonIgnore
+    @Column(name = "recipe_id")
+    private Long recipeId;
+
 }
@@ -9,6 +9,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+/* (recipe_id, user_id) is unique, the index is created in db/recipe-likes.sql */
 @Table(name="likes")
 public class Like {
     @Id
@@ -0,0 +1,30 @@
+package com.cooknect.recipe_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/* Outbox row for a like counter change that is not applied to recipe.likes yet (write-behind mode) */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "recipe_like_outbox", indexes = @Index(name = "idx_recipe_like_outbox_created_at", columnList = "created_at"))
+public class LikeDelta {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "recipe_id", nullable = false)
+    private Long recipeId;
+
+    @Column(name = "delta", nullable = false)
+    private int delta;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
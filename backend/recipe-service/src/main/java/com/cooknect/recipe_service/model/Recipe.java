@@ -1,14 +1,30 @@
 package com.cooknect.recipe_service.model;
 import com.cooknect.recipe_service.model.Ingredient;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+import java.time.Instant;
 import java.util.*;
+import java.util.stream.Collectors;
 import lombok.*;
 
 @Entity
+@Table(indexes = {
+        // Composite indexes backing the keyset paginated feed
+        @Index(name = "idx_recipe_likes_id", columnList = "likes, id"),
+        @Index(name = "idx_recipe_created_at_id", columnList = "created_at, id"),
+        // Keyset paging within a cuisine (GraphQL recipesByCuisine)
+        @Index(name = "idx_recipe_cuisine_id", columnList = "cuisine, id"),
+        // Resync of the in-memory indexes (CuisineFeedIndex, PantryIndex)
+        @Index(name = "idx_recipe_updated_at", columnList = "updated_at")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @ToString
 public class Recipe {
+    // Pooled sequence instead of IDENTITY, so new recipes get their ids without an insert and Hibernate can
+    // batch the inserts (see RecipeImportService). db/recipe-sequence.sql moves the sequence past existing ids.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_seq")
+    @SequenceGenerator(name = "recipe_seq", sequenceName = "recipe_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -33,8 +49,24 @@ public class Recipe {
     private Cuisine cuisine = Cuisine.OTHER;
 
     private String language = "en";
+
+    // Maintained only by RecipeRepository.adjustLikes (and the write-behind flush), entity saves never write it
+    @Column(updatable = false)
     private int likes = 0;
 
+    // Bumped by every change of the detail body, keys the recipe detail cache
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0", nullable = false)
+    private Long version;
+
+    @Column(name = "created_at", columnDefinition = "timestamp(6) with time zone default now()", nullable = false, updatable = false)
+    private Instant createdAt = Instant.now();
+
+    // Set by every insert and entity update, not by the counter updates, other instances resync their indexes by it
+    @UpdateTimestamp
+    @Column(name = "updated_at", columnDefinition = "timestamp(6) with time zone default now()", nullable = false)
+    private Instant updatedAt;
+
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "recipe_id")
     private List<Like> detailLikes = new ArrayList<>();
@@ -47,9 +79,14 @@ public class Recipe {
 
     private Long userId;
 
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "recipe_id")
+    // Read-only view of the comments, they are written through CommentRepository (see Comment.recipeId)
+    @OneToMany(cascade = CascadeType.REMOVE)
+    @JoinColumn(name = "recipe_id", insertable = false, updatable = false)
     private List<Comment> comments = new ArrayList<>();
+
+    // Denormalized number of comments, maintained atomically by RecipeRepository.incrementCommentCount, entity saves never write it
+    @Column(name = "comment_count", columnDefinition = "integer default 0", nullable = false, updatable = false)
+    private int commentCount = 0;
     
     // Tribute fields
     @Column(name = "is_tribute", columnDefinition = "boolean default false", nullable = false)
@@ -63,4 +100,18 @@ public class Recipe {
     
     @Column(name = "tribute_image_url")
     private String tributeImageUrl;  // Photo URL for tribute
+
+    // Ingredient names flattened for the full-text search vector (see db/recipe-search.sql)
+    @JsonIgnore
+    @ToString.Exclude
+    @Column(name = "search_ingredients", columnDefinition = "TEXT")
+    private String searchIngredients;
+
+    @PrePersist
+    public void refreshSearchIngredients() {
+        this.searchIngredients = ingredients == null ? "" : ingredients.stream()
+                .map(Ingredient::getName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(" "));
+    }
 }
@@ -3,6 +3,11 @@ package com.cooknect.recipe_service.model;
 import jakarta.persistence.*;
 import java.time.Instant;
 
+/*
+ * Metadata of a generated audio file, the audio itself lives in the AudioStore under contentHash.
+ * The former audio_data blob column is emptied by AudioBlobMigration.
+ * There is at most one row per (recipe, language, voice), enforced by db/recipe-audio.sql.
+ */
 @Entity
 @Table(name = "recipe_audio")
 public class RecipeAudio {
@@ -14,9 +19,12 @@ public class RecipeAudio {
     @Column(name = "recipe_id", nullable = false)
     private Long recipeId;
 
-    @Lob
-    @Column(name = "audio_data", nullable = false)
-    private byte[] audioData;
+    // SHA-256 of the audio, names the file in the AudioStore and doubles as ETag
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
 
     @Column(name = "content_type")
     private String contentType;
@@ -27,11 +35,16 @@ public class RecipeAudio {
     @Column(name = "Language", nullable = false)
     private String language;
 
+    @Column(name = "voice", columnDefinition = "varchar(64) default 'Kore' not null")
+    private String voice = "Kore";
+
     public RecipeAudio() {}
 
-    public RecipeAudio(Long recipeId, byte[] audioData, String contentType, String language) {
+    public RecipeAudio(Long recipeId, String contentHash, long sizeBytes, String contentType, String language, String voice) {
         this.recipeId = recipeId;
-        this.audioData = audioData;
+        this.voice = voice;
+        this.contentHash = contentHash;
+        this.sizeBytes = sizeBytes;
         this.contentType = contentType;
         this.createdAt = Instant.now();
         this.language = language;
@@ -41,12 +54,16 @@ public class RecipeAudio {
     public Long getId() { return id; }
     public Long getRecipeId() { return recipeId; }
     public void setRecipeId(Long recipeId) { this.recipeId = recipeId; }
-    public byte[] getAudioData() { return audioData; }
-    public void setAudioData(byte[] audioData) { this.audioData = audioData; }
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+    public Long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(Long sizeBytes) { this.sizeBytes = sizeBytes; }
     public String getContentType() { return contentType; }
     public void setContentType(String contentType) { this.contentType = contentType; }
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
     public String getLanguage() { return language; }
     public void setLanguage(String language) { this.language = language; }
-}
\ No newline at end of file
+    public String getVoice() { return voice; }
+    public void setVoice(String voice) { this.voice = voice; }
+}
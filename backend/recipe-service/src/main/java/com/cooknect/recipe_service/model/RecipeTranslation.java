@@ -0,0 +1,42 @@
+package com.cooknect.recipe_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/*
+ * Cached translation of the spoken recipe text, keyed by (recipe, recipe version, language).
+ * sourceHash is the SHA-256 of the source text, so a translation is only reused for the text it was made from.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "recipe_translation")
+public class RecipeTranslation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "recipe_id", nullable = false)
+    private Long recipeId;
+
+    @Column(name = "recipe_version", nullable = false)
+    private long recipeVersion;
+
+    @Column(name = "language", nullable = false)
+    private String language;
+
+    @Column(name = "source_hash", nullable = false, length = 64)
+    private String sourceHash;
+
+    @Column(name = "translated_text", nullable = false, columnDefinition = "text")
+    private String translatedText;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,26 @@
+package com.cooknect.recipe_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/* Checkpointed trending score of a recipe, decayed up to scoredAt (see TrendingService) */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "recipe_trending")
+public class TrendingScore {
+    @Id
+    @Column(name = "recipe_id")
+    private Long recipeId;
+
+    @Column(name = "score", nullable = false)
+    private double score;
+
+    @Column(name = "scored_at", nullable = false)
+    private Instant scoredAt;
+}
@@ -0,0 +1,35 @@
+package com.cooknect.recipe_service.repository;
+
+import com.cooknect.recipe_service.model.AudioJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface AudioJobRepository extends JpaRepository<AudioJob, Long> {
+    Optional<AudioJob> findByRecipeIdAndLanguageAndVoice(Long recipeId, String language, String voice);
+
+    long countByStatus(AudioJob.Status status);
+
+    @Modifying
+    @Transactional
+    void deleteAllByRecipeId(Long recipeId);
+
+    // Concurrent submissions of the same key end up with the same job (see db/recipe-audio-jobs.sql)
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO audio_job (recipe_id, language, voice, status, attempts, created_at, updated_at) " +
+            "VALUES (:recipeId, :language, :voice, 'QUEUED', 0, now(), now()) " +
+            "ON CONFLICT (recipe_id, language, voice) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("recipeId") Long recipeId, @Param("language") String language, @Param("voice") String voice);
+
+    // Puts a finished or failed job back in the queue, a no-op if its status changed in between
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE audio_job SET status = 'QUEUED', attempts = 0, audio_id = NULL, error = NULL, next_attempt_at = NULL, updated_at = now() " +
+            "WHERE id = :id AND status = :status", nativeQuery = true)
+    int requeue(@Param("id") Long id, @Param("status") String status);
+}
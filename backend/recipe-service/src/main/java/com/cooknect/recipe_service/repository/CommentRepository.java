@@ -0,0 +1,27 @@
+package com.cooknect.recipe_service.repository;
+
+import com.cooknect.recipe_service.model.Comment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CommentRepository extends JpaRepository<Comment, Long> {
+
+    // Keyset page of a recipe's comments older than beforeId, newest first, the limit is taken from the pageable
+    @Query("SELECT c FROM Comment c WHERE c.recipeId = :recipeId AND c.id < :beforeId ORDER BY c.id DESC")
+    List<Comment> findPage(@Param("recipeId") Long recipeId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    // Newest `perRecipe` comments of each recipe of a page, in one query
+    @Query(value = "SELECT c.id, c.author, c.text, c.created_at, c.recipe_id FROM (" +
+            "SELECT cm.*, row_number() OVER (PARTITION BY cm.recipe_id ORDER BY cm.id DESC) AS rn " +
+            "FROM comment cm WHERE cm.recipe_id IN (:recipeIds)) c " +
+            "WHERE c.rn <= :perRecipe ORDER BY c.recipe_id, c.id DESC", nativeQuery = true)
+    List<Comment> findPreviews(@Param("recipeIds") Collection<Long> recipeIds, @Param("perRecipe") int perRecipe);
+
+    // All comments of a batch of recipes, oldest first, used by the gRPC batch API
+    List<Comment> findByRecipeIdInOrderByIdAsc(Collection<Long> recipeIds);
+}
@@ -0,0 +1,7 @@
+package com.cooknect.recipe_service.repository;
+
+import com.cooknect.recipe_service.model.LikeDelta;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LikeDeltaRepository extends JpaRepository<LikeDelta, Long> {
+}
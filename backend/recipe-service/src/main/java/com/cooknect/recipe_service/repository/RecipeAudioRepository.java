@@ -2,6 +2,10 @@ package com.cooknect.recipe_service.repository;
 
 import com.cooknect.recipe_service.model.RecipeAudio;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +14,17 @@ public interface RecipeAudioRepository extends JpaRepository<RecipeAudio, Long>
     List<RecipeAudio> findAllByRecipeId(Long recipeId);
     void deleteAllByRecipeId(Long recipeId);
     Optional<RecipeAudio> findByRecipeIdAndLanguage(Long recipeId, String language);
+    Optional<RecipeAudio> findByRecipeIdAndLanguageAndVoice(Long recipeId, String language, String voice);
+
+    // First writer wins on the unique (recipe_id, language, voice) index (see db/recipe-audio.sql)
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO recipe_audio (recipe_id, language, voice, content_hash, size_bytes, content_type, created_at) " +
+            "VALUES (:recipeId, :language, :voice, :contentHash, :sizeBytes, :contentType, now()) " +
+            "ON CONFLICT (recipe_id, language, voice) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("recipeId") Long recipeId, @Param("language") String language, @Param("voice") String voice,
+                       @Param("contentHash") String contentHash, @Param("sizeBytes") long sizeBytes,
+                       @Param("contentType") String contentType);
+    // Audio files are shared by content, a file may only go once no row points at it any more
+    long countByContentHash(String contentHash);
 }
\ No newline at end of file
@@ -2,10 +2,29 @@ package com.cooknect.recipe_service.repository;
 
 import com.cooknect.recipe_service.model.Like;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 public interface RecipeLikeRepository extends JpaRepository<Like,Long> {
 //    return like list by recipe id
     Optional<Like> getByRecipeIdAndUserId(Long recipeId, Long userId);
+
+    // ids out of the given page that the user has liked, one query for the whole page
+    @Query("SELECT l.recipeId FROM Like l WHERE l.userId = :userId AND l.recipeId IN :recipeIds")
+    Set<Long> findLikedRecipeIds(@Param("userId") Long userId, @Param("recipeIds") Collection<Long> recipeIds);
+
+    // Toggle primitives, both return the number of rows changed so the caller knows whether the like existed
+    @Modifying
+    @Query("DELETE FROM Like l WHERE l.recipeId = :recipeId AND l.userId = :userId")
+    int deleteLike(@Param("recipeId") Long recipeId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO likes (recipe_id, user_id) VALUES (:recipeId, :userId) " +
+            "ON CONFLICT (recipe_id, user_id) DO NOTHING", nativeQuery = true)
+    int insertLikeIfAbsent(@Param("recipeId") Long recipeId, @Param("userId") Long userId);
 }
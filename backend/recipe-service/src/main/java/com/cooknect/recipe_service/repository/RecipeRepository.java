@@ -1,24 +1,155 @@
 package com.cooknect.recipe_service.repository;
 
+import com.cooknect.recipe_service.dto.RecipeRevision;
+import com.cooknect.recipe_service.dto.RecipeSummary;
 import com.cooknect.recipe_service.model.Recipe;
 import com.cooknect.recipe_service.model.Cuisine;
 import com.cooknect.recipe_service.model.Ingredient;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     List<Recipe> findByCuisine(Cuisine cuisine);
-    // Custom query for ingredient name search
-    @Query("SELECT r FROM Recipe r JOIN r.ingredients i WHERE LOWER(i.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Recipe> findByIngredientName(@Param("name") String name);
+    // Custom query for ingredient name search, served by the trigram index on LOWER(name) (see db/recipe-ingredients.sql)
+    @Query("SELECT r FROM Recipe r WHERE r.id IN " +
+            "(SELECT r2.id FROM Recipe r2 JOIN r2.ingredients i WHERE LOWER(i.name) LIKE LOWER(CONCAT('%', :name, '%')))")
+    Page<Recipe> findByIngredientName(@Param("name") String name, Pageable pageable);
+
+    // (recipe id, ingredient name) pairs for building in-memory ingredient indexes, must run inside a transaction
+    @Query("SELECT r.id, i.name FROM Recipe r JOIN r.ingredients i")
+    Stream<Object[]> streamIngredientNames();
+
+    // (recipe id, cuisine) pairs for building the per-cuisine feed lists, must run inside a transaction
+    @Query("SELECT r.id, r.cuisine FROM Recipe r")
+    Stream<Object[]> streamIdsAndCuisines();
+
+    // Changes since the last resync of the in-memory indexes, including those made by other instances
+    @Query("SELECT r.id, r.cuisine FROM Recipe r WHERE r.updatedAt > :since")
+    List<Object[]> findIdsAndCuisinesUpdatedSince(@Param("since") Instant since);
+
+    @Query("SELECT r.id FROM Recipe r WHERE r.updatedAt > :since")
+    List<Long> findIdsUpdatedSince(@Param("since") Instant since);
+
+    // All recipe ids, an index only scan, must run inside a transaction
+    @Query("SELECT r.id FROM Recipe r")
+    Stream<Long> streamIds();
+
+    @Query("SELECT r.id FROM Recipe r WHERE r.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
     List<Recipe> findByTitleContainingIgnoreCase(String title);
     @EntityGraph(attributePaths = {"ingredients", "comments"})
     Optional<Recipe> findById(Long id);
+
+    // (recipe id, ingredient name, quantity) rows of several recipes, for the batched GraphQL ingredients field
+    @Query("SELECT r.id, i.name, i.quantity FROM Recipe r JOIN r.ingredients i WHERE r.id IN :ids")
+    List<Object[]> findIngredientRowsByRecipeIdIn(@Param("ids") Collection<Long> ids);
+
+    // Batch load for the gRPC API, comments are loaded separately with CommentRepository.findByRecipeIdInOrderByIdAsc
+    @Query("SELECT DISTINCT r FROM Recipe r LEFT JOIN FETCH r.ingredients WHERE r.id IN :ids")
+    List<Recipe> findAllWithIngredientsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT r.version AS version, r.commentCount AS commentCount, r.likes AS likes FROM Recipe r WHERE r.id = :id")
+    Optional<RecipeRevision> findRevisionById(@Param("id") Long id);
     List<Recipe> findByUserId(Long userId);
 
     List<Recipe> findAllByUserId(Long userId);
-}
\ No newline at end of file
+
+    // Database side counter update, concurrent likes never overwrite each other
+    @Modifying
+    @Query("UPDATE Recipe r SET r.likes = r.likes + :delta WHERE r.id = :id")
+    int adjustLikes(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    // Leaves the version alone, so a comment never fails a concurrent entity save. RecipeDetailCache keys on the count
+    @Query("UPDATE Recipe r SET r.commentCount = r.commentCount + 1 WHERE r.id = :id")
+    int incrementCommentCount(@Param("id") Long id);
+
+    // Paged variants used by the listing endpoints, Spring Data issues a separate count query for totals
+    Page<Recipe> findByTitleContainingIgnoreCase(String title, Pageable pageable);
+
+    Page<Recipe> findByUserId(Long userId, Pageable pageable);
+
+    @Query("SELECT r FROM Recipe r WHERE r.id IN (SELECT s.recipeId FROM SavedRecipe s WHERE s.userId = :userId)")
+    Page<Recipe> findSavedByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT r FROM Recipe r WHERE UPPER(r.title) LIKE UPPER(CONCAT('%', :title, '%')) " +
+            "AND r.id IN (SELECT s.recipeId FROM SavedRecipe s WHERE s.userId = :userId)")
+    Page<Recipe> findSavedByUserIdAndTitle(@Param("userId") Long userId, @Param("title") String title, Pageable pageable);
+
+    // Summary projections for list views, derived queries select only the projected columns
+    Page<RecipeSummary> findSummariesBy(Pageable pageable);
+
+    Page<RecipeSummary> findSummariesByTitleContainingIgnoreCase(String title, Pageable pageable);
+
+    Page<RecipeSummary> findSummariesByUserId(Long userId, Pageable pageable);
+
+    List<RecipeSummary> findSummariesByCuisine(Cuisine cuisine);
+
+    List<RecipeSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM Recipe r " +
+            "WHERE r.id IN (SELECT s.recipeId FROM SavedRecipe s WHERE s.userId = :userId)",
+            countQuery = "SELECT count(r) FROM Recipe r WHERE r.id IN (SELECT s.recipeId FROM SavedRecipe s WHERE s.userId = :userId)")
+    Page<RecipeSummary> findSavedSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM Recipe r WHERE UPPER(r.title) LIKE UPPER(CONCAT('%', :title, '%')) " +
+            "AND r.id IN (SELECT s.recipeId FROM SavedRecipe s WHERE s.userId = :userId)",
+            countQuery = "SELECT count(r) FROM Recipe r WHERE UPPER(r.title) LIKE UPPER(CONCAT('%', :title, '%')) " +
+                    "AND r.id IN (SELECT s.recipeId FROM SavedRecipe s WHERE s.userId = :userId)")
+    Page<RecipeSummary> findSavedSummariesByUserIdAndTitle(@Param("userId") Long userId, @Param("title") String title, Pageable pageable);
+
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM Recipe r WHERE r.id IN " +
+            "(SELECT r2.id FROM Recipe r2 JOIN r2.ingredients i WHERE LOWER(i.name) LIKE LOWER(CONCAT('%', :name, '%')))",
+            countQuery = "SELECT count(r) FROM Recipe r WHERE r.id IN " +
+                    "(SELECT r2.id FROM Recipe r2 JOIN r2.ingredients i WHERE LOWER(i.name) LIKE LOWER(CONCAT('%', :name, '%')))")
+    Page<RecipeSummary> findSummariesByIngredientName(@Param("name") String name, Pageable pageable);
+
+    // Aliases must match the RecipeSummary getters
+    String SUMMARY_COLUMNS = "r.id AS id, r.title AS title, r.description AS description, r.recipeImageUrl AS recipeImageUrl, " +
+            "r.cuisine AS cuisine, r.likes AS likes, r.commentCount AS commentCount, r.userId AS userId, r.isTribute AS isTribute";
+
+    // Keyset (seek) queries for the recipe feed, the limit is taken from the pageable
+    @Query("SELECT r FROM Recipe r WHERE r.id > :id ORDER BY r.id ASC")
+    List<Recipe> findFeedById(@Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT r FROM Recipe r WHERE r.cuisine = :cuisine AND r.id > :id ORDER BY r.id ASC")
+    List<Recipe> findFeedByCuisineAndId(@Param("cuisine") Cuisine cuisine, @Param("id") Long id, Pageable pageable);
+
+    // Row value comparisons, Postgres turns them into a range start on the (likes, id) and (created_at, id) indexes
+    @Query("SELECT r FROM Recipe r WHERE (r.likes, r.id) < (:likes, :id) ORDER BY r.likes DESC, r.id DESC")
+    List<Recipe> findFeedByLikes(@Param("likes") int likes, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT r FROM Recipe r WHERE (r.createdAt, r.id) < (:createdAt, :id) ORDER BY r.createdAt DESC, r.id DESC")
+    List<Recipe> findFeedByCreatedAt(@Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+    // Full-text search, ranked by text relevance boosted by likes (see db/recipe-search.sql)
+    @Query(value = "SELECT r.id FROM recipe r, websearch_to_tsquery('english', :q) query " +
+            "WHERE r.search_vector @@ query " +
+            "ORDER BY ts_rank_cd(r.search_vector, query) * (1 + :likesWeight * ln(1 + greatest(r.likes, 0))) DESC, r.id DESC " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Long> searchIds(@Param("q") String q, @Param("likesWeight") double likesWeight,
+                         @Param("limit") int limit, @Param("offset") long offset);
+
+    @Query(value = "SELECT count(*) FROM recipe r WHERE r.search_vector @@ websearch_to_tsquery('english', :q)", nativeQuery = true)
+    long countSearch(@Param("q") String q);
+
+    // Trigram fallback for queries without full-text hits, e.g. typos in the title
+    @Query(value = "SELECT r.id FROM recipe r WHERE upper(r.title) % upper(:q) " +
+            "ORDER BY similarity(upper(r.title), upper(:q)) DESC, r.likes DESC, r.id DESC " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Long> searchIdsBySimilarity(@Param("q") String q, @Param("limit") int limit, @Param("offset") long offset);
+
+    @Query(value = "SELECT count(*) FROM recipe r WHERE upper(r.title) % upper(:q)", nativeQuery = true)
+    long countSearchBySimilarity(@Param("q") String q);
+}
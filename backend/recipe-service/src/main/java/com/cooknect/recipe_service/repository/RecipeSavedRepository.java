@@ -2,11 +2,19 @@ package com.cooknect.recipe_service.repository;
 
 import com.cooknect.recipe_service.model.SavedRecipe;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface RecipeSavedRepository extends JpaRepository<SavedRecipe, Long> {
     Optional<SavedRecipe> getByRecipeIdAndUserId(Long recipeId, Long userId);
     List<SavedRecipe> findByUserId(Long userId);
+
+    // ids out of the given page that the user has saved, one query for the whole page
+    @Query("SELECT s.recipeId FROM SavedRecipe s WHERE s.userId = :userId AND s.recipeId IN :recipeIds")
+    Set<Long> findSavedRecipeIds(@Param("userId") Long userId, @Param("recipeIds") Collection<Long> recipeIds);
 }
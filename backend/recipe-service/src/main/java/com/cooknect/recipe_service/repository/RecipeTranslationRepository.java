@@ -0,0 +1,34 @@
+package com.cooknect.recipe_service.repository;
+
+import com.cooknect.recipe_service.model.RecipeTranslation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface RecipeTranslationRepository extends JpaRepository<RecipeTranslation, Long> {
+    Optional<RecipeTranslation> findByRecipeIdAndRecipeVersionAndLanguage(Long recipeId, long recipeVersion, String language);
+
+    // Same text under an older version, e.g. when only comments were added since
+    Optional<RecipeTranslation> findFirstByRecipeIdAndLanguageAndSourceHashOrderByRecipeVersionDesc(Long recipeId, String language, String sourceHash);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO recipe_translation (recipe_id, recipe_version, language, source_hash, translated_text, created_at) " +
+            "VALUES (:recipeId, :recipeVersion, :language, :sourceHash, :translatedText, now()) " +
+            "ON CONFLICT (recipe_id, recipe_version, language) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("recipeId") Long recipeId, @Param("recipeVersion") long recipeVersion, @Param("language") String language,
+                       @Param("sourceHash") String sourceHash, @Param("translatedText") String translatedText);
+
+    @Modifying
+    @Transactional
+    void deleteAllByRecipeId(Long recipeId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RecipeTranslation t WHERE t.recipeId = :recipeId AND t.sourceHash <> :sourceHash")
+    int deleteStale(@Param("recipeId") Long recipeId, @Param("sourceHash") String sourceHash);
+}
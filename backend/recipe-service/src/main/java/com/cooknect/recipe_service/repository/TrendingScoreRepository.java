@@ -0,0 +1,7 @@
+package com.cooknect.recipe_service.repository;
+
+import com.cooknect.recipe_service.model.TrendingScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TrendingScoreRepository extends JpaRepository<TrendingScore, Long> {
+}
@@ -0,0 +1,85 @@
+package com.cooknect.recipe_service.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/*
+ * Moves audio that is still stored in the legacy recipe_audio.audio_data column into the AudioStore.
+ *
+ * Runs once per startup and is a no-op when nothing is left. Each row is migrated in its own transaction:
+ * the blob is streamed into the store, the row gets its content hash and the blob is cleared
+ * (large objects are unlinked as well). The emptied column itself is left in place.
+ */
+@Component
+public class AudioBlobMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(AudioBlobMigration.class);
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final AudioStore audioStore;
+
+    public AudioBlobMigration(JdbcTemplate jdbc, PlatformTransactionManager transactionManager, AudioStore audioStore) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.audioStore = audioStore;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        List<String> columnType = jdbc.queryForList(
+                "SELECT data_type FROM information_schema.columns " +
+                        "WHERE table_schema = current_schema() AND table_name = 'recipe_audio' AND column_name = 'audio_data'",
+                String.class);
+        if (columnType.isEmpty()) {
+            return;
+        }
+        // Hibernate maps @Lob byte[] to a large object (oid) on Postgres, older schemas may use bytea
+        boolean largeObject = "oid".equals(columnType.get(0));
+        // New rows only carry metadata
+        jdbc.execute("ALTER TABLE recipe_audio ALTER COLUMN audio_data DROP NOT NULL");
+
+        List<Long> ids = jdbc.queryForList("SELECT id FROM recipe_audio WHERE audio_data IS NOT NULL ORDER BY id", Long.class);
+        int migrated = 0;
+        for (Long id : ids) {
+            try {
+                tx.executeWithoutResult(status -> migrateRow(id, largeObject));
+                migrated++;
+            } catch (RuntimeException e) {
+                log.warn("Could not migrate audio blob of recipe_audio {}: {}", id, e.getMessage());
+            }
+        }
+        if (!ids.isEmpty()) {
+            log.info("Moved {} of {} audio blobs to the audio store", migrated, ids.size());
+        }
+    }
+
+    private void migrateRow(Long id, boolean largeObject) {
+        jdbc.query("SELECT audio_data FROM recipe_audio WHERE id = ? AND audio_data IS NOT NULL FOR UPDATE", rs -> {
+            AudioStore.StoredFile stored;
+            try (InputStream in = largeObject ? rs.getBlob(1).getBinaryStream() : rs.getBinaryStream(1)) {
+                stored = audioStore.put(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Long oid = largeObject ? rs.getLong(1) : null;
+
+            jdbc.update("UPDATE recipe_audio SET content_hash = ?, size_bytes = ?, audio_data = NULL WHERE id = ?",
+                    stored.getHash(), stored.getSize(), id);
+            if (oid != null) {
+                jdbc.queryForObject("SELECT lo_unlink(?)", Integer.class, oid);
+            }
+        }, id);
+    }
+}
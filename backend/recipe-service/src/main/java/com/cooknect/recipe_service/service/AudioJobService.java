@@ -0,0 +1,305 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.event.RecipeChangedEvent;
+import com.cooknect.recipe_service.exception.NotFoundException;
+import com.cooknect.recipe_service.exception.ServiceUnavailableException;
+import com.cooknect.recipe_service.model.AudioJob;
+import com.cooknect.recipe_service.model.RecipeAudio;
+import com.cooknect.recipe_service.repository.AudioJobRepository;
+import com.cooknect.recipe_service.repository.RecipeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Asynchronous recipe audio generation.
+ *
+ * Requests only enqueue a job, the audio_job table is the queue, so pending work survives restarts and is
+ * shared by all instances. A fixed pool of worker threads claims queued jobs with FOR UPDATE SKIP LOCKED
+ * and runs the translation and synthesis through SpeechSynthService, outside of any transaction.
+ * Submissions wake an idle worker, otherwise workers poll every poll-interval-millis.
+ *
+ * Jobs are deduplicated by (recipe, language, voice): submitting a key that is queued, running or done
+ * returns the existing job. Failed attempts are retried up to max-attempts with exponential backoff
+ * (next_attempt_at), jobs left RUNNING by a crashed instance are put back in the queue after stale-after-seconds.
+ */
+@Service
+public class AudioJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(AudioJobService.class);
+
+    private static final String CLAIM_SQL =
+            "UPDATE audio_job SET status = 'RUNNING', attempts = attempts + 1, started_at = now(), updated_at = now() " +
+            "WHERE id = (SELECT id FROM audio_job WHERE status = 'QUEUED' AND (next_attempt_at IS NULL OR next_attempt_at <= now()) " +
+            "ORDER BY id FOR UPDATE SKIP LOCKED LIMIT 1) " +
+            "RETURNING id";
+
+    private static final String RECOVER_SQL =
+            "UPDATE audio_job SET status = CASE WHEN attempts < ? THEN 'QUEUED' ELSE 'FAILED' END, " +
+            "error = CASE WHEN attempts < ? THEN error ELSE 'Worker stopped during the last attempt' END, updated_at = now() " +
+            "WHERE status = 'RUNNING' AND started_at < ? " +
+            "RETURNING status";
+
+    private final AudioJobRepository jobRepository;
+    private final RecipeRepository recipeRepository;
+    private final SpeechSynthService speechSynth;
+    private final JdbcTemplate jdbc;
+    private final int workers;
+    private final int maxQueued;
+    private final long pollIntervalMillis;
+    private final long staleAfterMillis;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long maxRetryBackoffMillis;
+
+    private final ExecutorService pool;
+    private final Semaphore wakeups = new Semaphore(0);
+    private volatile boolean running = true;
+
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private final AtomicLong queued = new AtomicLong();
+    private final Counter submitted;
+    private final Counter deduplicated;
+    private final Counter rejected;
+    private final Counter completed;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer jobTimer;
+
+    public AudioJobService(AudioJobRepository jobRepository,
+                           RecipeRepository recipeRepository,
+                           SpeechSynthService speechSynth,
+                           JdbcTemplate jdbc,
+                           MeterRegistry meterRegistry,
+                           @Value("${recipe.audio.jobs.workers:2}") int workers,
+                           @Value("${recipe.audio.jobs.max-queued:1000}") int maxQueued,
+                           @Value("${recipe.audio.jobs.poll-interval-millis:2000}") long pollIntervalMillis,
+                           @Value("${recipe.audio.jobs.stale-after-seconds:600}") long staleAfterSeconds,
+                           @Value("${recipe.audio.jobs.max-attempts:3}") int maxAttempts,
+                           @Value("${recipe.audio.jobs.retry-backoff-millis:30000}") long retryBackoffMillis,
+                           @Value("${recipe.audio.jobs.max-retry-backoff-millis:600000}") long maxRetryBackoffMillis) {
+        this.jobRepository = jobRepository;
+        this.recipeRepository = recipeRepository;
+        this.speechSynth = speechSynth;
+        this.jdbc = jdbc;
+        this.workers = workers;
+        this.maxQueued = maxQueued;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.staleAfterMillis = staleAfterSeconds * 1000;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxRetryBackoffMillis = maxRetryBackoffMillis;
+
+        AtomicInteger threadIds = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "audio-job-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.submitted = meterRegistry.counter("recipe.audio.jobs.submitted", "result", "queued");
+        this.deduplicated = meterRegistry.counter("recipe.audio.jobs.submitted", "result", "deduplicated");
+        this.rejected = meterRegistry.counter("recipe.audio.jobs.submitted", "result", "rejected");
+        this.completed = meterRegistry.counter("recipe.audio.jobs.finished", "result", "done");
+        this.retried = meterRegistry.counter("recipe.audio.jobs.finished", "result", "retried");
+        this.failed = meterRegistry.counter("recipe.audio.jobs.finished", "result", "failed");
+        this.jobTimer = meterRegistry.timer("recipe.audio.jobs.duration");
+        meterRegistry.gauge("recipe.audio.jobs.busy-workers", busyWorkers);
+        // Refreshed by the recovery sweep and on submission
+        meterRegistry.gauge("recipe.audio.jobs.queued", queued);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (int i = 0; i < workers; i++) {
+            pool.execute(this::workLoop);
+        }
+        log.info("Started {} audio job worker(s)", workers);
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Jobs that are interrupted here stay RUNNING and are picked up again by the recovery sweep
+        running = false;
+        pool.shutdownNow();
+    }
+
+    /*
+     * Returns the job producing the audio for (recipeId, language, voice), enqueuing it if needed.
+     * A failed job, or a finished one whose audio has been removed since, is queued again.
+     */
+    public AudioJob submit(Long recipeId, String language, String voiceName) {
+        if (!recipeRepository.existsById(recipeId)) {
+            throw new NotFoundException("Recipe not found");
+        }
+        String langCode = speechSynth.normalizeLanguageCode(language);
+        String voice = voiceName == null || voiceName.isBlank() ? SpeechSynthService.DEFAULT_VOICE : voiceName;
+
+        AudioJob job = jobRepository.findByRecipeIdAndLanguageAndVoice(recipeId, langCode, voice).orElse(null);
+        if (job == null) {
+            long queuedNow = jobRepository.countByStatus(AudioJob.Status.QUEUED);
+            queued.set(queuedNow);
+            if (queuedNow >= maxQueued) {
+                rejected.increment();
+                throw new ServiceUnavailableException("Audio generation queue is full, try again later");
+            }
+            if (jobRepository.insertIfAbsent(recipeId, langCode, voice) > 0) {
+                submitted.increment();
+            } else {
+                deduplicated.increment();
+            }
+            job = load(recipeId, langCode, voice);
+        } else if (job.getStatus() == AudioJob.Status.FAILED
+                || (job.getStatus() == AudioJob.Status.DONE && speechSynth.findReadyAudio(job.getAudioId()) == null)) {
+            jobRepository.requeue(job.getId(), job.getStatus().name());
+            submitted.increment();
+            job = load(recipeId, langCode, voice);
+        } else {
+            deduplicated.increment();
+        }
+
+        if (job.getStatus() == AudioJob.Status.QUEUED) {
+            wakeups.release();
+        }
+        return job;
+    }
+
+    public AudioJob getJob(Long jobId) {
+        return jobRepository.findById(jobId).orElseThrow(() -> new NotFoundException("Audio job not found"));
+    }
+
+    public Optional<AudioJob> findJob(Long recipeId, String language, String voiceName) {
+        String voice = voiceName == null || voiceName.isBlank() ? SpeechSynthService.DEFAULT_VOICE : voiceName;
+        return jobRepository.findByRecipeIdAndLanguageAndVoice(recipeId, speechSynth.normalizeLanguageCode(language), voice);
+    }
+
+    /* The generated audio of a DONE job, null while it is not available */
+    public RecipeAudio findAudio(AudioJob job) {
+        return job.getStatus() == AudioJob.Status.DONE ? speechSynth.findReadyAudio(job.getAudioId()) : null;
+    }
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.getType() == RecipeChangedEvent.Type.DELETED) {
+            jobRepository.deleteAllByRecipeId(event.getRecipeId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${recipe.audio.jobs.recovery-interval-millis:60000}",
+            initialDelayString = "${recipe.audio.jobs.recovery-interval-millis:60000}")
+    public void recoverStaleJobs() {
+        // Same rule as a failed attempt, so a job that keeps killing its worker is not claimed forever
+        List<String> statuses = jdbc.query(RECOVER_SQL, (rs, i) -> rs.getString(1),
+                maxAttempts, maxAttempts, Timestamp.from(Instant.now().minusMillis(staleAfterMillis)));
+        long recovered = statuses.stream().filter(AudioJob.Status.QUEUED.name()::equals).count();
+        if (recovered > 0) {
+            log.warn("Re-queued {} stale audio job(s)", recovered);
+            wakeups.release((int) recovered);
+        }
+        if (statuses.size() > recovered) {
+            failed.increment(statuses.size() - recovered);
+            log.warn("Failed {} stale audio job(s) out of attempts", statuses.size() - recovered);
+        }
+        queued.set(jobRepository.countByStatus(AudioJob.Status.QUEUED));
+    }
+
+    private void workLoop() {
+        while (running) {
+            try {
+                Long jobId = claimNext();
+                if (jobId != null) {
+                    runJob(jobId);
+                } else {
+                    wakeups.tryAcquire(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Database trouble, back off instead of spinning
+                log.warn("Audio job worker error: {}", e.getMessage());
+                try {
+                    Thread.sleep(pollIntervalMillis);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private Long claimNext() {
+        List<Long> ids = jdbc.query(CLAIM_SQL, (rs, i) -> rs.getLong(1));
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    private void runJob(Long jobId) {
+        AudioJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        busyWorkers.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            RecipeAudio audio = speechSynth.getOrCreateAudio(job.getRecipeId(), job.getLanguage(), job.getVoice());
+            jdbc.update("UPDATE audio_job SET status = 'DONE', audio_id = ?, error = NULL, updated_at = now() WHERE id = ?",
+                    audio.getId(), jobId);
+            completed.increment();
+            log.info("Audio job {} done for recipeId={} language={}", jobId, job.getRecipeId(), job.getLanguage());
+        } catch (RuntimeException e) {
+            String error = rootMessage(e);
+            boolean retry = job.getAttempts() < maxAttempts && recipeRepository.existsById(job.getRecipeId());
+            // Database clock, like the claim query, so the instances agree on when the retry is due
+            jdbc.update("UPDATE audio_job SET status = ?, error = ?, next_attempt_at = now() + ? * interval '1 millisecond', " +
+                            "updated_at = now() WHERE id = ?",
+                    retry ? AudioJob.Status.QUEUED.name() : AudioJob.Status.FAILED.name(), error,
+                    retryDelayMillis(job.getAttempts()), jobId);
+            (retry ? retried : failed).increment();
+            log.warn("Audio job {} attempt {} failed for recipeId={} language={}: {}",
+                    jobId, job.getAttempts(), job.getRecipeId(), job.getLanguage(), error);
+        } finally {
+            jobTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            busyWorkers.decrementAndGet();
+        }
+    }
+
+    /* retry-backoff-millis after the first failed attempt, doubling with every further one up to max-retry-backoff-millis */
+    long retryDelayMillis(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(retryBackoffMillis << doublings, maxRetryBackoffMillis);
+    }
+
+    private AudioJob load(Long recipeId, String langCode, String voice) {
+        return jobRepository.findByRecipeIdAndLanguageAndVoice(recipeId, langCode, voice)
+                .orElseThrow(() -> new IllegalStateException("Audio job missing after insert for recipeId=" + recipeId));
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
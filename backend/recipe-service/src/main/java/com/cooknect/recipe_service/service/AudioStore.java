@@ -0,0 +1,122 @@
+package com.cooknect.recipe_service.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/*
+ * Content addressed store for generated audio on the local filesystem.
+ *
+ * Files are named after the SHA-256 of their content and fanned out over two directory levels
+ * (ab/cd/abcd...), identical audio is stored once. Writes go to a temp file in the store first
+ * and are moved into place atomically, so readers never see a partial file.
+ * Data is streamed in and out, nothing here holds a whole file in memory.
+ */
+@Component
+public class AudioStore {
+
+    private static final Logger log = LoggerFactory.getLogger(AudioStore.class);
+
+    private final Path root;
+
+    public AudioStore(@Value("${recipe.audio.store-dir:./data/audio}") String root) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        Files.createDirectories(this.root.resolve("tmp"));
+    }
+
+    public StoredFile put(byte[] data) {
+        return put(new ByteArrayInputStream(data));
+    }
+
+    /* Streams the content into the store and returns its hash and size */
+    public StoredFile put(InputStream in) {
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(root.resolve("tmp"), "audio-", ".part");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (InputStream digesting = new DigestInputStream(in, digest);
+                 OutputStream out = Files.newOutputStream(tmp)) {
+                size = digesting.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+
+            Path target = path(hash);
+            if (Files.exists(target)) {
+                return new StoredFile(hash, size);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target);
+            } catch (FileAlreadyExistsException e) {
+                // Stored concurrently with the same content
+            }
+            return new StoredFile(hash, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store audio", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException e) {
+                    log.warn("Could not remove temp audio file {}: {}", tmp, e.getMessage());
+                }
+            }
+        }
+    }
+
+    public Resource resource(String hash) {
+        return new FileSystemResource(path(hash));
+    }
+
+    public boolean exists(String hash) {
+        return Files.exists(path(hash));
+    }
+
+    public void delete(String hash) {
+        try {
+            Files.deleteIfExists(path(hash));
+        } catch (IOException e) {
+            log.warn("Could not delete audio {}: {}", hash, e.getMessage());
+        }
+    }
+
+    Path path(String hash) {
+        if (hash == null || !hash.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Invalid audio hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + ".bin");
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class StoredFile {
+        private final String hash;
+        private final long size;
+    }
+}
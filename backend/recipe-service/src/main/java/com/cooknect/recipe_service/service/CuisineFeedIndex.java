@@ -0,0 +1,195 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.event.RecipeChangedEvent;
+import com.cooknect.recipe_service.model.Cuisine;
+import com.cooknect.recipe_service.repository.RecipeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/*
+ * Per-cuisine candidate lists for the personalized feed.
+ *
+ * Every cuisine keeps the ids of its newest recipes in a concurrent sorted set, newest first, bounded by
+ * maxPerCuisine. A feed page is a k-way merge of the lists of the user's cuisines past the cursor id, so a page
+ * reads page size + k entries however many recipes there are, and the recipe table is only hit for the page itself.
+ *
+ * The lists are built once at startup and then kept up to date from RecipeChangedEvents. Those only cover this
+ * instance's changes, a periodic resync applies the recipes updated since the previous one (by updated_at) and
+ * drops deleted ids, so changes made through other instances show up within the resync interval.
+ */
+@Component
+public class CuisineFeedIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CuisineFeedIndex.class);
+    // Rows committed late or written with a skewed clock are still picked up by the next resync
+    static final long RESYNC_OVERLAP_MILLIS = 60_000;
+
+    private final RecipeRepository repo;
+    private final int maxPerCuisine;
+    private final Map<Cuisine, NavigableSet<Long>> lists = new EnumMap<>(Cuisine.class);
+    // ConcurrentSkipListSet.size() walks the whole set, the sizes are counted alongside
+    private final Map<Cuisine, AtomicInteger> sizes = new EnumMap<>(Cuisine.class);
+    private volatile Instant syncedAt;
+
+    public CuisineFeedIndex(RecipeRepository repo,
+                            @Value("${recipe.personal-feed.max-per-cuisine:10000}") int maxPerCuisine) {
+        this.repo = repo;
+        this.maxPerCuisine = maxPerCuisine;
+        for (Cuisine cuisine : Cuisine.values()) {
+            lists.put(cuisine, new ConcurrentSkipListSet<>(Comparator.reverseOrder()));
+            sizes.put(cuisine, new AtomicInteger());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        syncedAt = Instant.ofEpochMilli(start);
+        try (Stream<Object[]> rows = repo.streamIdsAndCuisines()) {
+            rows.forEach(row -> add((Long) row[0], (Cuisine) row[1]));
+        }
+        log.info("Built the cuisine feed index in {} ms", System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(fixedDelayString = "${recipe.index-resync.interval-millis:60000}",
+               initialDelayString = "${recipe.index-resync.interval-millis:60000}")
+    @Transactional(readOnly = true)
+    public void resync() {
+        if (syncedAt == null) {
+            return;
+        }
+        Instant start = Instant.now();
+        List<Object[]> changed = repo.findIdsAndCuisinesUpdatedSince(syncedAt.minusMillis(RESYNC_OVERLAP_MILLIS));
+        for (Object[] row : changed) {
+            put((Long) row[0], (Cuisine) row[1]);
+        }
+
+        Set<Long> indexed = new HashSet<>();
+        lists.values().forEach(indexed::addAll);
+        Set<Long> deleted = DeletedRecipes.among(repo, indexed);
+        for (Long recipeId : deleted) {
+            for (Cuisine cuisine : Cuisine.values()) {
+                remove(recipeId, cuisine);
+            }
+        }
+        syncedAt = start;
+        log.debug("Resynced the cuisine feed index: {} changed, {} deleted", changed.size(), deleted.size());
+    }
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        Long recipeId = event.getRecipeId();
+        switch (event.getType()) {
+            case CREATED -> add(recipeId, event.getRecipe().getCuisine());
+            case UPDATED -> put(recipeId, event.getRecipe().getCuisine());
+            case DELETED -> {
+                for (Cuisine cuisine : Cuisine.values()) {
+                    remove(recipeId, cuisine);
+                }
+            }
+        }
+    }
+
+    /*
+     * Up to limit recipe ids of the given cuisines (all cuisines if empty) older than afterId, newest first.
+     * afterId null starts at the newest recipe.
+     */
+    public List<Long> page(Collection<Cuisine> cuisines, Long afterId, int limit) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparingLong((Head h) -> h.current).reversed());
+        for (Cuisine cuisine : cuisines.isEmpty() ? lists.keySet() : cuisines) {
+            NavigableSet<Long> ids = lists.get(cuisine);
+            Iterator<Long> it = (afterId == null ? ids : ids.tailSet(afterId, false)).iterator();
+            if (it.hasNext()) {
+                heads.add(new Head(it.next(), it));
+            }
+        }
+
+        List<Long> page = new ArrayList<>(limit);
+        while (page.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            // An id moving between lists can briefly be in two of them
+            if (page.isEmpty() || page.get(page.size() - 1) != head.current) {
+                page.add(head.current);
+            }
+            if (head.rest.hasNext()) {
+                head.current = head.rest.next();
+                heads.add(head);
+            }
+        }
+        return page;
+    }
+
+    public int size(Cuisine cuisine) {
+        return sizes.get(cuisine).get();
+    }
+
+    /* The cuisine may have changed, the id stays in at most one list */
+    private void put(Long recipeId, Cuisine cuisine) {
+        Cuisine key = cuisineOf(cuisine);
+        for (Cuisine other : Cuisine.values()) {
+            if (other != key) {
+                remove(recipeId, other);
+            }
+        }
+        add(recipeId, key);
+    }
+
+    private void add(Long recipeId, Cuisine cuisine) {
+        if (recipeId == null) {
+            return;
+        }
+        Cuisine key = cuisineOf(cuisine);
+        NavigableSet<Long> ids = lists.get(key);
+        AtomicInteger size = sizes.get(key);
+        if (ids.add(recipeId)) {
+            size.incrementAndGet();
+        }
+        // Drops the oldest ids, the feed only goes back maxPerCuisine recipes per cuisine
+        while (size.get() > maxPerCuisine && ids.pollLast() != null) {
+            size.decrementAndGet();
+        }
+    }
+
+    private void remove(Long recipeId, Cuisine cuisine) {
+        if (lists.get(cuisine).remove(recipeId)) {
+            sizes.get(cuisine).decrementAndGet();
+        }
+    }
+
+    private static Cuisine cuisineOf(Cuisine cuisine) {
+        return cuisine == null ? Cuisine.OTHER : cuisine;
+    }
+
+    private static final class Head {
+        private long current;
+        private final Iterator<Long> rest;
+
+        private Head(long current, Iterator<Long> rest) {
+            this.current = current;
+            this.rest = rest;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.model.Cuisine;
+import com.cooknect.recipe_service.utils.TtlCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Bounded near-cache of the cuisine preferences of users (user-service /{id}/cuisine-preference).
+ *
+ * Preferences are loaded once per user and kept for ttl, so the personalized feed costs no user-service call
+ * per page. Names user-service knows but recipes do not use (e.g. "Japanese") are dropped.
+ * If user-service cannot be reached, an expired entry is served, otherwise the user gets the unfiltered feed.
+ * A failed load is not retried for failure-ttl, requests in between get the same fallback without a call.
+ */
+@Component
+public class CuisinePreferenceCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CuisinePreferenceCache.class);
+
+    private final RestTemplate restTemplate;
+    private final String userBaseUrl;
+
+    private final TtlCache<Long, Set<Cuisine>> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter loadFailures;
+
+    public CuisinePreferenceCache(RestTemplate restTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${user.service.url}") String userBaseUrl,
+                                  @Value("${recipe.preference-cache.max-size:10000}") int maxSize,
+                                  @Value("${recipe.preference-cache.ttl-seconds:600}") long ttlSeconds,
+                                  @Value("${recipe.preference-cache.failure-ttl-seconds:30}") long failureTtlSeconds) {
+        this.restTemplate = restTemplate;
+        this.userBaseUrl = userBaseUrl;
+        this.entries = new TtlCache<>(maxSize, ttlSeconds * 1000, failureTtlSeconds * 1000);
+
+        this.hits = meterRegistry.counter("recipe.preference.cache", "result", "hit");
+        this.misses = meterRegistry.counter("recipe.preference.cache", "result", "miss");
+        this.loadFailures = meterRegistry.counter("recipe.preference.cache.load.failures");
+        meterRegistry.gauge("recipe.preference.cache.size", this, CuisinePreferenceCache::size);
+    }
+
+    /* Preferred cuisines of the user (unmodifiable), empty if there are none or they cannot be loaded */
+    public Set<Cuisine> getCuisines(Long userId) {
+        Set<Cuisine> cached = entries.get(userId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        Set<Cuisine> loaded = entries.isFailing(userId) ? null : load(userId);
+        if (loaded == null) {
+            Set<Cuisine> stale = entries.getStale(userId, Long.MAX_VALUE);
+            return stale != null ? stale : Set.of();
+        }
+        entries.put(userId, loaded);
+        return loaded;
+    }
+
+    public void invalidate(Long userId) {
+        entries.invalidate(userId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /* Returns null if user service is not available */
+    private Set<Cuisine> load(Long userId) {
+        try {
+            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                    userBaseUrl + userId + "/cuisine-preference",
+                    HttpMethod.GET,
+                    null,
+                    new ParameterizedTypeReference<Map<String, Object>>() {}
+            );
+            Object names = response.getBody() != null ? response.getBody().get("cuisinePreferences") : null;
+            return names instanceof Collection<?> collection ? toCuisines(collection) : Set.of();
+        } catch (Exception e) {
+            loadFailures.increment();
+            entries.failed(userId);
+            log.warn("Could not fetch cuisine preferences of userId={} from user service: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    static Set<Cuisine> toCuisines(Collection<?> names) {
+        Set<Cuisine> cuisines = EnumSet.noneOf(Cuisine.class);
+        for (Object name : names) {
+            if (name == null) {
+                continue;
+            }
+            try {
+                cuisines.add(Cuisine.valueOf(name.toString().trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                // Not a cuisine recipes can have
+            }
+        }
+        return Collections.unmodifiableSet(cuisines);
+    }
+}
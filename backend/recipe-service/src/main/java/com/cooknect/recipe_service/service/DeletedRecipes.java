@@ -0,0 +1,44 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.repository.RecipeRepository;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/*
+ * Finds the recipes of an in-memory index that have been deleted, also by other instances.
+ * Deletes leave no row behind, so the indexed ids are compared with one scan of all recipe ids.
+ * Ids missing from the scan are checked again, a recipe created while it ran is not reported.
+ */
+final class DeletedRecipes {
+
+    private static final int CHECK_CHUNK = 1000;
+
+    private DeletedRecipes() {
+    }
+
+    /* Must run inside a transaction, the ids are streamed */
+    static Set<Long> among(RecipeRepository repo, Collection<Long> indexed) {
+        Roaring64Bitmap existing = new Roaring64Bitmap();
+        try (Stream<Long> ids = repo.streamIds()) {
+            ids.forEach(existing::addLong);
+        }
+        List<Long> missing = new ArrayList<>();
+        for (Long id : indexed) {
+            if (!existing.contains(id)) {
+                missing.add(id);
+            }
+        }
+
+        Set<Long> deleted = new HashSet<>(missing);
+        for (int from = 0; from < missing.size(); from += CHECK_CHUNK) {
+            deleted.removeAll(repo.findExistingIds(missing.subList(from, Math.min(from + CHECK_CHUNK, missing.size()))));
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,213 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.utils.WavFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Base64;
+
+/* SpeechModel backed by the Gemini API (translation with gemini-2.5-flash, speech with the TTS preview model) */
+@Component
+@ConditionalOnProperty(name = "recipe.tts.model", havingValue = "gemini", matchIfMissing = true)
+public class GeminiSpeechModel implements SpeechModel {
+
+    private static final Logger log = LoggerFactory.getLogger(GeminiSpeechModel.class);
+
+    private static final String GEMINI_URL =
+            "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash-preview-tts:generateContent?key=";
+
+    private static final String translate_api = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash:generateContent";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final RestTemplate restTemplate;
+
+    @Value("${GL_API_KEY}")
+    private String apiKey;
+
+    /* Own timeouts, synthesizing a whole recipe takes far longer than the shared RestTemplate allows */
+    public GeminiSpeechModel(RestTemplateBuilder builder,
+                             @Value("${recipe.tts.gemini.connect-timeout-millis:2000}") long connectTimeoutMillis,
+                             @Value("${recipe.tts.gemini.read-timeout-millis:60000}") long readTimeoutMillis) {
+        this.restTemplate = builder
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .setReadTimeout(Duration.ofMillis(readTimeoutMillis))
+                .build();
+    }
+
+    @Override
+    public String translate(String text, String targetLanguage) {
+        try {
+            ObjectNode payload = mapper.createObjectNode();
+
+            String instruction = "Translate the following text into " + targetLanguage + ":" + text;
+            log.debug("Translation instruction: {}", instruction);
+            // ---- contents ----
+            ArrayNode contents = mapper.createArrayNode();
+            ObjectNode contentObj = mapper.createObjectNode();
+            ArrayNode parts = mapper.createArrayNode();
+            ObjectNode textObj = mapper.createObjectNode();
+            textObj.put("text", instruction);
+            parts.add(textObj);
+            contentObj.set("parts", parts);
+            contents.add(contentObj);
+            payload.set("contents", contents);
+
+            // ---- Prepare POST Request ----
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+
+            HttpEntity<String> request =
+                    new HttpEntity<>(payload.toString(), headers);
+
+            String url = translate_api + "?key=" + apiKey;
+
+            // ---- Call Gemini ----
+            ResponseEntity<JsonNode> response;
+            try {
+                response =
+                        restTemplate.postForEntity(url, request, JsonNode.class);
+            } catch (org.springframework.web.client.HttpClientErrorException httpEx) {
+                String bodyText = httpEx.getResponseBodyAsString();
+                log.error("Gemini HTTP error: status={}, body={}", httpEx.getStatusCode(), bodyText);
+                throw new RuntimeException("Gemini error: " + httpEx.getStatusCode() + ": " + (bodyText == null ? "[no body]" : bodyText), httpEx);
+            }
+
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                throw new RuntimeException("Gemini HTTP error: " + response.getStatusCode());
+            }
+
+            JsonNode body = response.getBody();
+            if (body == null) {
+                throw new RuntimeException("Empty response from Gemini");
+            }
+
+            // ---- Extract Translated Text ----
+            return body
+                    .path("candidates").get(0)
+                    .path("content")
+                    .path("parts").get(0)
+                    .path("text")
+                    .asText();
+        } catch (Exception e) {
+            log.error("Gemini translation error to {}: {}", targetLanguage, e.getMessage(), e);
+            throw new RuntimeException("Gemini error: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] synthesize(String text, String voiceName) {
+        try {
+            ObjectNode payload = mapper.createObjectNode();
+
+            // ---- contents ----
+            ArrayNode contents = mapper.createArrayNode();
+            ObjectNode contentObj = mapper.createObjectNode();
+            ArrayNode parts = mapper.createArrayNode();
+            ObjectNode textObj = mapper.createObjectNode();
+            textObj.put("text", text);
+            parts.add(textObj);
+            contentObj.set("parts", parts);
+            contents.add(contentObj);
+            payload.set("contents", contents);
+
+            // ---- generationConfig ----
+            ObjectNode prebuilt = mapper.createObjectNode();
+            prebuilt.put("voiceName", voiceName);
+
+            ObjectNode voiceConfig = mapper.createObjectNode();
+            voiceConfig.set("prebuiltVoiceConfig", prebuilt);
+
+            ObjectNode speechConfig = mapper.createObjectNode();
+            speechConfig.set("voiceConfig", voiceConfig);
+
+            ObjectNode genConfig = mapper.createObjectNode();
+            genConfig.putArray("responseModalities").add("AUDIO");
+            genConfig.set("speechConfig", speechConfig);
+
+            payload.set("generationConfig", genConfig);
+
+            // ---- Prepare POST Request ----
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+
+            HttpEntity<String> request = new HttpEntity<>(payload.toString(), headers);
+            String url = GEMINI_URL + apiKey;
+
+            // ---- Call Gemini ----
+            ResponseEntity<JsonNode> response = restTemplate.postForEntity(url, request, JsonNode.class);
+
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                throw new RuntimeException("Gemini HTTP error: " + response.getStatusCode());
+            }
+
+            JsonNode body = response.getBody();
+            if (body == null) {
+                throw new RuntimeException("Empty response from Gemini");
+            }
+
+            log.info("Gemini TTS Response: {}", body.toString());
+
+            // ---- Check for errors or unsupported content ----
+            JsonNode candidates = body.path("candidates");
+            if (candidates == null || !candidates.isArray() || candidates.size() == 0) {
+                log.error("Gemini TTS error - no candidates in response: {}", body.toString());
+                throw new RuntimeException("Gemini TTS failed: " + body.path("error").path("message").asText("No candidates returned"));
+            }
+
+            JsonNode candidate = candidates.get(0);
+            if (candidate == null) {
+                throw new RuntimeException("Gemini TTS error: null candidate");
+            }
+
+            // CHECK FINISH REASON BEFORE TRYING TO EXTRACT AUDIO
+            String finishReason = candidate.path("finishReason").asText("");
+            if (!"STOP".equals(finishReason)) {
+                log.error("Gemini TTS did not complete successfully. finishReason: {}, response: {}", finishReason, body.toString());
+                throw new RuntimeException("Gemini TTS failed with finishReason: " + finishReason + ". This language or text may not be supported for TTS.");
+            }
+
+            // ---- Extract audio ----
+            JsonNode contentNode = candidate.path("content");
+            if (contentNode.isMissingNode()) {
+                throw new RuntimeException("Gemini TTS error: no content in response");
+            }
+
+            JsonNode partsArray = contentNode.path("parts");
+            if (partsArray.isMissingNode() || !partsArray.isArray() || partsArray.size() == 0) {
+                throw new RuntimeException("Gemini TTS error: no parts in response");
+            }
+
+            JsonNode firstPart = partsArray.get(0);
+            if (firstPart == null) {
+                throw new RuntimeException("Gemini TTS error: null first part");
+            }
+
+            String base64 = firstPart.path("inlineData").path("data").asText();
+            if (base64 == null || base64.isEmpty()) {
+                throw new RuntimeException("Gemini TTS error: no audio data in response");
+            }
+
+            // Gemini returns LINEAR16 mono at 24 kHz
+            byte[] pcmBytes = Base64.getDecoder().decode(base64);
+            return WavFormat.fromPcm16(pcmBytes, 24000, 1);
+        } catch (Exception e) {
+            log.error("Gemini TTS error for text: '{}', error: {}",
+                    text.substring(0, Math.min(100, text.length())), e.getMessage(), e);
+            throw new RuntimeException("Gemini TTS error: " + e.getMessage(), e);
+        }
+    }
+}
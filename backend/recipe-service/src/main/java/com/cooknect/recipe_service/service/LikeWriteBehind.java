@@ -0,0 +1,219 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.model.LikeDelta;
+import com.cooknect.recipe_service.repository.LikeDeltaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * Opt-in write-behind mode for recipe.likes (recipe.likes.write-behind.enabled).
+ *
+ * Viral recipes turn every like into an UPDATE of the same row, so the row lock serializes all of them.
+ * In this mode the like transaction only appends a delta row to recipe_like_outbox next to the exact
+ * per-user like row. After commit the outbox id is buffered in memory, and a scheduled
+ * flush claims the buffered outbox rows and applies them to recipe with one UPDATE ... FROM (VALUES ...)
+ * per batch, so a recipe's row is written once per flush instead of once per like.
+ *
+ * The outbox makes the mode durable: claiming (DELETE ... RETURNING) and applying happen in one transaction,
+ * and rows orphaned by a crash before their flush are picked up by the recovery sweep.
+ * The recovery sweep also runs when the mode is off, so rows left over from a previous run are never lost.
+ */
+@Component
+public class LikeWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeWriteBehind.class);
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private final LikeDeltaRepository deltaRepository;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+    private final long orphanAfterMillis;
+
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Buffer buffer = new Buffer();
+    private final Timer flushTimer;
+
+    public LikeWriteBehind(LikeDeltaRepository deltaRepository,
+                           JdbcTemplate jdbc,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${recipe.likes.write-behind.enabled:false}") boolean enabled,
+                           @Value("${recipe.likes.write-behind.orphan-after-seconds:60}") long orphanAfterSeconds) {
+        this.deltaRepository = deltaRepository;
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.orphanAfterMillis = orphanAfterSeconds * 1000;
+
+        this.flushTimer = meterRegistry.timer("recipe.likes.write-behind.flush");
+        meterRegistry.gauge("recipe.likes.write-behind.pending", this, LikeWriteBehind::pendingRows);
+        // How far the stored (displayed) like counts are behind the like rows
+        meterRegistry.gauge("recipe.likes.write-behind.lag.seconds", this, LikeWriteBehind::lagSeconds);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /*
+     * Records a counter change inside the caller's like transaction.
+     * The outbox row is only buffered for the next flush once that transaction has committed.
+     */
+    public void record(Long recipeId, int delta) {
+        LikeDelta row = deltaRepository.save(new LikeDelta(null, recipeId, delta, Instant.now()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                swapLock.readLock().lock();
+                try {
+                    buffer.add(row.getId());
+                } finally {
+                    swapLock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${recipe.likes.write-behind.flush-interval-millis:1000}")
+    public void flush() {
+        Buffer drained;
+        swapLock.writeLock().lock();
+        try {
+            if (buffer.outboxIds.isEmpty()) {
+                return;
+            }
+            drained = buffer;
+            buffer = new Buffer();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        List<Long> ids = new ArrayList<>(drained.outboxIds);
+        try {
+            flushTimer.record(() -> {
+                for (int from = 0; from < ids.size(); from += MAX_ROWS_PER_STATEMENT) {
+                    List<Long> chunk = ids.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, ids.size()));
+                    tx.executeWithoutResult(status -> apply(claimByIds(chunk)));
+                }
+            });
+        } catch (RuntimeException e) {
+            // The failed chunk rolled back and stays in the outbox, rows of applied chunks are not claimed twice
+            log.warn("Flushing like deltas failed, retrying later: {}", e.getMessage());
+            swapLock.readLock().lock();
+            try {
+                buffer.merge(drained);
+            } finally {
+                swapLock.readLock().unlock();
+            }
+        }
+    }
+
+    /* Applies outbox rows whose flush never happened, e.g. because the instance that wrote them crashed */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${recipe.likes.write-behind.recovery-interval-millis:60000}",
+               initialDelayString = "${recipe.likes.write-behind.recovery-interval-millis:60000}")
+    public void recoverOrphans() {
+        Timestamp before = Timestamp.from(Instant.now().minusMillis(orphanAfterMillis));
+        Integer recovered = tx.execute(status -> {
+            Map<Long, Long> deltas = new HashMap<>();
+            int rows = jdbc.query(
+                    "DELETE FROM recipe_like_outbox WHERE created_at < ? RETURNING recipe_id, delta",
+                    rs -> {
+                        int count = 0;
+                        while (rs.next()) {
+                            deltas.merge(rs.getLong(1), rs.getLong(2), Long::sum);
+                            count++;
+                        }
+                        return count;
+                    },
+                    before);
+            apply(deltas);
+            return rows;
+        });
+        if (recovered != null && recovered > 0) {
+            log.info("Applied {} orphaned like deltas", recovered);
+        }
+    }
+
+    /*
+     * Deletes the given outbox rows and sums their deltas per recipe.
+     * Rows already claimed by the recovery sweep are simply not returned, so each delta is applied once.
+     */
+    private Map<Long, Long> claimByIds(List<Long> ids) {
+        Map<Long, Long> deltas = new HashMap<>();
+        jdbc.query(
+                "DELETE FROM recipe_like_outbox WHERE id = ANY (?) RETURNING recipe_id, delta",
+                rs -> {
+                    deltas.merge(rs.getLong(1), rs.getLong(2), Long::sum);
+                },
+                (Object) ids.toArray(Long[]::new));
+        return deltas;
+    }
+
+    /* One UPDATE ... FROM (VALUES ...) per chunk, each recipe row is written once */
+    private void apply(Map<Long, Long> deltas) {
+        List<Map.Entry<Long, Long>> changes = deltas.entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .toList();
+        for (int from = 0; from < changes.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Map.Entry<Long, Long>> chunk = changes.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, changes.size()));
+            StringBuilder sql = new StringBuilder("UPDATE recipe r SET likes = r.likes + v.delta FROM (VALUES ");
+            Object[] args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "" : ", ").append("(CAST(? AS bigint), CAST(? AS integer))");
+                args[2 * i] = chunk.get(i).getKey();
+                args[2 * i + 1] = chunk.get(i).getValue().intValue();
+            }
+            sql.append(") AS v(id, delta) WHERE r.id = v.id");
+            jdbc.update(sql.toString(), args);
+        }
+    }
+
+    private double pendingRows() {
+        return buffer.outboxIds.size();
+    }
+
+    private double lagSeconds() {
+        long oldest = buffer.oldestMillis.get();
+        return oldest == Long.MAX_VALUE ? 0 : (System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    /* Outbox rows committed since the last flush, the deltas themselves are summed from the claimed rows */
+    private static final class Buffer {
+        private final ConcurrentLinkedQueue<Long> outboxIds = new ConcurrentLinkedQueue<>();
+        private final AtomicLong oldestMillis = new AtomicLong(Long.MAX_VALUE);
+
+        private void add(Long outboxId) {
+            outboxIds.add(outboxId);
+            oldestMillis.accumulateAndGet(System.currentTimeMillis(), Math::min);
+        }
+
+        private void merge(Buffer other) {
+            outboxIds.addAll(other.outboxIds);
+            oldestMillis.accumulateAndGet(other.oldestMillis.get(), Math::min);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.utils.WavFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/*
+ * Offline SpeechModel for tests and benchmarks (recipe.tts.model=local).
+ *
+ * "Translates" by tagging the text with the target language and "speaks" a quiet tone whose length grows
+ * with the text, so the output is deterministic and sized like real speech. An optional latency
+ * simulates the time the real model takes.
+ */
+@Component
+@ConditionalOnProperty(name = "recipe.tts.model", havingValue = "local")
+public class LocalSpeechModel implements SpeechModel {
+
+    private static final int SAMPLE_RATE = 24000;
+    /* Roughly the speaking rate of the real voices */
+    private static final int SAMPLES_PER_CHAR = SAMPLE_RATE / 15;
+
+    private final long latencyMillis;
+
+    public LocalSpeechModel(@Value("${recipe.tts.local.latency-millis:0}") long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public String translate(String text, String targetLanguage) {
+        simulateLatency();
+        return "[" + targetLanguage + "] " + text;
+    }
+
+    @Override
+    public byte[] synthesize(String text, String voiceName) {
+        simulateLatency();
+        int samples = Math.max(1, text.length()) * SAMPLES_PER_CHAR;
+        ByteBuffer pcm = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        // The voice picks the pitch, so different voices produce different files
+        double frequency = 220 + Math.floorMod(voiceName.hashCode(), 220);
+        for (int i = 0; i < samples; i++) {
+            pcm.putShort((short) (Math.sin(2 * Math.PI * frequency * i / SAMPLE_RATE) * 2000));
+        }
+        return WavFormat.fromPcm16(pcm.array(), SAMPLE_RATE, 1);
+    }
+
+    private void simulateLatency() {
+        if (latencyMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while simulating model latency", e);
+        }
+    }
+}
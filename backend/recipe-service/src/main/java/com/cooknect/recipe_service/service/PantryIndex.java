@@ -0,0 +1,328 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.event.RecipeChangedEvent;
+import com.cooknect.recipe_service.model.Ingredient;
+import com.cooknect.recipe_service.model.Recipe;
+import com.cooknect.recipe_service.repository.RecipeRepository;
+import com.cooknect.recipe_service.utils.IngredientNormalizer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/*
+ * In-memory "what can I cook" index.
+ *
+ * Maps every normalized ingredient name to a compressed (Roaring) bitmap of the ids of the recipes using it.
+ * A pantry query unions the bitmaps of the given ingredients to get the candidates, intersects them with the
+ * bitmaps of required ingredients, and scores each candidate by the share of its ingredients the pantry covers.
+ *
+ * The index is built once at startup and then kept up to date from RecipeChangedEvents, plus a periodic resync
+ * that picks up the recipes created, updated or deleted through other instances (see CuisineFeedIndex.resync).
+ */
+@Component
+public class PantryIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PantryIndex.class);
+
+    /* Full coverage first, then the number of matched ingredients, then lower ids */
+    private static final Comparator<Candidate> RANKING = Comparator
+            .comparingDouble((Candidate c) -> c.coverage).reversed()
+            .thenComparing(Comparator.comparingInt((Candidate c) -> c.matched).reversed())
+            .thenComparingInt(c -> c.recipeId);
+
+    private static final int RESYNC_CHUNK = 500;
+    private static final int INITIAL_HEAP_CAPACITY = 1024;
+
+    private final RecipeRepository repo;
+    private volatile Instant syncedAt;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, RoaringBitmap> postings = new HashMap<>();
+    private Map<Integer, String[]> recipeIngredients = new HashMap<>();
+
+    public PantryIndex(RecipeRepository repo) {
+        this.repo = repo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        syncedAt = Instant.ofEpochMilli(start);
+        Map<Integer, Set<String>> byRecipe = new HashMap<>();
+        try (Stream<Object[]> rows = repo.streamIngredientNames()) {
+            rows.forEach(row -> {
+                Integer id = toIndexId((Long) row[0]);
+                if (id != null) {
+                    byRecipe.computeIfAbsent(id, k -> new LinkedHashSet<>()).add(IngredientNormalizer.normalize((String) row[1]));
+                }
+            });
+        }
+
+        Map<String, RoaringBitmap> newPostings = new HashMap<>();
+        Map<Integer, String[]> newRecipeIngredients = new HashMap<>();
+        byRecipe.forEach((id, keys) -> {
+            keys.remove("");
+            newRecipeIngredients.put(id, keys.toArray(String[]::new));
+            for (String key : keys) {
+                newPostings.computeIfAbsent(key, k -> new RoaringBitmap()).add(id);
+            }
+        });
+        newPostings.values().forEach(RoaringBitmap::runOptimize);
+
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            recipeIngredients = newRecipeIngredients;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Pantry index built: {} recipes, {} ingredients in {} ms",
+                newRecipeIngredients.size(), newPostings.size(), System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(fixedDelayString = "${recipe.index-resync.interval-millis:60000}",
+               initialDelayString = "${recipe.index-resync.interval-millis:60000}")
+    @Transactional(readOnly = true)
+    public void resync() {
+        if (syncedAt == null) {
+            return;
+        }
+        Instant start = Instant.now();
+        List<Long> changed = repo.findIdsUpdatedSince(syncedAt.minusMillis(CuisineFeedIndex.RESYNC_OVERLAP_MILLIS));
+        for (int from = 0; from < changed.size(); from += RESYNC_CHUNK) {
+            repo.findAllWithIngredientsByIdIn(changed.subList(from, Math.min(from + RESYNC_CHUNK, changed.size())))
+                    .forEach(this::upsert);
+        }
+
+        List<Long> indexed;
+        lock.readLock().lock();
+        try {
+            indexed = recipeIngredients.keySet().stream().map(Integer::longValue).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+        Set<Long> deleted = DeletedRecipes.among(repo, indexed);
+        deleted.forEach(this::remove);
+        syncedAt = start;
+        log.debug("Resynced the pantry index: {} changed, {} deleted", changed.size(), deleted.size());
+    }
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.getType() == RecipeChangedEvent.Type.DELETED) {
+            remove(event.getRecipeId());
+        } else {
+            upsert(event.getRecipe());
+        }
+    }
+
+    public void upsert(Recipe recipe) {
+        Integer id = toIndexId(recipe.getId());
+        if (id == null) {
+            return;
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        if (recipe.getIngredients() != null) {
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                String key = IngredientNormalizer.normalize(ingredient.getName());
+                if (!key.isEmpty()) {
+                    keys.add(key);
+                }
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            recipeIngredients.put(id, keys.toArray(String[]::new));
+            for (String key : keys) {
+                postings.computeIfAbsent(key, k -> new RoaringBitmap()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long recipeId) {
+        Integer id = toIndexId(recipeId);
+        if (id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * Ranks the recipes that can be (partly) cooked from the pantry.
+     * Required ingredients must all be used by a recipe and count as available.
+     * Only recipes matching at least minMatched ingredients are returned.
+     */
+    public PantryResult search(Collection<String> pantry, Collection<String> required, int minMatched, int page, int size) {
+        Set<String> requiredKeys = normalizeAll(required);
+        Set<String> availableKeys = normalizeAll(pantry);
+        availableKeys.addAll(requiredKeys);
+        if (availableKeys.isEmpty()) {
+            return new PantryResult(List.of(), 0);
+        }
+
+        // page and size come from the client, a page past the last match keeps nothing but still counts the total
+        long skip = (long) page * size;
+        PriorityQueue<Candidate> best;
+        int keep;
+        long total = 0;
+
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> available = new ArrayList<>();
+            for (String key : availableKeys) {
+                RoaringBitmap bitmap = postings.get(key);
+                if (bitmap != null) {
+                    available.add(bitmap);
+                }
+            }
+            RoaringBitmap candidates = RoaringBitmap.or(available.iterator());
+            for (String key : requiredKeys) {
+                RoaringBitmap bitmap = postings.get(key);
+                candidates = bitmap == null ? new RoaringBitmap() : RoaringBitmap.and(candidates, bitmap);
+            }
+            keep = skip < candidates.getLongCardinality()
+                    ? (int) Math.min(skip + size, candidates.getLongCardinality())
+                    : 0;
+            // Min-heap of the best `keep` matches seen so far, the worst one sits on top, grows as needed
+            best = new PriorityQueue<>(Math.min(keep, INITIAL_HEAP_CAPACITY) + 1, RANKING.reversed());
+
+            IntIterator it = candidates.getIntIterator();
+            while (it.hasNext()) {
+                int id = it.next();
+                int matched = 0;
+                for (RoaringBitmap bitmap : available) {
+                    if (bitmap.contains(id)) {
+                        matched++;
+                    }
+                }
+                if (matched < minMatched) {
+                    continue;
+                }
+                String[] ingredients = recipeIngredients.getOrDefault(id, new String[0]);
+                int ingredientCount = Math.max(ingredients.length, matched);
+                total++;
+                best.add(new Candidate(id, matched, ingredientCount, (double) matched / ingredientCount, ingredients));
+                if (best.size() > keep) {
+                    best.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Candidate> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        int from = (int) Math.min(skip, ranked.size());
+        List<Match> pageMatches = ranked.subList(from, ranked.size()).stream()
+                .map(c -> new Match(c.recipeId, c.matched, c.ingredientCount, c.coverage,
+                        Arrays.stream(c.ingredients).filter(i -> !availableKeys.contains(i)).toList()))
+                .toList();
+        return new PantryResult(pageMatches, total);
+    }
+
+    private void removeLocked(int id) {
+        String[] previous = recipeIngredients.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String key : previous) {
+            RoaringBitmap bitmap = postings.get(key);
+            if (bitmap != null) {
+                bitmap.remove(id);
+                if (bitmap.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+
+    private static Set<String> normalizeAll(Collection<String> names) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (names != null) {
+            for (String name : names) {
+                String key = IngredientNormalizer.normalize(name);
+                if (!key.isEmpty()) {
+                    keys.add(key);
+                }
+            }
+        }
+        return keys;
+    }
+
+    /* Roaring bitmaps hold 32 bit values, ids beyond that range are left out of the index */
+    private static Integer toIndexId(Long recipeId) {
+        if (recipeId == null || recipeId < 0 || recipeId > Integer.MAX_VALUE) {
+            if (recipeId != null) {
+                log.warn("Recipe id {} out of range for the pantry index", recipeId);
+            }
+            return null;
+        }
+        return recipeId.intValue();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class PantryResult {
+        private final List<Match> matches;
+        private final long total;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Match {
+        private final long recipeId;
+        private final int matchedIngredients;
+        private final int totalIngredients;
+        private final double coverage;
+        private final List<String> missingIngredients;
+    }
+
+    /* Scored candidate while ranking, only the final page is turned into Matches */
+    private static final class Candidate {
+        private final int recipeId;
+        private final int matched;
+        private final int ingredientCount;
+        private final double coverage;
+        private final String[] ingredients;
+
+        private Candidate(int recipeId, int matched, int ingredientCount, double coverage, String[] ingredients) {
+            this.recipeId = recipeId;
+            this.matched = matched;
+            this.ingredientCount = ingredientCount;
+            this.coverage = coverage;
+            this.ingredients = ingredients;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.cooknect.recipe_service.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/*
+ * Runs independent read-path I/O (user-service lookups, viewer state queries) concurrently,
+ * so request latency follows the slowest dependency instead of the sum of all of them.
+ *
+ * Every task gets its own virtual thread, at most maxConcurrency of them hold a permit and run at a time.
+ * Each task has its own timeout and a fallback value that is returned on timeout or failure, so a slow
+ * dependency degrades the response instead of failing it. A task that times out is interrupted, which
+ * aborts its blocking socket I/O and gives the permit back, so hung calls cannot pile up.
+ */
+@Component
+public class ParallelReadExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelReadExecutor.class);
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final long timeoutMillis;
+
+    public ParallelReadExecutor(@Value("${recipe.read-executor.max-concurrency:64}") int maxConcurrency,
+                                @Value("${recipe.read-executor.timeout-millis:2000}") long timeoutMillis) {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("recipe-read-", 0).factory());
+        this.permits = new Semaphore(maxConcurrency);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public <T> CompletableFuture<T> supply(String name, Supplier<T> task, T fallback) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running;
+        try {
+            running = executor.submit(() -> run(task, result));
+        } catch (RejectedExecutionException e) {
+            log.warn("Read '{}' was rejected, using fallback: {}", name, e.toString());
+            return CompletableFuture.completedFuture(fallback);
+        }
+        return result
+                .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionally(ex -> {
+                    // No-op if the task already finished, otherwise interrupts it
+                    running.cancel(true);
+                    log.warn("Read '{}' did not complete, using fallback: {}", name, ex.toString());
+                    return fallback;
+                });
+    }
+
+    private <T> void run(Supplier<T> task, CompletableFuture<T> result) {
+        try {
+            // Waiting for a permit counts against the timeout, the interrupt on timeout ends the wait
+            permits.acquire();
+        } catch (InterruptedException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        try {
+            result.complete(task.get());
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
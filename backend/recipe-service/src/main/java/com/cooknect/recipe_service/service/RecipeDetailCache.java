@@ -0,0 +1,84 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.dto.GetRecipeDTO;
+import com.cooknect.recipe_service.event.RecipeChangedEvent;
+import com.cooknect.recipe_service.utils.TtlCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/*
+ * Bounded cache of the shared recipe detail body, keyed by (recipeId, version, commentCount).
+ *
+ * The version moves with entity saves, the comment count with new comments, which do not bump the version so they
+ * cannot fail a concurrent edit. Callers look up both first, so an entry written for an older state is never served,
+ * also when the recipe was changed through another instance. Entries hold no viewer specific state,
+ * likedByUser / savedByUser and the like count are layered on per request.
+ * Entries expire after ttl so that usernames inside the body do not stay stale forever.
+ */
+@Component
+public class RecipeDetailCache {
+
+    private final TtlCache<Long, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public RecipeDetailCache(MeterRegistry meterRegistry,
+                             @Value("${recipe.detail-cache.max-size:1000}") int maxSize,
+                             @Value("${recipe.detail-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.entries = new TtlCache<>(maxSize, ttlSeconds * 1000, 0);
+
+        this.hits = meterRegistry.counter("recipe.detail.cache", "result", "hit");
+        this.misses = meterRegistry.counter("recipe.detail.cache", "result", "miss");
+        meterRegistry.gauge("recipe.detail.cache.size", this, RecipeDetailCache::size);
+    }
+
+    /* Shared body for exactly this version and comment count, or null. Callers must not modify the returned object */
+    public GetRecipeDTO get(Long recipeId, long version, int commentCount) {
+        Entry entry = entries.get(recipeId);
+        if (entry != null && entry.version == version && entry.commentCount == commentCount) {
+            hits.increment();
+            return entry.body;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /* Stores the body unless a newer state is already cached, a slow reader cannot overwrite a fresher entry */
+    public void put(Long recipeId, long version, int commentCount, GetRecipeDTO body) {
+        entries.putIf(recipeId, new Entry(version, commentCount, body), (cached, entry) -> !cached.isNewerThan(entry));
+    }
+
+    public void evict(Long recipeId) {
+        entries.invalidate(recipeId);
+    }
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        evict(event.getRecipeId());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final int commentCount;
+        private final GetRecipeDTO body;
+
+        private Entry(long version, int commentCount, GetRecipeDTO body) {
+            this.version = version;
+            this.commentCount = commentCount;
+            this.body = body;
+        }
+
+        // Both only grow, an entry ahead in either was built from a later state
+        private boolean isNewerThan(Entry other) {
+            return version > other.version || (version == other.version && commentCount > other.commentCount);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.dto.RecipeCreateDTO;
+import com.cooknect.recipe_service.dto.RecipeImportProgressDTO;
+import com.cooknect.recipe_service.event.RecipeChangedEvent;
+import com.cooknect.recipe_service.event.RecipeEventProducer;
+import com.cooknect.recipe_service.model.Recipe;
+import com.cooknect.recipe_service.repository.RecipeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/*
+ * Bulk import of recipes from NDJSON, one RecipeCreateDTO per line.
+ *
+ * The input is streamed, at most one batch of recipes is held in memory. Each batch is saved in one
+ * transaction: the ids come from the pooled recipe sequence, so Hibernate batches the recipe, ingredient
+ * and step inserts (hibernate.jdbc.batch_size, reWriteBatchedInserts on the datasource URL).
+ * If a batch fails, its recipes are saved one by one so a single bad line does not cost the others.
+ * Every saved batch updates the in-memory indexes through the usual RecipeChangedEvents and queues a single
+ * summary notification instead of one per recipe.
+ */
+@Service
+public class RecipeImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipeImportService.class);
+
+    private final RecipeRepository repo;
+    private final RecipeService recipeService;
+    private final RecipeEventProducer recipeEventProducer;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
+    private final ObjectMapper mapper;
+    private final int batchSize;
+
+    private final Counter imported;
+    private final Counter failed;
+    private final Timer batchTimer;
+
+    public RecipeImportService(RecipeRepository repo,
+                               RecipeService recipeService,
+                               RecipeEventProducer recipeEventProducer,
+                               ApplicationEventPublisher events,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper mapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${recipe.import.batch-size:500}") int batchSize) {
+        this.repo = repo;
+        this.recipeService = recipeService;
+        this.recipeEventProducer = recipeEventProducer;
+        this.events = events;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.mapper = mapper;
+        this.batchSize = Math.max(batchSize, 1);
+
+        this.imported = meterRegistry.counter("recipe.import.recipes", "result", "imported");
+        this.failed = meterRegistry.counter("recipe.import.recipes", "result", "failed");
+        this.batchTimer = meterRegistry.timer("recipe.import.batch");
+    }
+
+    /*
+     * Imports the recipes of the stream for the user. progress is called after every batch and once more
+     * at the end (done = true), the final progress is also returned.
+     */
+    public RecipeImportProgressDTO importRecipes(InputStream ndjson, Long userId,
+                                                 Consumer<RecipeImportProgressDTO> progress) throws IOException {
+        RecipeImportProgressDTO status = new RecipeImportProgressDTO(0, 0, 0, 0, new ArrayList<>(), false);
+        List<Line> batch = new ArrayList<>(batchSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            if (text.isBlank()) {
+                continue;
+            }
+            status.setRead(status.getRead() + 1);
+            try {
+                RecipeCreateDTO recipe = mapper.readValue(text, RecipeCreateDTO.class);
+                if (recipe == null || recipe.getTitle() == null || recipe.getTitle().isBlank()) {
+                    throw new IllegalArgumentException("title is required");
+                }
+                batch.add(new Line(lineNumber, recipe));
+            } catch (JsonProcessingException e) {
+                reject(status, lineNumber, "invalid JSON (" + e.getOriginalMessage() + ")");
+            } catch (IllegalArgumentException e) {
+                reject(status, lineNumber, e.getMessage());
+            }
+
+            if (batch.size() >= batchSize) {
+                saveBatch(batch, userId, status);
+                batch = new ArrayList<>(batchSize);
+                progress.accept(snapshot(status));
+            }
+        }
+        if (!batch.isEmpty()) {
+            saveBatch(batch, userId, status);
+        }
+
+        status.setDone(true);
+        RecipeImportProgressDTO last = snapshot(status);
+        progress.accept(last);
+        log.info("Imported {} of {} recipes for userId={} in {} batches",
+                last.getImported(), last.getRead(), userId, last.getBatches());
+        return last;
+    }
+
+    private void saveBatch(List<Line> batch, Long userId, RecipeImportProgressDTO status) {
+        status.setBatches(status.getBatches() + 1);
+        List<Recipe> saved = batchTimer.record(() -> save(batch, userId, status));
+
+        saved.forEach(recipe ->
+                events.publishEvent(new RecipeChangedEvent(RecipeChangedEvent.Type.CREATED, recipe.getId(), recipe)));
+        status.setImported(status.getImported() + saved.size());
+        imported.increment(saved.size());
+        if (!saved.isEmpty()) {
+            recipeEventProducer.publish(userId, RecipeEventProducer.Type.RECIPES_IMPORTED);
+        }
+    }
+
+    private List<Recipe> save(List<Line> batch, Long userId, RecipeImportProgressDTO status) {
+        try {
+            List<Recipe> recipes = batch.stream().map(line -> recipeService.toRecipe(line.getRecipe(), userId)).toList();
+            tx.executeWithoutResult(s -> repo.saveAll(recipes));
+            return recipes;
+        } catch (RuntimeException e) {
+            log.warn("Saving an import batch of {} recipes failed, saving them one by one: {}",
+                    batch.size(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+
+        // The failed transaction may have left ids on the entities, every line starts from a new one
+        List<Recipe> saved = new ArrayList<>();
+        for (Line line : batch) {
+            try {
+                Recipe recipe = recipeService.toRecipe(line.getRecipe(), userId);
+                tx.executeWithoutResult(s -> repo.save(recipe));
+                saved.add(recipe);
+            } catch (RuntimeException e) {
+                reject(status, line.getNumber(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+        return saved;
+    }
+
+    private void reject(RecipeImportProgressDTO status, long lineNumber, String reason) {
+        status.setFailed(status.getFailed() + 1);
+        status.getErrors().add("line " + lineNumber + ": " + reason);
+        failed.increment();
+    }
+
+    /* Copy for the progress callback, the errors are only reported once */
+    private static RecipeImportProgressDTO snapshot(RecipeImportProgressDTO status) {
+        RecipeImportProgressDTO copy = new RecipeImportProgressDTO(status.getBatches(), status.getRead(),
+                status.getImported(), status.getFailed(), List.copyOf(status.getErrors()), status.isDone());
+        status.getErrors().clear();
+        return copy;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Line {
+        private final long number;
+        private final RecipeCreateDTO recipe;
+    }
+}
@@ -1,50 +1,112 @@
 package com.cooknect.recipe_service.service;
 
+import com.cooknect.recipe_service.dto.ConnectionDTO;
+import com.cooknect.recipe_service.dto.CursorPageResponseDTO;
 import com.cooknect.recipe_service.dto.GetCommentDto;
 import com.cooknect.recipe_service.dto.GetRecipeDTO;
+import com.cooknect.recipe_service.dto.GetRecipeSummaryDTO;
+import com.cooknect.recipe_service.dto.PantryMatchDTO;
 import com.cooknect.recipe_service.dto.RecipeCreateDTO;
+import com.cooknect.recipe_service.dto.RecipeRevision;
+import com.cooknect.recipe_service.dto.RecipeSummary;
 import com.cooknect.common.dto.PageRequestDTO;
 import com.cooknect.common.dto.PageResponseDTO;
+import com.cooknect.recipe_service.event.RecipeActivityEvent;
+import com.cooknect.recipe_service.event.RecipeChangedEvent;
+import com.cooknect.recipe_service.exception.BadRequestException;
 import com.cooknect.recipe_service.exception.ForbiddenException;
 import com.cooknect.recipe_service.model.*;
+import com.cooknect.recipe_service.repository.CommentRepository;
 import com.cooknect.recipe_service.repository.RecipeLikeRepository;
 import com.cooknect.recipe_service.repository.RecipeRepository;
 import com.cooknect.recipe_service.exception.NotFoundException;
 import com.cooknect.recipe_service.repository.RecipeSavedRepository;
+import com.cooknect.recipe_service.utils.CommentCursor;
+import com.cooknect.recipe_service.utils.PaginationUtils;
+import com.cooknect.recipe_service.utils.RecipeCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class RecipeService {
 
+    private static final int MAX_FEED_PAGE_SIZE = PaginationUtils.MAX_PAGE_SIZE;
+
     private final RecipeRepository repo;
     private final RecipeLikeRepository likeRepository;
     private final RecipeSavedRepository savedRepository;
+    private final ViewerStateResolver viewerStateResolver;
+    private final UsernameCache usernameCache;
+    private final ParallelReadExecutor parallelReads;
+    private final PantryIndex pantryIndex;
+    private final ApplicationEventPublisher events;
+    private final LikeWriteBehind likeWriteBehind;
+    private final CommentRepository commentRepository;
+    private final RecipeDetailCache detailCache;
+    private final CuisineFeedIndex cuisineFeed;
+    private final CuisinePreferenceCache cuisinePreferences;
 
     @Autowired
     private RestTemplate restTemplate;
     @Value("${user.service.url}")
     private String userBaseUrl;
-
-
-    /* Constructor Injection for both dependencies */
-    public RecipeService(RecipeRepository repo, RecipeLikeRepository likeRepository, RecipeSavedRepository savedRepository) {
+    @Value("${recipe.search.likes-weight:0.2}")
+    private double searchLikesWeight;
+    @Value("${recipe.comments.preview-size:3}")
+    private int commentPreviewSize;
+
+
+    /* Constructor Injection for all dependencies */
+    public RecipeService(RecipeRepository repo, RecipeLikeRepository likeRepository, RecipeSavedRepository savedRepository,
+                         ViewerStateResolver viewerStateResolver, UsernameCache usernameCache,
+                         ParallelReadExecutor parallelReads, PantryIndex pantryIndex,
+                         ApplicationEventPublisher events, LikeWriteBehind likeWriteBehind,
+                         CommentRepository commentRepository, RecipeDetailCache detailCache,
+                         CuisineFeedIndex cuisineFeed, CuisinePreferenceCache cuisinePreferences) {
         this.likeRepository = likeRepository;
         this.savedRepository = savedRepository;
         this.repo = repo;
+        this.viewerStateResolver = viewerStateResolver;
+        this.usernameCache = usernameCache;
+        this.parallelReads = parallelReads;
+        this.pantryIndex = pantryIndex;
+        this.events = events;
+        this.likeWriteBehind = likeWriteBehind;
+        this.commentRepository = commentRepository;
+        this.detailCache = detailCache;
+        this.cuisineFeed = cuisineFeed;
+        this.cuisinePreferences = cuisinePreferences;
     }
 
     /* Creating a new recipe */
     public Recipe create(RecipeCreateDTO recipe, Long userId) {
+        Recipe saved = repo.save(toRecipe(recipe, userId));
+        events.publishEvent(new RecipeChangedEvent(RecipeChangedEvent.Type.CREATED, saved.getId(), saved));
+        return saved;
+    }
+
+    /* New, unsaved recipe of the user, shared by create and the bulk import */
+    public Recipe toRecipe(RecipeCreateDTO recipe, Long userId) {
         Recipe newRecipe = new Recipe();
         newRecipe.setTitle(recipe.getTitle());
         newRecipe.setDescription(recipe.getDescription());
@@ -70,30 +132,39 @@ public class RecipeService {
             newRecipe.setTributeDescription(recipe.getTributeDescription());
             newRecipe.setTributeImageUrl(recipe.getTributeImageUrl());
         }
-        
-        return repo.save(newRecipe);
+        return newRecipe;
     }
 
-    /* Like or Unlike a recipe */
+    /*
+     * Like or Unlike a recipe.
+     * Toggles with a delete-or-insert on the (recipe_id, user_id) unique index and moves the counter
+     * with an atomic UPDATE in the same transaction, so the recipe entity is never loaded.
+     * In write-behind mode the counter change goes to the like outbox instead and is applied in batches.
+     */
+    @Transactional
     public void likeAndUnlike(Long recipeId, Long userId) {
-        Recipe recipe = getRecipeById(recipeId);
-        if(recipe==null){
+        if (likeWriteBehind.isEnabled() && !repo.existsById(recipeId)) {
             throw new NotFoundException("Recipe not found: " + recipeId);
         }
-        var existingLike = likeRepository.getByRecipeIdAndUserId(recipeId, userId);
-        if (existingLike.isPresent()) {
+        int delta;
+        if (likeRepository.deleteLike(recipeId, userId) > 0) {
             /* Unlike Recipe */
-            likeRepository.delete(existingLike.get());
-            recipe.setLikes(recipe.getLikes() - 1);
-        } else {
+            delta = -1;
+        } else if (likeRepository.insertLikeIfAbsent(recipeId, userId) > 0) {
             /* Like Recipe */
-            Like newLike = new Like();
-            newLike.setUserId(userId);
-            newLike.setRecipeId(recipeId);
-            likeRepository.save(newLike);
-            recipe.setLikes(recipe.getLikes() + 1);
+            delta = 1;
+        } else {
+            // A concurrent request of the same user liked it first, the counter already accounts for it
+            return;
+        }
+        if (likeWriteBehind.isEnabled()) {
+            likeWriteBehind.record(recipeId, delta);
+        } else if (repo.adjustLikes(recipeId, delta) == 0) {
+            // Rolls back the like row as well
+            throw new NotFoundException("Recipe not found: " + recipeId);
         }
-        repo.save(recipe);
+        events.publishEvent(new RecipeActivityEvent(
+                delta > 0 ? RecipeActivityEvent.Type.LIKED : RecipeActivityEvent.Type.UNLIKED, recipeId));
     }
 
     /* Save or Unsave a Recipe */
@@ -117,429 +188,414 @@ public class RecipeService {
 
     }
 
-    /* Adding comment to a Recipe */
+    /*
+     * Adding comment to a Recipe.
+     * The comment is appended on its own and the count is bumped in place, the recipe is never loaded.
+     */
+    @Transactional
     public void addComment(Long recipeId, Comment comment) {
-        Recipe recipe = getRecipeById(recipeId);
-        if(recipe==null){
+        if (repo.incrementCommentCount(recipeId) == 0) {
             throw new NotFoundException("Recipe not found: " + recipeId);
         }
-
-        recipe.getComments().add(comment);
-
-        // Persist the comment + updated recipe
-        repo.save(recipe);
+        comment.setRecipeId(recipeId);
+        commentRepository.save(comment);
+        events.publishEvent(new RecipeActivityEvent(RecipeActivityEvent.Type.COMMENTED, recipeId));
     }
 
-    /* Get all recipes */
-    public PageResponseDTO<GetRecipeDTO> getAllRecipes(Long userId, PageRequestDTO pageRequestDTO) {
-        String[] sortFields = pageRequestDTO.getSortBy().split(",");
-        String[] directions = pageRequestDTO.getDirection().split(",");
-        Sort sort = Sort.unsorted();
-        for (int i = 0; i < sortFields.length; i++) {
-            String field = sortFields[i].trim();
-            Sort.Direction dir = Sort.Direction.ASC;
-            if (i < directions.length) {
-                dir = Sort.Direction.fromString(directions[i].trim());
-            }
-            sort = sort.and(Sort.by(dir, field));
+    /* Keyset paginated comments of a recipe, newest first */
+    public CursorPageResponseDTO<GetCommentDto> getComments(Long recipeId, String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_FEED_PAGE_SIZE);
+        long beforeId = CommentCursor.decode(cursor);
+        if (!repo.existsById(recipeId)) {
+            throw new NotFoundException("Recipe not found: " + recipeId);
         }
-        List<Recipe> recipes = repo.findAll(sort);
 
-        /*
-         * Collect unique userIds.
-         * Doing this so that for all recipes username is fetched at once.
-         * Which avoid repeated calls to user service.
-        */
-        List<Long> userIds = recipes.stream()
-                .map(Recipe::getUserId)
+        // One extra row tells whether another page exists
+        List<Comment> rows = commentRepository.findPage(recipeId, beforeId, PageRequest.of(0, limit + 1));
+        boolean hasNext = rows.size() > limit;
+        List<Comment> comments = hasNext ? rows.subList(0, limit) : rows;
+
+        List<Long> authorIds = comments.stream()
+                .map(comment -> parseUserId(comment.getAuthor()))
+                .filter(Objects::nonNull)
                 .distinct()
                 .toList();
-        // Build request body with all userIds
-        HttpEntity<List<Long>> request = new HttpEntity<>(userIds);
+        Map<Long, String> userIdToUsername = parallelReads.supply(
+                "usernames", () -> usernameCache.getUsernames(authorIds), Map.<Long, String>of()).join();
+
+        CursorPageResponseDTO<GetCommentDto> response = new CursorPageResponseDTO<>();
+        response.setContent(comments.stream().map(comment -> {
+            Long authorId = parseUserId(comment.getAuthor());
+            String username = authorId == null ? null : userIdToUsername.get(authorId);
+            return new GetCommentDto(comment.getId(), username != null ? username : comment.getAuthor(),
+                    comment.getText(), comment.getCreatedAt());
+        }).toList());
+        response.setSize(limit);
+        response.setSortBy("newest");
+        response.setHasNext(hasNext);
+        if (hasNext) {
+            response.setNextCursor(CommentCursor.encode(comments.get(comments.size() - 1).getId()));
+        }
+        return response;
+    }
 
-        // Call the usernames endpoint
-        Map<Long, String> userIdToUsername = null;
+    private static Long parseUserId(String author) {
         try {
-            ResponseEntity<Map<Long, String>> response = restTemplate.exchange(
-                    userBaseUrl + "/usernames",
-                    HttpMethod.POST,
-                    request,
-                    new ParameterizedTypeReference<Map<Long, String>>() {}
-            );
-            userIdToUsername = response.getBody();
-        } catch (Exception e) {
-            // If user service is not available or configured, continue without usernames
-            System.out.println("Warning: Could not fetch usernames from user service: " + e.getMessage());
+            return author == null ? null : Long.valueOf(author);
+        } catch (NumberFormatException e) {
+            return null;
         }
-        
-        final Map<Long, String> finalUserIdToUsername = userIdToUsername;
-
-        List<GetRecipeDTO> recipeDTOs = recipes.stream().map(recipe -> {
-            GetRecipeDTO dto = new GetRecipeDTO();
-            dto.setId(recipe.getId());
-            dto.setTitle(recipe.getTitle());
-            dto.setDescription(recipe.getDescription());
-            dto.setCuisine(recipe.getCuisine().toString());
-            dto.setRecipeImageUrl(recipe.getRecipeImageUrl());
-            dto.setComments(
-                    recipe.getComments().stream().map(comment -> {
-                        GetCommentDto commentDto = new GetCommentDto();
-                        commentDto.setAuthor(comment.getAuthor());
-                        commentDto.setText(comment.getText());
-                        return commentDto;
-                    }).toList()
-            );
-            dto.setIngredients(recipe.getIngredients());
-            dto.setPreparation(recipe.getPreparation());
-            dto.setLikesCount(recipe.getLikes());
-            dto.setLikedByUser(likeRepository.getByRecipeIdAndUserId(recipe.getId(), userId).isPresent());
-            dto.setSavedByUser(savedRepository.getByRecipeIdAndUserId(recipe.getId(), userId).isPresent());
-            // Set username from user-service
-            if (finalUserIdToUsername != null) {
-                dto.setUsername(finalUserIdToUsername.get(recipe.getUserId()));
-            }
-            dto.setUserId(recipe.getUserId());
-            dto.setCommentCount(recipe.getComments().size());
-            return dto;
-        }).toList();
-
-        // Apply pagination
-        int page = pageRequestDTO.getPage();
-        int size = pageRequestDTO.getSize();
-        int startIndex = page * size;
-        int endIndex = Math.min(startIndex + size, recipeDTOs.size());
-        
-        List<GetRecipeDTO> paginatedRecipes = startIndex >= recipeDTOs.size() ? 
-            List.of() : recipeDTOs.subList(startIndex, endIndex);
-
-        // Create PageResponseDTO
-        PageResponseDTO<GetRecipeDTO> pageResponse = new PageResponseDTO<>();
-        pageResponse.setContent(paginatedRecipes);
-        pageResponse.setPage(page);
-        pageResponse.setSize(size);
-        pageResponse.setTotalElements(recipeDTOs.size());
-        pageResponse.setTotalPages((int) Math.ceil((double) recipeDTOs.size() / size));
-        pageResponse.setSort(pageRequestDTO.getSortBy() + "," + pageRequestDTO.getDirection());
-        
-        return pageResponse;
+    }
+
+    /* Get all recipes */
+    public PageResponseDTO<GetRecipeDTO> getAllRecipes(Long userId, PageRequestDTO pageRequestDTO) {
+        Page<Recipe> recipes = repo.findAll(PaginationUtils.toPageable(pageRequestDTO));
+        return toRecipePage(recipes, userId);
     }
 
     /* Get all Recipes based on title search */
     public PageResponseDTO<GetRecipeDTO> getRecipesByTitle(String title, Long userId, Boolean saved, PageRequestDTO pageRequestDTO) {
-        List<Recipe> recipes = repo.findByTitleContainingIgnoreCase(title);
-
-        if(recipes.isEmpty()){
-            PageResponseDTO<GetRecipeDTO> emptyResponse = new PageResponseDTO<>();
-            emptyResponse.setContent(List.of());
-            emptyResponse.setPage(0);
-            emptyResponse.setSize(0);
-            emptyResponse.setTotalElements(0);
-            emptyResponse.setTotalPages(0);
-            return emptyResponse;
-        }
-
-//        if saved is true, filter this reveived recipes from the indByTitleContainingIgnoreCase to only those saved by the user
-        if(saved != null && saved){
-            List<Recipe> savedRecipes = recipes.stream()
-                    .filter(recipe -> savedRepository.getByRecipeIdAndUserId(recipe.getId(), userId).isPresent())
-                    .toList();
-            recipes = savedRecipes;
-            if(recipes.isEmpty()) {
-                PageResponseDTO<GetRecipeDTO> emptyResponse = new PageResponseDTO<>();
-                emptyResponse.setContent(List.of());
-                emptyResponse.setPage(0);
-                emptyResponse.setSize(0);
-                emptyResponse.setTotalElements(0);
-                emptyResponse.setTotalPages(0);
-                return emptyResponse;
-            }
-        }
+        Pageable pageable = PaginationUtils.toPageable(pageRequestDTO);
 
+        // if saved is true, only the recipes saved by the user are matched against the title
+        Page<Recipe> recipes = (saved != null && saved)
+                ? repo.findSavedByUserIdAndTitle(userId, title, pageable)
+                : repo.findByTitleContainingIgnoreCase(title, pageable);
+        return toRecipePage(recipes, userId);
+    }
 
-        List<Long> userIds = recipes.stream()
-                .map(Recipe::getUserId)
-                .distinct()
-                .toList();
-        HttpEntity<List<Long>> request = new HttpEntity<>(userIds);
 
-        Map<Long, String> userIdToUsername = null;
-        try {
-            ResponseEntity<Map<Long, String>> response = restTemplate.exchange(
-                    userBaseUrl + "/usernames",
-                    HttpMethod.POST,
-                    request,
-                    new ParameterizedTypeReference<Map<Long, String>>() {}
-            );
-            userIdToUsername = response.getBody();
-        } catch (Exception e) {
-            System.out.println("Warning: Could not fetch usernames from user service: " + e.getMessage());
-        }
-
-        final Map<Long, String> finalUserIdToUsername = userIdToUsername;
-
-        List<GetRecipeDTO> recipeDTOs = recipes.stream().map(recipe -> {
-            GetRecipeDTO dto = new GetRecipeDTO();
-            dto.setId(recipe.getId());
-            dto.setTitle(recipe.getTitle());
-            dto.setDescription(recipe.getDescription());
-            dto.setCuisine(recipe.getCuisine().toString());
-            dto.setRecipeImageUrl(recipe.getRecipeImageUrl());
-            dto.setIngredients(recipe.getIngredients());
-            dto.setPreparation(recipe.getPreparation());
-            dto.setLikesCount(recipe.getLikes());
-            dto.setLikedByUser(likeRepository.getByRecipeIdAndUserId(recipe.getId(), userId).isPresent());
-            dto.setSavedByUser(savedRepository.getByRecipeIdAndUserId(recipe.getId(), userId).isPresent());
-            dto.setCommentCount(recipe.getComments().size());
-            dto.setUserId(recipe.getUserId());
-            if (finalUserIdToUsername != null) {
-                dto.setUsername(finalUserIdToUsername.get(recipe.getUserId()));
-            }
-            dto.setComments(
-                    recipe.getComments().stream().map(comment -> {
-                        GetCommentDto c = new GetCommentDto();
-                        c.setAuthor(comment.getAuthor());
-                        c.setText(comment.getText());
-                        return c;
-                    }).toList()
-            );
-            
-            // Set tribute fields
-            dto.setTribute(recipe.isTribute());
-            if (recipe.isTribute()) {
-                dto.setAuthorName(recipe.getAuthorName());
-                dto.setTributeDescription(recipe.getTributeDescription());
-                dto.setTributeImageUrl(recipe.getTributeImageUrl());
-            }
-            
-            return dto;
-        }).toList();
+    /* Get all Recipes based on user Id */
+    public PageResponseDTO<GetRecipeDTO> getRecipesByUserId(Long userId, PageRequestDTO pageRequestDTO) {
+        Page<Recipe> recipes = repo.findByUserId(userId, PaginationUtils.toPageable(pageRequestDTO));
+        return toRecipePage(recipes, userId);
+    }
 
-        int page = pageRequestDTO.getPage();
-        int size = pageRequestDTO.getSize();
-        int startIndex = page * size;
-        int endIndex = Math.min(startIndex + size, recipeDTOs.size());
+    /* Get all Recipes saved by User */
+    public PageResponseDTO<GetRecipeDTO> getSavedRecipesByUserId(Long userId, PageRequestDTO pageRequestDTO) {
+        Page<Recipe> recipes = repo.findSavedByUserId(userId, PaginationUtils.toPageable(pageRequestDTO));
+        return toRecipePage(recipes, userId);
+    }
 
-        List<GetRecipeDTO> paginatedRecipes = startIndex >= recipeDTOs.size() ?
-                List.of() : recipeDTOs.subList(startIndex, endIndex);
+    /*
+     * Summary variants of the listings above, the default list view.
+     * They select only the summary columns, so no ingredient, preparation or comment rows are read.
+     */
+    public PageResponseDTO<GetRecipeSummaryDTO> getAllRecipeSummaries(Long userId, PageRequestDTO pageRequestDTO) {
+        return toSummaryPage(repo.findSummariesBy(PaginationUtils.toPageable(pageRequestDTO)), userId);
+    }
 
-        PageResponseDTO<GetRecipeDTO> pageResponse = new PageResponseDTO<>();
-        pageResponse.setContent(paginatedRecipes);
-        pageResponse.setPage(page);
-        pageResponse.setSize(size);
-        pageResponse.setTotalElements(recipeDTOs.size());
-        pageResponse.setTotalPages((int) Math.ceil((double) recipeDTOs.size() / size));
-        pageResponse.setSort(pageRequestDTO.getSortBy() + "," + pageRequestDTO.getDirection());
+    public PageResponseDTO<GetRecipeSummaryDTO> getRecipeSummariesByTitle(String title, Long userId, Boolean saved, PageRequestDTO pageRequestDTO) {
+        Pageable pageable = PaginationUtils.toPageable(pageRequestDTO);
+        Page<RecipeSummary> recipes = (saved != null && saved)
+                ? repo.findSavedSummariesByUserIdAndTitle(userId, title, pageable)
+                : repo.findSummariesByTitleContainingIgnoreCase(title, pageable);
+        return toSummaryPage(recipes, userId);
+    }
 
-        return pageResponse;
+    public PageResponseDTO<GetRecipeSummaryDTO> getRecipeSummariesByUserId(Long userId, PageRequestDTO pageRequestDTO) {
+        return toSummaryPage(repo.findSummariesByUserId(userId, PaginationUtils.toPageable(pageRequestDTO)), userId);
     }
 
+    public PageResponseDTO<GetRecipeSummaryDTO> getSavedRecipeSummariesByUserId(Long userId, PageRequestDTO pageRequestDTO) {
+        return toSummaryPage(repo.findSavedSummariesByUserId(userId, PaginationUtils.toPageable(pageRequestDTO)), userId);
+    }
 
-    /* Get all Recipes based on user Id */
-    public PageResponseDTO<GetRecipeDTO> getRecipesByUserId(Long userId, PageRequestDTO pageRequestDTO) {
-        List<Recipe> recipes = repo.findByUserId(userId);
+    /*
+     * Keyset paginated feed.
+     * Seeks past the (sort key, id) pair in the cursor instead of skipping rows with an offset,
+     * so deep pages cost the same as the first one and concurrent inserts do not shift pages.
+     */
+    public CursorPageResponseDTO<GetRecipeDTO> getRecipeFeed(Long userId, String cursor, String sortBy, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_FEED_PAGE_SIZE);
+        RecipeCursor position = (cursor == null || cursor.isBlank())
+                ? RecipeCursor.first(sortBy)
+                : RecipeCursor.decode(cursor);
+
+        // One extra row tells whether another page exists
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<Recipe> rows = switch (position.getSortBy()) {
+            case RecipeCursor.SORT_LIKES -> repo.findFeedByLikes((int) position.getSortKey(), position.getId(), pageable);
+            case RecipeCursor.SORT_CREATED_AT -> repo.findFeedByCreatedAt(position.getCreatedAt(), position.getId(), pageable);
+            default -> repo.findFeedById(position.getId(), pageable);
+        };
+
+        boolean hasNext = rows.size() > limit;
+        List<Recipe> recipes = hasNext ? rows.subList(0, limit) : rows;
+
+        CursorPageResponseDTO<GetRecipeDTO> response = new CursorPageResponseDTO<>();
+        response.setContent(toRecipeDTOs(recipes, userId));
+        response.setSize(limit);
+        response.setSortBy(position.getSortBy());
+        response.setHasNext(hasNext);
+        if (hasNext) {
+            response.setNextCursor(RecipeCursor.after(position.getSortBy(), recipes.get(recipes.size() - 1)).encode());
+        }
+        return response;
+    }
 
-        if(recipes.isEmpty()){
-            PageResponseDTO<GetRecipeDTO> emptyResponse = new PageResponseDTO<>();
-            emptyResponse.setContent(List.of());
-            emptyResponse.setPage(0);
-            emptyResponse.setSize(0);
-            emptyResponse.setTotalElements(0);
-            emptyResponse.setTotalPages(0);
-            return emptyResponse;
+    /*
+     * Newest recipes of the user's preferred cuisines (all cuisines if there are none).
+     * The page is merged from the in-memory per-cuisine lists, only the recipes of the page are read.
+     */
+    public CursorPageResponseDTO<GetRecipeSummaryDTO> getPersonalizedFeed(Long userId, String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_FEED_PAGE_SIZE);
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            RecipeCursor position = RecipeCursor.decode(cursor);
+            if (!RecipeCursor.SORT_ID.equals(position.getSortBy())) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            afterId = position.getId();
         }
 
-        List<Long> userIds = List.of(userId);
-        // Build request body with all userIds
-        HttpEntity<List<Long>> request = new HttpEntity<>(userIds);
-        
-        // Call the usernames endpoint
-        Map<Long, String> userIdToUsername = null;
-        try {
-            ResponseEntity<Map<Long, String>> response = restTemplate.exchange(
-                    userBaseUrl + "/usernames",
-                    HttpMethod.POST,
-                    request,
-                    new ParameterizedTypeReference<Map<Long, String>>() {}
-            );
-            userIdToUsername = response.getBody();
-        } catch (Exception e) {
-            // If user service is not available or configured, continue without usernames
-            System.out.println("Warning: Could not fetch usernames from user service: " + e.getMessage());
+        // One extra id tells whether another page exists
+        List<Long> ids = cuisineFeed.page(cuisinePreferences.getCuisines(userId), afterId, limit + 1);
+        boolean hasNext = ids.size() > limit;
+        List<Long> pageIds = hasNext ? ids.subList(0, limit) : ids;
+
+        Map<Long, RecipeSummary> byId = repo.findSummariesByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(RecipeSummary::getId, Function.identity()));
+        List<RecipeSummary> recipes = pageIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+
+        CursorPageResponseDTO<GetRecipeSummaryDTO> response = new CursorPageResponseDTO<>();
+        response.setContent(toSummaryDTOs(recipes, userId));
+        response.setSize(limit);
+        response.setSortBy("personalized");
+        response.setHasNext(hasNext);
+        if (hasNext) {
+            response.setNextCursor(RecipeCursor.afterId(pageIds.get(pageIds.size() - 1)).encode());
         }
-        
-        final Map<Long, String> finalUserIdToUsername = userIdToUsername;
-
-        List<GetRecipeDTO> recipeDTOs = recipes.stream().map(recipe -> {
-            GetRecipeDTO dto = new GetRecipeDTO();
-            dto.setId(recipe.getId());
-            dto.setTitle(recipe.getTitle());
-            dto.setDescription(recipe.getDescription());
-            dto.setCuisine(recipe.getCuisine().toString());
-            dto.setRecipeImageUrl(recipe.getRecipeImageUrl());
-            dto.setIngredients(recipe.getIngredients());
-            dto.setPreparation(recipe.getPreparation());
-            dto.setLikesCount(recipe.getLikes());
-            dto.setLikedByUser(likeRepository.getByRecipeIdAndUserId(recipe.getId(), userId).isPresent());
-            dto.setSavedByUser(savedRepository.getByRecipeIdAndUserId(recipe.getId(), userId).isPresent());
-            dto.setCommentCount(recipe.getComments().size());
-            dto.setUserId(recipe.getUserId());
-            if (finalUserIdToUsername != null) {
-                dto.setUsername(finalUserIdToUsername.get(recipe.getUserId()));
-            }
-            dto.setComments(
-                    recipe.getComments().stream().map(comment -> {
-                        GetCommentDto c = new GetCommentDto();
-                        c.setAuthor(comment.getAuthor());
-                        c.setText(comment.getText());
-                        return c;
-                    }).toList()
-            );
-            
-            // Set tribute fields
-            dto.setTribute(recipe.isTribute());
-            if (recipe.isTribute()) {
-                dto.setAuthorName(recipe.getAuthorName());
-                dto.setTributeDescription(recipe.getTributeDescription());
-                dto.setTributeImageUrl(recipe.getTributeImageUrl());
+        return response;
+    }
+
+    /*
+     * Relay connection over all recipes, or those of one cuisine, for the GraphQL API.
+     * Keyset paged by id like the id sorted feed, the edge cursors are RecipeCursors.
+     */
+    public ConnectionDTO<Recipe> getRecipeConnection(Cuisine cuisine, Integer first, String after) {
+        int limit = Math.min(Math.max(first == null ? MAX_FEED_PAGE_SIZE : first, 1), MAX_FEED_PAGE_SIZE);
+        RecipeCursor position = RecipeCursor.first(RecipeCursor.SORT_ID);
+        if (after != null && !after.isBlank()) {
+            position = RecipeCursor.decode(after);
+            if (!RecipeCursor.SORT_ID.equals(position.getSortBy())) {
+                throw new BadRequestException("Invalid cursor");
             }
+        }
 
-            return dto;
-        }).toList();
+        // One extra row tells whether another page exists
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<Recipe> rows = cuisine == null
+                ? repo.findFeedById(position.getId(), pageable)
+                : repo.findFeedByCuisineAndId(cuisine, position.getId(), pageable);
+        boolean hasNext = rows.size() > limit;
+        List<Recipe> recipes = hasNext ? rows.subList(0, limit) : rows;
 
-        // Apply pagination
-        int page = pageRequestDTO.getPage();
-        int size = pageRequestDTO.getSize();
-        int startIndex = page * size;
-        int endIndex = Math.min(startIndex + size, recipeDTOs.size());
-        
-        List<GetRecipeDTO> paginatedRecipes = startIndex >= recipeDTOs.size() ? 
-            List.of() : recipeDTOs.subList(startIndex, endIndex);
-
-        // Create PageResponseDTO
-        PageResponseDTO<GetRecipeDTO> pageResponse = new PageResponseDTO<>();
-        pageResponse.setContent(paginatedRecipes);
-        pageResponse.setPage(page);
-        pageResponse.setSize(size);
-        pageResponse.setTotalElements(recipeDTOs.size());
-        pageResponse.setTotalPages((int) Math.ceil((double) recipeDTOs.size() / size));
-        pageResponse.setSort(pageRequestDTO.getSortBy() + "," + pageRequestDTO.getDirection());
-        
-        return pageResponse;
+        List<ConnectionDTO.Edge<Recipe>> edges = recipes.stream()
+                .map(recipe -> new ConnectionDTO.Edge<>(recipe, RecipeCursor.afterId(recipe.getId()).encode()))
+                .toList();
+        ConnectionDTO.PageInfo pageInfo = new ConnectionDTO.PageInfo(
+                hasNext,
+                position.getId() > 0,
+                edges.isEmpty() ? null : edges.get(0).getCursor(),
+                edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor());
+        return new ConnectionDTO<>(edges, pageInfo);
     }
 
-    /* Get all Recipes saved by User */
-    public PageResponseDTO<GetRecipeDTO> getSavedRecipesByUserId(Long userId, PageRequestDTO pageRequestDTO) {
-        List<SavedRecipe> savedRecipes = savedRepository.findByUserId(userId);
-        if(savedRecipes.isEmpty()){
-            PageResponseDTO<GetRecipeDTO> emptyResponse = new PageResponseDTO<>();
-            emptyResponse.setContent(List.of());
-            emptyResponse.setPage(0);
-            emptyResponse.setSize(0);
-            emptyResponse.setTotalElements(0);
-            emptyResponse.setTotalPages(0);
-            return emptyResponse;
-        }
-        List<Long> recipeIds = savedRecipes.stream()
-                .map(SavedRecipe::getRecipeId)
+    /* Ingredients of several recipes in one query, for the batched GraphQL ingredients field */
+    public Map<Long, List<Ingredient>> findIngredientsByRecipeIds(Collection<Long> recipeIds) {
+        if (recipeIds.isEmpty()) {
+            return Map.of();
+        }
+        return repo.findIngredientRowsByRecipeIdIn(recipeIds).stream()
+                .collect(Collectors.groupingBy(
+                        row -> (Long) row[0],
+                        Collectors.mapping(row -> new Ingredient((String) row[1], (String) row[2]), Collectors.toList())));
+    }
+
+    /* Newest MAX_FEED_PAGE_SIZE comments of several recipes in one query, newest first, for the batched GraphQL comments field */
+    public Map<Long, List<Comment>> findCommentsByRecipeIds(Collection<Long> recipeIds) {
+        if (recipeIds.isEmpty()) {
+            return Map.of();
+        }
+        return commentRepository.findPreviews(recipeIds, MAX_FEED_PAGE_SIZE).stream()
+                .collect(Collectors.groupingBy(Comment::getRecipeId));
+    }
+
+    /* Usernames of several users with at most one call to user service */
+    public Map<Long, String> findUsernames(Collection<Long> userIds) {
+        return userIds.isEmpty() ? Map.of() : usernameCache.getUsernames(userIds);
+    }
+
+    private PageResponseDTO<GetRecipeSummaryDTO> toSummaryPage(Page<RecipeSummary> recipes, Long userId) {
+        Page<GetRecipeSummaryDTO> dtos = new PageImpl<>(
+                toSummaryDTOs(recipes.getContent(), userId), recipes.getPageable(), recipes.getTotalElements());
+        return PaginationUtils.toPageResponse(dtos);
+    }
+
+    /* Same concurrent username and viewer state lookups as toRecipeDTOs */
+    private List<GetRecipeSummaryDTO> toSummaryDTOs(List<RecipeSummary> recipes, Long userId) {
+        List<Long> userIds = recipes.stream()
+                .map(RecipeSummary::getUserId)
+                .distinct()
+                .toList();
+        List<Long> recipeIds = recipes.stream()
+                .map(RecipeSummary::getId)
                 .toList();
-        List<Recipe> recipes = repo.findAllById(recipeIds);
 
+        CompletableFuture<Map<Long, String>> usernames = parallelReads.supply(
+                "usernames", () -> usernameCache.getUsernames(userIds), Map.of());
+        CompletableFuture<ViewerStateResolver.ViewerState> viewerStates = parallelReads.supply(
+                "viewer-state", () -> viewerStateResolver.resolve(recipeIds, userId), ViewerStateResolver.ViewerState.EMPTY);
+
+        Map<Long, String> userIdToUsername = usernames.join();
+        ViewerStateResolver.ViewerState viewerState = viewerStates.join();
+
+        return recipes.stream().map(recipe -> new GetRecipeSummaryDTO(
+                recipe.getId(),
+                recipe.getTitle(),
+                recipe.getDescription(),
+                recipe.getCuisine() != null ? recipe.getCuisine().toString() : null,
+                recipe.getRecipeImageUrl(),
+                recipe.getLikes(),
+                viewerState.isLiked(recipe.getId()),
+                viewerState.isSaved(recipe.getId()),
+                userIdToUsername.get(recipe.getUserId()),
+                recipe.getCommentCount(),
+                recipe.getUserId(),
+                recipe.getIsTribute()
+        )).toList();
+    }
+
+    private PageResponseDTO<GetRecipeDTO> toRecipePage(Page<Recipe> recipes, Long userId) {
+        Page<GetRecipeDTO> dtos = new PageImpl<>(
+                toRecipeDTOs(recipes.getContent(), userId), recipes.getPageable(), recipes.getTotalElements());
+        return PaginationUtils.toPageResponse(dtos);
+    }
+
+    /*
+     * Maps recipes to DTOs.
+     * Usernames for all authors are fetched at once, which avoids repeated calls to user service,
+     * and run concurrently with the viewer state queries.
+     */
+    private List<GetRecipeDTO> toRecipeDTOs(List<Recipe> recipes, Long userId) {
         List<Long> userIds = recipes.stream()
                 .map(Recipe::getUserId)
                 .distinct()
                 .toList();
-        // Build request body with all userIds
-        HttpEntity<List<Long>> request = new HttpEntity<>(userIds);
-        // Call the usernames endpoint
-        ResponseEntity<Map<Long, String>> response = restTemplate.exchange(
-                userBaseUrl + "/usernames",
-                HttpMethod.POST,
-                request,
-                new ParameterizedTypeReference<Map<Long, String>>() {}
+        List<Long> recipeIds = recipes.stream()
+                .map(Recipe::getId)
+                .toList();
+
+        CompletableFuture<Map<Long, String>> usernames = parallelReads.supply(
+                "usernames", () -> usernameCache.getUsernames(userIds), Map.of());
+        CompletableFuture<ViewerStateResolver.ViewerState> viewerStates = parallelReads.supply(
+                "viewer-state", () -> viewerStateResolver.resolve(recipeIds, userId), ViewerStateResolver.ViewerState.EMPTY);
+        CompletableFuture<Map<Long, List<Comment>>> previews = parallelReads.supply(
+                "comment-previews", () -> loadCommentPreviews(recipeIds), Map.of());
+
+        Map<Long, String> userIdToUsername = usernames.join();
+        ViewerStateResolver.ViewerState viewerState = viewerStates.join();
+        Map<Long, List<Comment>> commentPreviews = previews.join();
+
+        return recipes.stream()
+                .map(recipe -> toRecipeDTO(recipe, viewerState, userIdToUsername,
+                        commentPreviews.getOrDefault(recipe.getId(), List.of())))
+                .toList();
+    }
+
+    /* Newest few comments per recipe, lists show these and the count instead of every comment */
+    private Map<Long, List<Comment>> loadCommentPreviews(List<Long> recipeIds) {
+        if (recipeIds.isEmpty() || commentPreviewSize <= 0) {
+            return Map.of();
+        }
+        return commentRepository.findPreviews(recipeIds, commentPreviewSize).stream()
+                .collect(Collectors.groupingBy(Comment::getRecipeId));
+    }
+
+    private GetRecipeDTO toRecipeDTO(Recipe recipe, ViewerStateResolver.ViewerState viewerState, Map<Long, String> userIdToUsername,
+                                     List<Comment> commentPreview) {
+        GetRecipeDTO dto = new GetRecipeDTO();
+        dto.setId(recipe.getId());
+        dto.setTitle(recipe.getTitle());
+        dto.setDescription(recipe.getDescription());
+        dto.setCuisine(recipe.getCuisine().toString());
+        dto.setRecipeImageUrl(recipe.getRecipeImageUrl());
+        dto.setIngredients(recipe.getIngredients());
+        dto.setPreparation(recipe.getPreparation());
+        dto.setLikesCount(recipe.getLikes());
+        dto.setLikedByUser(viewerState.isLiked(recipe.getId()));
+        dto.setSavedByUser(viewerState.isSaved(recipe.getId()));
+        dto.setCommentCount(recipe.getCommentCount());
+        dto.setUserId(recipe.getUserId());
+        if (userIdToUsername != null) {
+            dto.setUsername(userIdToUsername.get(recipe.getUserId()));
+        }
+        dto.setComments(
+                commentPreview.stream().map(comment -> {
+                    GetCommentDto c = new GetCommentDto();
+                    c.setId(comment.getId());
+                    c.setAuthor(comment.getAuthor());
+                    c.setText(comment.getText());
+                    c.setCreatedAt(comment.getCreatedAt());
+                    return c;
+                }).toList()
         );
-        Map<Long, String> userIdToUsername = response.getBody();
-
-        List<GetRecipeDTO> recipeDTOs = recipes.stream().map(recipe -> {
-            GetRecipeDTO dto = new GetRecipeDTO();
-            dto.setId(recipe.getId());
-            dto.setTitle(recipe.getTitle());
-            dto.setDescription(recipe.getDescription());
-            dto.setCuisine(recipe.getCuisine().toString());
-            dto.setRecipeImageUrl(recipe.getRecipeImageUrl());
-            dto.setIngredients(recipe.getIngredients());
-            dto.setPreparation(recipe.getPreparation());
-            dto.setLikesCount(recipe.getLikes());
-            dto.setLikedByUser(likeRepository.getByRecipeIdAndUserId(recipe.getId(), userId).isPresent());
-            dto.setSavedByUser(true); // Since these are saved recipes
-            dto.setCommentCount(recipe.getComments().size());
-            dto.setUserId(recipe.getUserId());
-            if (userIdToUsername != null) {
-                dto.setUsername(userIdToUsername.get(recipe.getUserId()));
-            }
-            
-            // Set tribute fields
-            dto.setTribute(recipe.isTribute());
-            if (recipe.isTribute()) {
-                dto.setAuthorName(recipe.getAuthorName());
-                dto.setTributeDescription(recipe.getTributeDescription());
-                dto.setTributeImageUrl(recipe.getTributeImageUrl());
-            }
-            
-            return dto;
-        }).toList();
-
-        // Apply pagination
-        int page = pageRequestDTO.getPage();
-        int size = pageRequestDTO.getSize();
-        int startIndex = page * size;
-        int endIndex = Math.min(startIndex + size, recipeDTOs.size());
-        
-        List<GetRecipeDTO> paginatedRecipes = startIndex >= recipeDTOs.size() ? 
-            List.of() : recipeDTOs.subList(startIndex, endIndex);
-
-        // Create PageResponseDTO
-        PageResponseDTO<GetRecipeDTO> pageResponse = new PageResponseDTO<>();
-        pageResponse.setContent(paginatedRecipes);
-        pageResponse.setPage(page);
-        pageResponse.setSize(size);
-        pageResponse.setTotalElements(recipeDTOs.size());
-        pageResponse.setTotalPages((int) Math.ceil((double) recipeDTOs.size() / size));
-        pageResponse.setSort(pageRequestDTO.getSortBy() + "," + pageRequestDTO.getDirection());
-        
-        return pageResponse;
+
+        // Set tribute fields
+        dto.setTribute(recipe.isTribute());
+        if (recipe.isTribute()) {
+            dto.setAuthorName(recipe.getAuthorName());
+            dto.setTributeDescription(recipe.getTributeDescription());
+            dto.setTributeImageUrl(recipe.getTributeImageUrl());
+        }
+
+        return dto;
     }
 
-   /* Get Recipe by id based on User id */
+   /*
+    * Get Recipe by id based on User id.
+    * The shared detail body is cached per (recipeId, version, commentCount), only those and the like count are read
+    * on a hit. Viewer flags and the like count are layered on the cached body per request.
+    */
     public GetRecipeDTO getById(Long recipeId, Long userId) {
-        Recipe recipe = repo.findById(recipeId)
+        // Viewer state only needs the ids, so it is queried while the recipe itself loads
+        CompletableFuture<ViewerStateResolver.ViewerState> viewerStates = parallelReads.supply(
+                "viewer-state", () -> viewerStateResolver.resolve(List.of(recipeId), userId), ViewerStateResolver.ViewerState.EMPTY);
+
+        RecipeRevision revision = repo.findRevisionById(recipeId)
                 .orElseThrow(() -> new NotFoundException("Recipe not found: " + recipeId));
+        GetRecipeDTO body = detailCache.get(recipeId, revision.getVersion(), revision.getCommentCount());
+        if (body == null) {
+            Recipe recipe = repo.findById(recipeId)
+                    .orElseThrow(() -> new NotFoundException("Recipe not found: " + recipeId));
+            body = loadRecipeDetail(recipe);
+            // A body built while user-service was unreachable has no author name and is not shared
+            if (body.getUsername() != null) {
+                detailCache.put(recipeId, recipe.getVersion(), recipe.getCommentCount(), body);
+            }
+        }
 
-        List<Long> userIds = List.of(recipe.getUserId());
-        HttpEntity<List<Long>> request = new HttpEntity<>(userIds);
-        ResponseEntity<Map<Long, String>> response = restTemplate.exchange(
-                userBaseUrl + "/usernames",
-                HttpMethod.POST,
-                request,
-                new ParameterizedTypeReference<Map<Long, String>>() {}
-        );
-        Map<Long, String> userIdToUsername = response.getBody();
+        ViewerStateResolver.ViewerState viewerState = viewerStates.join();
+        return body.toBuilder()
+                .likesCount(revision.getLikes())
+                .likedByUser(viewerState.isLiked(recipeId))
+                .savedByUser(viewerState.isSaved(recipeId))
+                .build();
+    }
 
-        List<String> commentAuthorIds = recipe.getComments().stream()
+    /* Viewer independent detail body, safe to share between requests */
+    private GetRecipeDTO loadRecipeDetail(Recipe recipe) {
+        /* Author and comment authors are resolved together in a single lookup */
+        List<Long> commentAuthorIds = recipe.getComments().stream()
                 .map(Comment::getAuthor)
                 .distinct()
-                .toList();
-
-        List<Long> commentAuthorIdsLong = commentAuthorIds.stream()
                 .map(Long::valueOf)
                 .toList();
-        HttpEntity<List<Long>> commentRequest = new HttpEntity<>(commentAuthorIdsLong);
-        ResponseEntity<Map<Long, String>> commentResponse = restTemplate.exchange(
-                userBaseUrl + "/usernames",
-                HttpMethod.POST,
-                commentRequest,
-                new ParameterizedTypeReference<Map<Long, String>>() {}
-        );
-        Map<Long, String> commentAuthorIdToUsername = commentResponse.getBody();
+        List<Long> userIds = new ArrayList<>(commentAuthorIds);
+        userIds.add(recipe.getUserId());
+        Map<Long, String> userIdToUsername = parallelReads.supply(
+                "usernames", () -> usernameCache.getUsernames(userIds), Map.<Long, String>of()).join();
 
         GetRecipeDTO dto = new GetRecipeDTO();
         dto.setId(recipe.getId());
@@ -551,34 +607,29 @@ public class RecipeService {
         dto.setComments(
                 recipe.getComments().stream().map(comment -> {
                     GetCommentDto c = new GetCommentDto();
-                    if (commentAuthorIdToUsername != null && !commentAuthorIdToUsername.isEmpty()) {
+                    if (userIdToUsername != null && !userIdToUsername.isEmpty()) {
                         Long authorId = Long.valueOf(comment.getAuthor());
-                        String username = commentAuthorIdToUsername.get(authorId);
+                        String username = userIdToUsername.get(authorId);
                         c.setAuthor(username != null ? username : "Unknown");
                     } else {
                         c.setAuthor("Cooknect User");
                     }
+                    c.setId(comment.getId());
                     c.setText(comment.getText());
+                    c.setCreatedAt(comment.getCreatedAt());
                     return c;
                 }).toList()
         );
 
-        dto.setIngredients(recipe.getIngredients());
-        dto.setPreparation(recipe.getPreparation());
+        // Copied so the cached body does not hold on to Hibernate collections
+        dto.setIngredients(new ArrayList<>(recipe.getIngredients()));
+        dto.setPreparation(new ArrayList<>(recipe.getPreparation()));
         dto.setLikesCount(recipe.getLikes());
-
-        dto.setLikedByUser(
-                likeRepository.getByRecipeIdAndUserId(recipe.getId(), userId).isPresent()
-        );
-
-        dto.setSavedByUser(
-                savedRepository.getByRecipeIdAndUserId(recipe.getId(), userId).isPresent()
-        );
         // Set username from user-service
         if (userIdToUsername != null) {
             dto.setUsername(userIdToUsername.get(recipe.getUserId()));
         }
-        dto.setCommentCount(recipe.getComments().size());
+        dto.setCommentCount(recipe.getCommentCount());
         
         // Set tribute fields
         dto.setTribute(recipe.isTribute());
@@ -616,8 +667,10 @@ public class RecipeService {
             existing.setTitle(updates.getTitle());
         if (updates.getDescription() != null)
             existing.setDescription(updates.getDescription());
-        if (updates.getIngredients() != null && !updates.getIngredients().isEmpty())
+        if (updates.getIngredients() != null && !updates.getIngredients().isEmpty()) {
             existing.setIngredients(updates.getIngredients());
+            existing.refreshSearchIngredients();
+        }
         if (updates.getCuisine() != null)
             existing.setCuisine(updates.getCuisine());
         if (updates.getLanguage() != null)
@@ -639,7 +692,9 @@ public class RecipeService {
             existing.setTributeImageUrl(null);
         }
 
-        return repo.save(existing);
+        Recipe saved = repo.save(existing);
+        events.publishEvent(new RecipeChangedEvent(RecipeChangedEvent.Type.UPDATED, saved.getId(), saved));
+        return saved;
     }
     /* Delete a Recipe based on user Id */
     public void deleteRecipeByUser(Long userId, Long recipeId) {
@@ -652,40 +707,122 @@ public class RecipeService {
         }
 
         repo.delete(recipe);
+        events.publishEvent(new RecipeChangedEvent(RecipeChangedEvent.Type.DELETED, recipeId, null));
     }
 
     public void deleteAllByUser(Long userId) {
         List<Recipe> recipes = repo.findAllByUserId((userId));
         repo.deleteAll(recipes);
+        recipes.forEach(recipe ->
+                events.publishEvent(new RecipeChangedEvent(RecipeChangedEvent.Type.DELETED, recipe.getId(), null)));
     }
 
+    /* Top ranked search hits, used by the GraphQL searchRecipes query */
     public List<Recipe> searchByTitle(String q) {
-        List<Recipe> allMatches = repo.findByTitleContainingIgnoreCase(q);
-        
-        if (allMatches.isEmpty()) {
-            return allMatches;
+        return search(q, PageRequest.of(0, MAX_FEED_PAGE_SIZE), repo::findAllById, Recipe::getId).getContent();
+    }
+
+    /* Ranked, paginated search over title, description and ingredient names */
+    public PageResponseDTO<GetRecipeDTO> searchRecipes(String q, Long userId, int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_FEED_PAGE_SIZE));
+        return toRecipePage(search(q, pageable, repo::findAllById, Recipe::getId), userId);
+    }
+
+    public PageResponseDTO<GetRecipeSummaryDTO> searchRecipeSummaries(String q, Long userId, int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_FEED_PAGE_SIZE));
+        return toSummaryPage(search(q, pageable, repo::findSummariesByIdIn, RecipeSummary::getId), userId);
+    }
+
+    /*
+     * Full-text search backed by the GIN index on recipe.search_vector.
+     * Only when the text query has no hits at all, falls back to trigram similarity on the title
+     * so that misspelled queries still return something.
+     * The index only returns ids, the rows of the requested page are loaded afterwards by the loader.
+     */
+    private <T> Page<T> search(String q, Pageable pageable, Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        if (q == null || q.isBlank()) {
+            return Page.empty(pageable);
         }
-        
-        // Find the recipe with the maximum number of likes
-        Recipe mostLikedRecipe = allMatches.stream()
-            .max((r1, r2) -> Integer.compare(r1.getLikes(), r2.getLikes()))
-            .orElse(allMatches.get(0));
-        
-        return List.of(mostLikedRecipe);
+        int limit = pageable.getPageSize();
+        long offset = pageable.getOffset();
+
+        long total = repo.countSearch(q);
+        List<Long> ids;
+        if (total > 0) {
+            ids = repo.searchIds(q, searchLikesWeight, limit, offset);
+        } else {
+            total = repo.countSearchBySimilarity(q);
+            ids = total > 0 ? repo.searchIdsBySimilarity(q, limit, offset) : List.of();
+        }
+
+        Map<Long, T> recipesById = loader.apply(ids).stream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+        List<T> ranked = ids.stream()
+                .map(recipesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(ranked, pageable, total);
     }
 
     public List<Recipe> findByCuisine(Cuisine cuisine) {
         return repo.findByCuisine(cuisine);
     }
 
+    public List<GetRecipeSummaryDTO> findSummariesByCuisine(Cuisine cuisine, Long userId) {
+        return toSummaryDTOs(repo.findSummariesByCuisine(cuisine), userId);
+    }
+
+    /* First page of recipes containing the ingredient, used by the GraphQL recipesByIngredient query */
     public List<Recipe> findByIngredient(String ingredient) {
-        // Fetch all recipes and filter manually by ingredient name
-        return repo.findAll().stream()
-                .filter(r -> r.getIngredients() != null &&
-                        r.getIngredients().stream()
-                                .anyMatch(i -> i.getName() != null &&
-                                        i.getName().toLowerCase().contains(ingredient.toLowerCase())))
+        PageRequestDTO pageRequestDTO = new PageRequestDTO();
+        pageRequestDTO.setPage(0);
+        pageRequestDTO.setSize(MAX_FEED_PAGE_SIZE);
+        return findByIngredient(ingredient, pageRequestDTO).getContent();
+    }
+
+    /* Recipes containing the ingredient, matched through the ingredient name index and paged in the database */
+    public PageResponseDTO<Recipe> findByIngredient(String ingredient, PageRequestDTO pageRequestDTO) {
+        Pageable pageable = PaginationUtils.toPageable(pageRequestDTO);
+        if (ingredient == null || ingredient.isBlank()) {
+            return PaginationUtils.toPageResponse(Page.<Recipe>empty(pageable));
+        }
+        return PaginationUtils.toPageResponse(repo.findByIngredientName(ingredient.trim(), pageable));
+    }
+
+    public PageResponseDTO<GetRecipeSummaryDTO> findSummariesByIngredient(String ingredient, Long userId, PageRequestDTO pageRequestDTO) {
+        Pageable pageable = PaginationUtils.toPageable(pageRequestDTO);
+        if (ingredient == null || ingredient.isBlank()) {
+            return toSummaryPage(Page.empty(pageable), userId);
+        }
+        return toSummaryPage(repo.findSummariesByIngredientName(ingredient.trim(), pageable), userId);
+    }
+
+    /*
+     * "What can I cook" search.
+     * Candidates are ranked in memory by the pantry index, only the recipes of the requested page are loaded.
+     */
+    public PageResponseDTO<PantryMatchDTO> findByPantry(List<String> ingredients, List<String> required, int minMatched,
+                                                        Long userId, int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_FEED_PAGE_SIZE));
+        PantryIndex.PantryResult result = pantryIndex.search(
+                ingredients, required, Math.max(minMatched, 1), pageable.getPageNumber(), pageable.getPageSize());
+
+        List<Long> ids = result.getMatches().stream()
+                .map(PantryIndex.Match::getRecipeId)
                 .toList();
+        Map<Long, GetRecipeDTO> recipesById = toRecipeDTOs(repo.findAllById(ids), userId).stream()
+                .collect(Collectors.toMap(GetRecipeDTO::getId, Function.identity()));
+
+        List<PantryMatchDTO> matches = result.getMatches().stream()
+                .filter(match -> recipesById.containsKey(match.getRecipeId()))
+                .map(match -> new PantryMatchDTO(
+                        recipesById.get(match.getRecipeId()),
+                        match.getMatchedIngredients(),
+                        match.getTotalIngredients(),
+                        match.getCoverage(),
+                        match.getMissingIngredients()))
+                .toList();
+        return PaginationUtils.toPageResponse(new PageImpl<>(matches, pageable, result.getTotal()));
     }
 
     public Map<String, Object> getUserDetailsById(Long userId) {
@@ -703,4 +840,18 @@ public class RecipeService {
         return user;
     }
 
+    /*
+     * Email and full name of each given user with one bulk POST to /contacts, bounded by the RestTemplate timeouts.
+     * Users that user-service does not know are absent from the map.
+     */
+    public Map<Long, Map<String, Object>> getUserContactsByIds(Collection<Long> userIds) {
+        ResponseEntity<Map<Long, Map<String, Object>>> response = restTemplate.exchange(
+                userBaseUrl + "contacts",
+                HttpMethod.POST,
+                new HttpEntity<>(List.copyOf(userIds)),
+                new ParameterizedTypeReference<Map<Long, Map<String, Object>>>() {}
+        );
+        return response.getBody() != null ? response.getBody() : Map.of();
+    }
+
 }
@@ -0,0 +1,17 @@
+package com.cooknect.recipe_service.service;
+
+/*
+ * The external model behind recipe audio: text translation and speech synthesis.
+ *
+ * Selected with recipe.tts.model, "gemini" (default) calls the Gemini API and "local" is an
+ * offline stand-in for tests and benchmarks. Implementations are called from the audio job
+ * workers and may block for as long as the model takes.
+ */
+public interface SpeechModel {
+
+    /* Translates text into the target language (a language name or code) */
+    String translate(String text, String targetLanguage);
+
+    /* Synthesizes the text with the given voice and returns a WAV file */
+    byte[] synthesize(String text, String voiceName);
+}
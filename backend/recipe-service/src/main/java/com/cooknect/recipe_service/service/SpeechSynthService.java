@@ -1,248 +1,257 @@
 package com.cooknect.recipe_service.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-
-import java.nio.file.Path;
-
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.cooknect.recipe_service.model.RecipeAudio;
 import com.cooknect.recipe_service.repository.RecipeAudioRepository;
-import com.cooknect.recipe_service.model.Recipe;
-import com.cooknect.recipe_service.repository.RecipeRepository;
 
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import com.cooknect.recipe_service.utils.ImaAdpcm;
+import com.cooknect.recipe_service.utils.LanguageCodes;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.time.Instant;
-import java.util.Base64;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.Optional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 
+/*
+ * Recipe audio: translation and speech synthesis through the configured SpeechModel,
+ * stored in the AudioStore with its metadata in recipe_audio.
+ */
 @Service
 public class SpeechSynthService {
 
-    private final ObjectMapper mapper = new ObjectMapper();
-    private final RestTemplate restTemplate = new RestTemplate();
+    private static final Logger log = LoggerFactory.getLogger(SpeechSynthService.class);
 
     @Autowired
-    private RecipeRepository recipeRepository;
+    private RecipeAudioRepository recipeAudioRepository;
 
-    @Value("${GL_API_KEY}")
-    private String apiKey;
+    @Autowired
+    private AudioStore audioStore;
 
-    private static final Logger log = LoggerFactory.getLogger(SpeechSynthService.class);
+    @Autowired
+    private SpeechModel speechModel;
 
-    private static final String GEMINI_URL =
-            "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash-preview-tts:generateContent?key=";
+    @Autowired
+    private TranslationService translationService;
 
-    private static final String translate_api = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash:generateContent";
+    public static final String DEFAULT_VOICE = "Kore";
+    private static final String CODEC_IMA_ADPCM = "ima-adpcm";
 
-    @Autowired
-    private RecipeAudioRepository recipeAudioRepository;
+    /* Codec applied to new audio before it is stored: ima-adpcm (about 4:1) or pcm */
+    @Value("${recipe.audio.codec:ima-adpcm}")
+    private String codec;
+
+    /* How long a coalesced request waits for the running generation before giving up */
+    @Value("${recipe.tts.await-timeout-millis:120000}")
+    private long awaitTimeoutMillis;
+
+    /* Audio generations currently running in this instance, keyed by what they produce */
+    private final ConcurrentHashMap<AudioKey, CompletableFuture<RecipeAudio>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter cachedRequests;
+    private final Counter generatedRequests;
+    private final Counter coalescedRequests;
+
+    public SpeechSynthService(MeterRegistry meterRegistry) {
+        this.cachedRequests = meterRegistry.counter("recipe.tts.requests", "result", "cached");
+        this.generatedRequests = meterRegistry.counter("recipe.tts.requests", "result", "generated");
+        this.coalescedRequests = meterRegistry.counter("recipe.tts.requests", "result", "coalesced");
+        meterRegistry.gauge("recipe.tts.inflight", inFlight, Map::size);
+    }
 
 
     /*
-     * Returns existing audio for recipeId if present. Otherwise synthesizes,
-     * persists the result (if recipeId provided) and returns the bytes.
+     * Returns the metadata of existing audio for (recipeId, language, voice) if present. Otherwise translates,
+     * synthesizes, writes the audio to the AudioStore, persists its metadata and returns it.
+     * The audio itself is read with openAudio.
+     *
+     * Concurrent misses for the same key are coalesced: the first caller generates, the others wait for its
+     * result instead of issuing their own translation and TTS calls. Across instances the unique index on
+     * recipe_audio makes sure only one row is kept, later writers adopt it.
      */
-    @Transactional
-    public byte[] getOrCreateAudio(Long recipeId, String language, String voiceName) {
+    public RecipeAudio getOrCreateAudio(Long recipeId, String language, String voiceName) {
         // Normalize language code
         String langCode = normalizeLanguageCode(language);
-        log.info("getOrCreateAudio called for recipeId={}, language='{}'", recipeId, langCode);
-
-        try {
-            // 1. CHECK CACHE FIRST (before translation)
-            if (recipeId != null) {
-                Optional<RecipeAudio> cached = recipeAudioRepository.findByRecipeIdAndLanguage(recipeId, langCode);
-                if (cached.isPresent()) {
-                    log.info("Returning cached audio for recipeId={} language={}", recipeId, langCode);
-                    return cached.get().getAudioData();
-                }
-            }
+        String voice = voiceName == null ? DEFAULT_VOICE : voiceName;
+        log.info("getOrCreateAudio called for recipeId={}, language='{}', voice='{}'", recipeId, langCode, voice);
+
+        // 1. CHECK CACHE FIRST (before translation)
+        RecipeAudio cached = findCached(recipeId, langCode, voice);
+        if (cached != null) {
+            cachedRequests.increment();
+            log.info("Returning cached audio for recipeId={} language={}", recipeId, langCode);
+            return cached;
+        }
 
-            // 2. NO CACHE - TRANSLATE TEXT
-            log.info("No cached audio found - translating to {}", language);
-            String translatedText = translateText(recipeId, language);
-            System.out.println("Translated Text: " + translatedText);
-
-            // 3. GENERATE AUDIO
-            byte[] wav = synthesizeAudio(translatedText, voiceName, recipeId);
-
-            // 4. SAVE TO DATABASE
-            if (recipeId != null) {
-                try {
-                    RecipeAudio audioEntity = new RecipeAudio(recipeId, wav, "audio/wav", langCode);
-                    RecipeAudio saved = recipeAudioRepository.save(audioEntity);
-                    log.info("Saved TTS WAV to database for recipeId={} language={} audioId={}",
-                            recipeId, langCode, saved.getId());
-                } catch (Exception dbEx) {
-                    log.error("Failed to save TTS WAV to DB for recipeId={} language={}: {}",
-                            recipeId, langCode, dbEx.getMessage(), dbEx);
-                }
-            }
+        // 2. JOIN A RUNNING GENERATION FOR THE SAME KEY, OR START ONE
+        AudioKey key = new AudioKey(recipeId, langCode, voice);
+        CompletableFuture<RecipeAudio> mine = new CompletableFuture<>();
+        CompletableFuture<RecipeAudio> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalescedRequests.increment();
+            log.info("Waiting for running audio generation of recipeId={} language={}", recipeId, langCode);
+            return await(running);
+        }
 
-            return wav;
-        } catch (Exception e) {
+        try {
+            RecipeAudio audio = generateAudio(recipeId, language, langCode, voice);
+            mine.complete(audio);
+            return audio;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
             log.error("Error in getOrCreateAudio for recipeId={} language={}: {}",
                     recipeId, langCode, e.getMessage(), e);
             throw new RuntimeException("Failed to generate translated audio", e);
+        } finally {
+            inFlight.remove(key, mine);
         }
     }
 
-    private String normalizeLanguageCode(String language) {
-        if (language == null) {
-            return "en";
+    private RecipeAudio generateAudio(Long recipeId, String language, String langCode, String voice) {
+        // A generation for this key may have finished between the cache check and registering ours
+        RecipeAudio cached = findCached(recipeId, langCode, voice);
+        if (cached != null) {
+            return cached;
         }
+        generatedRequests.increment();
 
-        String lang = language.trim().toLowerCase();
-        switch (lang) {
-            case "english": return "en";
-            case "hindi": return "hi";
-            case "bengali": return "bn";
-            case "marathi": return "mr";
-            case "telugu": return "te";
-            case "french": return "fr";
-            case "german": return "de";
-            case "spanish": return "es";
-            default: return lang; // Already a language code
-        }
-    }
-
-    public byte[] synthesizeAudio(String text, String voiceName, Long recipeId) {
-        try {
-            ObjectNode payload = mapper.createObjectNode();
-
-            // ---- contents ----
-            ArrayNode contents = mapper.createArrayNode();
-            ObjectNode contentObj = mapper.createObjectNode();
-            ArrayNode parts = mapper.createArrayNode();
-            ObjectNode textObj = mapper.createObjectNode();
-            textObj.put("text", text);
-            parts.add(textObj);
-            contentObj.set("parts", parts);
-            contents.add(contentObj);
-            payload.set("contents", contents);
-
-            // ---- generationConfig ----
-            ObjectNode prebuilt = mapper.createObjectNode();
-            prebuilt.put("voiceName", voiceName == null ? "Kore" : voiceName);
-
-            ObjectNode voiceConfig = mapper.createObjectNode();
-            voiceConfig.set("prebuiltVoiceConfig", prebuilt);
-
-            ObjectNode speechConfig = mapper.createObjectNode();
-            speechConfig.set("voiceConfig", voiceConfig);
-
-            ObjectNode genConfig = mapper.createObjectNode();
-            genConfig.putArray("responseModalities").add("AUDIO");
-            genConfig.set("speechConfig", speechConfig);
-
-            payload.set("generationConfig", genConfig);
-
-            // ---- Prepare POST Request ----
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            HttpEntity<String> request = new HttpEntity<>(payload.toString(), headers);
-            String url = GEMINI_URL + apiKey;
-
-            // ---- Call Gemini ----
-            ResponseEntity<JsonNode> response = restTemplate.postForEntity(url, request, JsonNode.class);
+        // 3. NO CACHE - TRANSLATE TEXT
+        log.info("No cached audio found - translating to {}", language);
+        String translatedText = translateText(recipeId, language);
+        log.debug("Translated text for recipeId={} language={}: {}", recipeId, langCode, translatedText);
 
-            if (!response.getStatusCode().is2xxSuccessful()) {
-                throw new RuntimeException("Gemini HTTP error: " + response.getStatusCode());
-            }
+        // 4. GENERATE AUDIO
+        byte[] wav = synthesizeAudio(translatedText, voice, recipeId);
 
-            JsonNode body = response.getBody();
-            if (body == null) {
-                throw new RuntimeException("Empty response from Gemini");
+        // 5. COMPRESS, STORE FILE AND SAVE METADATA TO DATABASE
+        byte[] audio = wav;
+        String contentType = "audio/wav";
+        if (CODEC_IMA_ADPCM.equals(codec)) {
+            try {
+                audio = ImaAdpcm.encodeWav(wav);
+                contentType = ImaAdpcm.MEDIA_TYPE;
+            } catch (IllegalArgumentException e) {
+                log.warn("Storing uncompressed audio for recipeId={}: {}", recipeId, e.getMessage());
             }
-
-            log.info("Gemini TTS Response: {}", body.toString());
-
-            // ---- Check for errors or unsupported content ----
-            JsonNode candidates = body.path("candidates");
-            if (candidates == null || !candidates.isArray() || candidates.size() == 0) {
-                log.error("Gemini TTS error - no candidates in response: {}", body.toString());
-                throw new RuntimeException("Gemini TTS failed: " + body.path("error").path("message").asText("No candidates returned"));
+        }
+        AudioStore.StoredFile stored = audioStore.put(audio);
+        if (recipeId == null) {
+            return new RecipeAudio(null, stored.getHash(), stored.getSize(), contentType, langCode, voice);
+        }
+        recipeAudioRepository.insertIfAbsent(recipeId, langCode, voice, stored.getHash(), stored.getSize(), contentType);
+        RecipeAudio saved = recipeAudioRepository.findByRecipeIdAndLanguageAndVoice(recipeId, langCode, voice)
+                .orElseThrow(() -> new IllegalStateException("Audio row missing after insert for recipeId=" + recipeId));
+        if (!stored.getHash().equals(saved.getContentHash())) {
+            // Another instance got there first, its row is kept and our file is dropped unless something else uses it
+            log.info("Audio for recipeId={} language={} was stored concurrently, using audioId={}",
+                    recipeId, langCode, saved.getId());
+            if (recipeAudioRepository.countByContentHash(stored.getHash()) == 0) {
+                audioStore.delete(stored.getHash());
             }
+        } else {
+            log.info("Saved TTS WAV metadata for recipeId={} language={} audioId={} hash={}",
+                    recipeId, langCode, saved.getId(), stored.getHash());
+        }
+        return saved;
+    }
 
-            JsonNode candidate = candidates.get(0);
-            if (candidate == null) {
-                throw new RuntimeException("Gemini TTS error: null candidate");
-            }
+    /* Usable cached audio, rows whose blob has not been migrated or whose file is gone are removed */
+    private RecipeAudio findCached(Long recipeId, String langCode, String voice) {
+        if (recipeId == null) {
+            return null;
+        }
+        Optional<RecipeAudio> cached = recipeAudioRepository.findByRecipeIdAndLanguageAndVoice(recipeId, langCode, voice);
+        if (cached.isEmpty()) {
+            return null;
+        }
+        if (cached.get().getContentHash() != null && audioStore.exists(cached.get().getContentHash())) {
+            return cached.get();
+        }
+        recipeAudioRepository.deleteById(cached.get().getId());
+        return null;
+    }
 
-            // CHECK FINISH REASON BEFORE TRYING TO EXTRACT AUDIO
-            String finishReason = candidate.path("finishReason").asText("");
-            if (!"STOP".equals(finishReason)) {
-                log.error("Gemini TTS did not complete successfully. finishReason: {}, response: {}", finishReason, body.toString());
-                throw new RuntimeException("Gemini TTS failed with finishReason: " + finishReason + ". This language or text may not be supported for TTS.");
-            }
+    /* Waits with a timeout of its own, the running generation keeps going for its owner and later callers */
+    private RecipeAudio await(CompletableFuture<RecipeAudio> running) {
+        try {
+            return running.get(awaitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("Failed to generate translated audio", cause);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Timed out waiting for the running audio generation", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the running audio generation", e);
+        }
+    }
 
-            // ---- Extract audio ----
-            JsonNode contentNode = candidate.path("content");
-            if (contentNode.isMissingNode()) {
-                throw new RuntimeException("Gemini TTS error: no content in response");
-            }
+    public String normalizeLanguageCode(String language) {
+        return LanguageCodes.normalize(language);
+    }
 
-            JsonNode partsArray = contentNode.path("parts");
-            if (partsArray.isMissingNode() || !partsArray.isArray() || partsArray.size() == 0) {
-                throw new RuntimeException("Gemini TTS error: no parts in response");
-            }
+    public byte[] synthesizeAudio(String text, String voiceName, Long recipeId) {
+        return speechModel.synthesize(text, voiceName == null ? DEFAULT_VOICE : voiceName);
+    }
 
-            JsonNode firstPart = partsArray.get(0);
-            if (firstPart == null) {
-                throw new RuntimeException("Gemini TTS error: null first part");
-            }
 
-            String base64 = firstPart.path("inlineData").path("data").asText();
-            if (base64 == null || base64.isEmpty()) {
-                throw new RuntimeException("Gemini TTS error: no audio data in response");
-            }
+    /* Stored audio by id, null if the row or its file is gone */
+    public RecipeAudio findReadyAudio(Long audioId) {
+        if (audioId == null) {
+            return null;
+        }
+        return recipeAudioRepository.findById(audioId)
+                .filter(audio -> audio.getContentHash() != null && audioStore.exists(audio.getContentHash()))
+                .orElse(null);
+    }
 
-            byte[] pcmBytes = Base64.getDecoder().decode(base64);
-            byte[] wav = convertPcmToWav(pcmBytes);
+    /* Streams the stored audio, callers never get the whole file in memory */
+    public Resource openAudio(RecipeAudio audio) {
+        return audioStore.resource(audio.getContentHash());
+    }
 
-            // Save WAV to /tmp for inspection
-            try {
-                String fname = "gemini-tts-" + Instant.now().toEpochMilli() + ".wav";
-                Path out = Paths.get("/tmp").resolve(fname);
-                Files.write(out, wav);
-                log.info("Saved TTS WAV to: {}", out.toString());
-            } catch (IOException ioe) {
-                log.warn("Failed to save TTS WAV to /tmp: {}", ioe.getMessage());
-            }
+    public boolean isCompressed(RecipeAudio audio) {
+        return ImaAdpcm.MEDIA_TYPE.equals(audio.getContentType());
+    }
 
-            return wav;
-        } catch (Exception e) {
-            log.error("Gemini TTS error for text: '{}', error: {}",
-                    text.substring(0, Math.min(100, text.length())), e.getMessage(), e);
-            throw new RuntimeException("Gemini TTS error: " + e.getMessage(), e);
+    /* Size of the PCM WAV file decodeAudio writes for compressed audio */
+    public long decodedLength(RecipeAudio audio) throws IOException {
+        try (InputStream in = openAudio(audio).getInputStream()) {
+            return ImaAdpcm.decodedLength(in);
         }
     }
 
+    /* Decodes compressed audio to PCM WAV while writing it, for clients that cannot play IMA-ADPCM */
+    public void decodeAudio(RecipeAudio audio, OutputStream out) throws IOException {
+        try (InputStream in = new BufferedInputStream(openAudio(audio).getInputStream(), 64 * 1024)) {
+            ImaAdpcm.decodeWav(in, out);
+        }
+    }
 
     @Transactional
     public void deleteAudioForRecipe(Long recipeId) {
@@ -251,6 +260,19 @@ public class SpeechSynthService {
             List<RecipeAudio> audioList = recipeAudioRepository.findAllByRecipeId(recipeId);
             if (!audioList.isEmpty()) {
                 recipeAudioRepository.deleteAllByRecipeId(recipeId);
+                recipeAudioRepository.flush();
+                // Files are shared by content, only those no other row points at are removed, after commit
+                Set<String> hashes = audioList.stream()
+                        .map(RecipeAudio::getContentHash)
+                        .filter(Objects::nonNull)
+                        .filter(hash -> recipeAudioRepository.countByContentHash(hash) == 0)
+                        .collect(Collectors.toSet());
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        hashes.forEach(audioStore::delete);
+                    }
+                });
                 log.info("Deleted {} audio record(s) for recipeId={} (all languages)", audioList.size(), recipeId);
             } else {
                 log.info("No cached audio found to delete for recipeId={}", recipeId);
@@ -260,123 +282,19 @@ public class SpeechSynthService {
         }
     }
 
-    // ---------------------------------------------------------
-    // Convert raw PCM LINEAR16 → WAV wrapper
-    // ---------------------------------------------------------
-    private byte[] convertPcmToWav(byte[] pcmData) throws IOException {
-
-        int sampleRate = 24000;
-        int channels = 1;
-        int bitsPerSample = 16;
-
-        int byteRate = sampleRate * channels * bitsPerSample / 8;
-        int blockAlign = channels * bitsPerSample / 8;
-        int subchunk2Size = pcmData.length;
-
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-
-        // WAV Header
-        writeString(out, "RIFF");
-        writeInt(out, 36 + subchunk2Size);
-        writeString(out, "WAVE");
-
-        writeString(out, "fmt ");
-        writeInt(out, 16); // Subchunk1Size
-        writeShort(out, (short) 1); // PCM
-        writeShort(out, (short) channels);
-        writeInt(out, sampleRate);
-        writeInt(out, byteRate);
-        writeShort(out, (short) blockAlign);
-        writeShort(out, (short) bitsPerSample);
-
-        writeString(out, "data");
-        writeInt(out, subchunk2Size);
-        out.write(pcmData);
-
-        return out.toByteArray();
-    }
-
-    private void writeString(ByteArrayOutputStream out, String value) throws IOException {
-        out.write(value.getBytes(StandardCharsets.US_ASCII));
-    }
-
-    private void writeInt(ByteArrayOutputStream out, int value) throws IOException {
-        out.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(value).array());
-    }
-
-    private void writeShort(ByteArrayOutputStream out, short value) throws IOException {
-        out.write(ByteBuffer.allocate(2).order(ByteOrder.LITTLE_ENDIAN).putShort(value).array());
-    }
-
-
-    // Translate the recipe into chosen language
-    @Transactional
+    // Translate the recipe into chosen language, translations are cached by TranslationService
     public String translateText(Long id, String targetLanguage) {
-        try {
-            if(id == null) {
-                throw new IllegalArgumentException("Recipe ID cannot be null for translation.");
-            }
-
-            Recipe recipe = recipeRepository.findById(id)
-                    .orElseThrow(() -> new IllegalArgumentException("Recipe not found for ID: " + id));
-            String text = "Title: " + recipe.getTitle() + "\n\nDescription: " + recipe.getDescription() + "\n\nIngredients: " + recipe.getIngredients().toString() + "\n\nCuisine: " + recipe.getCuisine().toString();
-
-            ObjectNode payload = mapper.createObjectNode();
-
-            String instruction = "Translate the following text into " + targetLanguage + ":" + text;
-            System.out.println("Translation instruction: " + instruction);
-            // ---- contents ----
-            ArrayNode contents = mapper.createArrayNode();
-            ObjectNode contentObj = mapper.createObjectNode();
-            ArrayNode parts = mapper.createArrayNode();
-            ObjectNode textObj = mapper.createObjectNode();
-            textObj.put("text", instruction);
-            parts.add(textObj);
-            contentObj.set("parts", parts);
-            contents.add(contentObj);
-            payload.set("contents", contents);
-
-            // ---- Prepare POST Request ----
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            HttpEntity<String> request =
-                    new HttpEntity<>(payload.toString(), headers);
-
-            String url = translate_api + "?key=" + apiKey;
-
-            // ---- Call Gemini ----
-            ResponseEntity<JsonNode> response;
-            try {
-                response =
-                        restTemplate.postForEntity(url, request, JsonNode.class);
-            } catch (org.springframework.web.client.HttpClientErrorException httpEx) {
-                String bodyText = httpEx.getResponseBodyAsString();
-                log.error("Gemini HTTP error: status={}, body={}", httpEx.getStatusCode(), bodyText);
-                throw new RuntimeException("Gemini error: " + httpEx.getStatusCode() + ": " + (bodyText == null ? "[no body]" : bodyText), httpEx);
-            }
-
-            if (!response.getStatusCode().is2xxSuccessful()) {
-                throw new RuntimeException("Gemini HTTP error: " + response.getStatusCode());
-            }
-
-            JsonNode body = response.getBody();
-            if (body == null) {
-                throw new RuntimeException("Empty response from Gemini");
-            }
-
-            // ---- Extract Translated Text ----
-            String translatedText = body
-                    .path("candidates").get(0)
-                    .path("content")
-                    .path("parts").get(0)
-                    .path("text")
-                    .asText();
-
-            return translatedText;
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Gemini error: " + e.getMessage(), e);
+        if(id == null) {
+            throw new IllegalArgumentException("Recipe ID cannot be null for translation.");
         }
+        return translationService.translate(id, targetLanguage).getTranslatedText();
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class AudioKey {
+        private final Long recipeId;
+        private final String language;
+        private final String voice;
     }
 }
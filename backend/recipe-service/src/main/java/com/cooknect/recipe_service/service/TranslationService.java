@@ -0,0 +1,119 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.event.RecipeChangedEvent;
+import com.cooknect.recipe_service.exception.NotFoundException;
+import com.cooknect.recipe_service.model.Ingredient;
+import com.cooknect.recipe_service.model.Recipe;
+import com.cooknect.recipe_service.model.RecipeTranslation;
+import com.cooknect.recipe_service.repository.RecipeRepository;
+import com.cooknect.recipe_service.repository.RecipeTranslationRepository;
+import com.cooknect.recipe_service.utils.LanguageCodes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/*
+ * Translations of the spoken recipe text, persisted in recipe_translation so that each text is only sent to the
+ * translation model once per language. Shared by the audio generation and the translated text endpoint.
+ *
+ * Lookups go by (recipe, version, language) and fall back to an older version with the same source hash,
+ * since the version also moves for changes that do not touch the text (e.g. a new cuisine).
+ * Translations of text that was changed by an update are removed when the update is published.
+ */
+@Service
+public class TranslationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TranslationService.class);
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeTranslationRepository translationRepository;
+    private final SpeechModel speechModel;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public TranslationService(RecipeRepository recipeRepository,
+                              RecipeTranslationRepository translationRepository,
+                              SpeechModel speechModel,
+                              MeterRegistry meterRegistry) {
+        this.recipeRepository = recipeRepository;
+        this.translationRepository = translationRepository;
+        this.speechModel = speechModel;
+        this.hits = meterRegistry.counter("recipe.translation.cache", "result", "hit");
+        this.misses = meterRegistry.counter("recipe.translation.cache", "result", "miss");
+    }
+
+    public RecipeTranslation translate(Long recipeId, String language) {
+        Recipe recipe = recipeRepository.findById(recipeId)
+                .orElseThrow(() -> new NotFoundException("Recipe not found: " + recipeId));
+        String langCode = LanguageCodes.normalize(language);
+        String source = sourceText(recipe);
+        String sourceHash = sha256(source);
+        long version = recipe.getVersion() == null ? 0 : recipe.getVersion();
+
+        Optional<RecipeTranslation> cached = translationRepository
+                .findByRecipeIdAndRecipeVersionAndLanguage(recipeId, version, langCode)
+                .filter(t -> t.getSourceHash().equals(sourceHash))
+                .or(() -> translationRepository.findFirstByRecipeIdAndLanguageAndSourceHashOrderByRecipeVersionDesc(recipeId, langCode, sourceHash));
+        if (cached.isPresent()) {
+            hits.increment();
+            return cached.get();
+        }
+
+        misses.increment();
+        log.info("Translating recipeId={} version={} to {}", recipeId, version, langCode);
+        String translated = speechModel.translate(source, LanguageCodes.displayName(langCode));
+        translationRepository.insertIfAbsent(recipeId, version, langCode, sourceHash, translated);
+        return translationRepository.findByRecipeIdAndRecipeVersionAndLanguage(recipeId, version, langCode)
+                .orElse(new RecipeTranslation(null, recipeId, version, langCode, sourceHash, translated, Instant.now()));
+    }
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.getType() == RecipeChangedEvent.Type.DELETED) {
+            translationRepository.deleteAllByRecipeId(event.getRecipeId());
+        } else if (event.getType() == RecipeChangedEvent.Type.UPDATED) {
+            // Only translations of a different text go, updates that leave the spoken text alone keep them
+            int removed = translationRepository.deleteStale(event.getRecipeId(), sha256(sourceText(event.getRecipe())));
+            if (removed > 0) {
+                log.info("Removed {} stale translation(s) of recipeId={}", removed, event.getRecipeId());
+            }
+        }
+    }
+
+    /* The text that is translated and spoken */
+    static String sourceText(Recipe recipe) {
+        String ingredients = recipe.getIngredients() == null ? "" : recipe.getIngredients().stream()
+                .map(TranslationService::describe)
+                .collect(Collectors.joining(", "));
+        return "Title: " + recipe.getTitle()
+                + "\n\nDescription: " + recipe.getDescription()
+                + "\n\nIngredients: " + ingredients
+                + "\n\nCuisine: " + (recipe.getCuisine() == null ? "" : recipe.getCuisine().toString());
+    }
+
+    private static String describe(Ingredient ingredient) {
+        return ingredient.getQuantity() == null || ingredient.getQuantity().isBlank()
+                ? ingredient.getName()
+                : ingredient.getName() + " (" + ingredient.getQuantity() + ")";
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.common.dto.PageResponseDTO;
+import com.cooknect.recipe_service.dto.RecipeSummary;
+import com.cooknect.recipe_service.dto.TrendingRecipeDTO;
+import com.cooknect.recipe_service.event.RecipeActivityEvent;
+import com.cooknect.recipe_service.event.RecipeChangedEvent;
+import com.cooknect.recipe_service.model.Recipe;
+import com.cooknect.recipe_service.model.TrendingScore;
+import com.cooknect.recipe_service.repository.RecipeRepository;
+import com.cooknect.recipe_service.repository.TrendingScoreRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/*
+ * In-memory trending ranking, fed by likes, unlikes and comments.
+ *
+ * Every activity adds its weight to the recipe's score, and scores decay exponentially with the configured half-life.
+ * Scores are kept with forward decay: an activity at time t adds weight * 2^((t - landmark) / halfLife), so stored
+ * values never have to be decayed one by one and their order does not change over time. The decayed score is
+ * the stored value times 2^(-(now - landmark) / halfLife), the landmark is moved forward before the values get large.
+ *
+ * All scores live in a map, the best topK of them also in a sorted set, which serves the trending pages.
+ * A score that drops (an unlike) can leave a recipe in the set that another one has overtaken, the set is rebuilt
+ * from the map at every checkpoint. The checkpoint also drops scores that have decayed below minScore, and loads
+ * title and image of new top recipes, so requests never touch the recipe table.
+ *
+ * Each instance ranks the activity it serves itself. recipe_trending holds the combined score of all instances:
+ * a checkpoint only adds the change since the previous one to the decayed stored score, so replicas never
+ * overwrite each other's activity, and rows that have decayed below minScore are deleted. The table is only
+ * read at startup, a new instance starts from the combined ranking.
+ */
+@Component
+public class TrendingService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+
+    /* Orders by stored value, best first */
+    private static final Comparator<Ranked> BEST_FIRST = Comparator.comparingDouble((Ranked r) -> r.value).reversed()
+            .thenComparingLong(r -> r.recipeId);
+
+    // 2^64 still leaves plenty of headroom in a double
+    private static final int MAX_LANDMARK_HALF_LIVES = 64;
+
+    private final TrendingScoreRepository scoreRepository;
+    private final RecipeRepository recipeRepository;
+    private final JdbcTemplate jdbc;
+    private final int topK;
+    private final double halfLifeMillis;
+    private final double likeWeight;
+    private final double commentWeight;
+    private final double minScore;
+
+    private long landmarkMillis = System.currentTimeMillis();
+    private final Map<Long, Double> values = new HashMap<>();
+    private final TreeSet<Ranked> top = new TreeSet<>(BEST_FIRST);
+    private final Map<Long, Details> details = new HashMap<>();
+    // Change of each score (in stored values) that has not been added to recipe_trending yet
+    private final Map<Long, Double> pending = new HashMap<>();
+    private final Set<Long> removed = new HashSet<>();
+
+    private final Timer checkpointTimer;
+
+    public TrendingService(TrendingScoreRepository scoreRepository,
+                           RecipeRepository recipeRepository,
+                           JdbcTemplate jdbc,
+                           MeterRegistry meterRegistry,
+                           @Value("${recipe.trending.top-k:1000}") int topK,
+                           @Value("${recipe.trending.half-life-hours:24}") double halfLifeHours,
+                           @Value("${recipe.trending.like-weight:1}") double likeWeight,
+                           @Value("${recipe.trending.comment-weight:3}") double commentWeight,
+                           @Value("${recipe.trending.min-score:0.01}") double minScore) {
+        this.scoreRepository = scoreRepository;
+        this.recipeRepository = recipeRepository;
+        this.jdbc = jdbc;
+        this.topK = topK;
+        this.halfLifeMillis = halfLifeHours * 3_600_000;
+        this.likeWeight = likeWeight;
+        this.commentWeight = commentWeight;
+        this.minScore = minScore;
+
+        this.checkpointTimer = meterRegistry.timer("recipe.trending.checkpoint");
+        meterRegistry.gauge("recipe.trending.tracked", this, TrendingService::tracked);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivity(RecipeActivityEvent event) {
+        double weight = switch (event.getType()) {
+            case LIKED -> likeWeight;
+            case UNLIKED -> -likeWeight;
+            case COMMENTED -> commentWeight;
+        };
+        record(event.getRecipeId(), weight, System.currentTimeMillis());
+    }
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        synchronized (this) {
+            if (event.getType() == RecipeChangedEvent.Type.DELETED) {
+                Double value = values.remove(event.getRecipeId());
+                if (value != null) {
+                    top.remove(new Ranked(event.getRecipeId(), value));
+                    pending.remove(event.getRecipeId());
+                    removed.add(event.getRecipeId());
+                }
+                details.remove(event.getRecipeId());
+            } else if (details.containsKey(event.getRecipeId())) {
+                details.put(event.getRecipeId(), Details.of(event.getRecipe()));
+            }
+        }
+    }
+
+    /* Page of the current top recipes (1-based), at most topK recipes are ranked */
+    public PageResponseDTO<TrendingRecipeDTO> getTrending(int page, int size) {
+        return getTrending(page, size, System.currentTimeMillis());
+    }
+
+    synchronized PageResponseDTO<TrendingRecipeDTO> getTrending(int page, int size, long nowMillis) {
+        int pageSize = Math.max(1, size);
+        int skip = Math.max(0, page - 1) * pageSize;
+        double decay = Math.pow(2, -(nowMillis - landmarkMillis) / halfLifeMillis);
+
+        List<TrendingRecipeDTO> content = new ArrayList<>(Math.min(pageSize, top.size()));
+        Iterator<Ranked> it = top.iterator();
+        for (int i = 0; i < skip && it.hasNext(); i++) {
+            it.next();
+        }
+        while (content.size() < pageSize && it.hasNext()) {
+            Ranked ranked = it.next();
+            Details d = details.get(ranked.recipeId);
+            content.add(d == null
+                    ? new TrendingRecipeDTO(ranked.recipeId, null, null, null, null, false, ranked.value * decay)
+                    : new TrendingRecipeDTO(ranked.recipeId, d.title, d.cuisine, d.recipeImageUrl, d.userId, d.tribute, ranked.value * decay));
+        }
+
+        PageResponseDTO<TrendingRecipeDTO> response = new PageResponseDTO<>();
+        response.setContent(content);
+        response.setPage(page);
+        response.setSize(pageSize);
+        response.setTotalElements(top.size());
+        response.setTotalPages((top.size() + pageSize - 1) / pageSize);
+        response.setSort("trending");
+        return response;
+    }
+
+    synchronized void record(Long recipeId, double weight, long nowMillis) {
+        Double old = values.get(recipeId);
+        double value = Math.max(0, (old == null ? 0 : old) + weight * Math.pow(2, (nowMillis - landmarkMillis) / halfLifeMillis));
+        values.put(recipeId, value);
+        pending.merge(recipeId, value - (old == null ? 0 : old), Double::sum);
+        removed.remove(recipeId);
+
+        boolean ranked = old != null && top.remove(new Ranked(recipeId, old));
+        if (ranked || top.size() < topK || value > top.last().value) {
+            top.add(new Ranked(recipeId, value));
+            if (top.size() > topK) {
+                top.pollLast();
+            }
+        }
+    }
+
+    /* Restores the combined checkpoint of all instances, scores are decayed by the time since it was written */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<TrendingScore> rows = scoreRepository.findAll();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            landmarkMillis = now;
+            for (TrendingScore row : rows) {
+                double value = row.getScore() * Math.pow(2, (row.getScoredAt().toEpochMilli() - now) / halfLifeMillis);
+                if (value >= minScore && !values.containsKey(row.getRecipeId())) {
+                    values.put(row.getRecipeId(), value);
+                }
+            }
+            rebuildTop();
+        }
+        log.info("Loaded {} trending score(s)", rows.size());
+        loadMissingDetails();
+    }
+
+    @Scheduled(fixedDelayString = "${recipe.trending.checkpoint-interval-millis:60000}",
+               initialDelayString = "${recipe.trending.checkpoint-interval-millis:60000}")
+    public void checkpoint() {
+        checkpointTimer.record(() -> {
+            checkpoint(System.currentTimeMillis());
+            loadMissingDetails();
+        });
+    }
+
+    void checkpoint(long nowMillis) {
+        List<Object[]> increments = new ArrayList<>();
+        Map<Long, Double> written;
+        List<Long> deletes;
+        double halfLifeSeconds = halfLifeMillis / 1000;
+        Timestamp scoredAt = Timestamp.from(Instant.ofEpochMilli(nowMillis));
+        synchronized (this) {
+            if (nowMillis - landmarkMillis > MAX_LANDMARK_HALF_LIVES * halfLifeMillis) {
+                rebase(nowMillis);
+            }
+            double decay = Math.pow(2, -(nowMillis - landmarkMillis) / halfLifeMillis);
+            // Only forgotten here, its pending change (e.g. the unlikes that decayed it) is still written below
+            values.entrySet().removeIf(e -> e.getValue() * decay < minScore);
+            rebuildTop();
+            details.keySet().retainAll(values.keySet());
+            written = new HashMap<>(pending);
+            for (Map.Entry<Long, Double> change : written.entrySet()) {
+                if (change.getValue() != 0) {
+                    increments.add(new Object[]{change.getKey(), change.getValue() * decay, scoredAt, halfLifeSeconds});
+                }
+            }
+            pending.clear();
+            deletes = new ArrayList<>(removed);
+            removed.clear();
+        }
+
+        try {
+            if (!increments.isEmpty()) {
+                // Decays the stored score up to scored_at and adds this instance's change, a score never drops below 0
+                jdbc.batchUpdate("INSERT INTO recipe_trending (recipe_id, score, scored_at) VALUES (?, ?, ?) " +
+                        "ON CONFLICT (recipe_id) DO UPDATE SET score = GREATEST(0, recipe_trending.score * " +
+                        "power(2, -extract(epoch FROM (EXCLUDED.scored_at - recipe_trending.scored_at)) / CAST(? AS double precision)) + EXCLUDED.score), " +
+                        "scored_at = EXCLUDED.scored_at", increments);
+            }
+            if (!deletes.isEmpty()) {
+                scoreRepository.deleteAllByIdInBatch(deletes);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Checkpointing trending scores failed, retrying later: {}", e.getMessage());
+            synchronized (this) {
+                // Back in stored values, a rebase only happens inside checkpoint
+                for (Map.Entry<Long, Double> change : written.entrySet()) {
+                    if (!removed.contains(change.getKey())) {
+                        pending.merge(change.getKey(), change.getValue(), Double::sum);
+                    }
+                }
+                for (Long recipeId : deletes) {
+                    if (!values.containsKey(recipeId)) {
+                        removed.add(recipeId);
+                    }
+                }
+            }
+            return;
+        }
+
+        try {
+            jdbc.update("DELETE FROM recipe_trending " +
+                            "WHERE score * power(2, -extract(epoch FROM (CAST(? AS timestamptz) - scored_at)) / CAST(? AS double precision)) < ?",
+                    scoredAt, halfLifeSeconds, minScore);
+        } catch (RuntimeException e) {
+            log.warn("Deleting decayed trending scores failed: {}", e.getMessage());
+        }
+    }
+
+    /* Title, image and owner of ranked recipes, loaded with one query off the request path */
+    private void loadMissingDetails() {
+        List<Long> missing;
+        synchronized (this) {
+            missing = top.stream().map(r -> r.recipeId).filter(id -> !details.containsKey(id)).toList();
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        List<RecipeSummary> summaries = recipeRepository.findSummariesByIdIn(missing);
+        synchronized (this) {
+            for (RecipeSummary summary : summaries) {
+                if (values.containsKey(summary.getId())) {
+                    details.put(summary.getId(), Details.of(summary));
+                }
+            }
+        }
+    }
+
+    /* Moves the landmark to now, the scaled values keep their order */
+    private void rebase(long nowMillis) {
+        double factor = Math.pow(2, -(nowMillis - landmarkMillis) / halfLifeMillis);
+        values.replaceAll((recipeId, value) -> value * factor);
+        pending.replaceAll((recipeId, change) -> change * factor);
+        landmarkMillis = nowMillis;
+    }
+
+    private void rebuildTop() {
+        top.clear();
+        for (Map.Entry<Long, Double> entry : values.entrySet()) {
+            if (top.size() < topK || entry.getValue() > top.last().value) {
+                top.add(new Ranked(entry.getKey(), entry.getValue()));
+                if (top.size() > topK) {
+                    top.pollLast();
+                }
+            }
+        }
+    }
+
+    private synchronized double tracked() {
+        return values.size();
+    }
+
+    @AllArgsConstructor
+    private static final class Ranked {
+        private final Long recipeId;
+        private final double value;
+    }
+
+    @AllArgsConstructor
+    private static final class Details {
+        private final String title;
+        private final String cuisine;
+        private final String recipeImageUrl;
+        private final Long userId;
+        private final boolean tribute;
+
+        private static Details of(Recipe recipe) {
+            return new Details(recipe.getTitle(), String.valueOf(recipe.getCuisine()), recipe.getRecipeImageUrl(),
+                    recipe.getUserId(), recipe.isTribute());
+        }
+
+        private static Details of(RecipeSummary summary) {
+            return new Details(summary.getTitle(), String.valueOf(summary.getCuisine()), summary.getRecipeImageUrl(),
+                    summary.getUserId(), summary.getIsTribute());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.utils.TtlCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Bounded in-process near-cache for userId -> username lookups against user-service.
+ *
+ * Entries are fresh for ttl and are then reloaded on the next access. All missing or
+ * expired ids of a call are loaded with a single bulk POST to /usernames. If user-service
+ * cannot be reached, expired entries keep being served until they pass staleTtl, and the ids of the
+ * failed call are not requested again for failureTtl. Once maxSize is reached the least recently used entry is evicted.
+ */
+@Component
+public class UsernameCache {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameCache.class);
+
+    private final RestTemplate restTemplate;
+    private final String userBaseUrl;
+    private final long staleTtlMillis;
+
+    private final TtlCache<Long, String> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter staleHits;
+    private final Counter loadFailures;
+
+    public UsernameCache(RestTemplate restTemplate,
+                         MeterRegistry meterRegistry,
+                         @Value("${user.service.url}") String userBaseUrl,
+                         @Value("${recipe.username-cache.max-size:10000}") int maxSize,
+                         @Value("${recipe.username-cache.ttl-seconds:600}") long ttlSeconds,
+                         @Value("${recipe.username-cache.stale-ttl-seconds:86400}") long staleTtlSeconds,
+                         @Value("${recipe.username-cache.failure-ttl-seconds:30}") long failureTtlSeconds) {
+        this.restTemplate = restTemplate;
+        this.userBaseUrl = userBaseUrl;
+        this.staleTtlMillis = staleTtlSeconds * 1000;
+        this.entries = new TtlCache<>(maxSize, ttlSeconds * 1000, failureTtlSeconds * 1000);
+
+        this.hits = meterRegistry.counter("recipe.username.cache", "result", "hit");
+        this.misses = meterRegistry.counter("recipe.username.cache", "result", "miss");
+        this.staleHits = meterRegistry.counter("recipe.username.cache", "result", "stale");
+        this.loadFailures = meterRegistry.counter("recipe.username.cache.load.failures");
+        meterRegistry.gauge("recipe.username.cache.size", this, UsernameCache::size);
+    }
+
+    /*
+     * Returns the usernames known for the given ids.
+     * Ids that user-service does not know, or that cannot be loaded, are absent from the map.
+     */
+    public Map<Long, String> getUsernames(Collection<Long> userIds) {
+        Map<Long, String> result = new HashMap<>();
+        Map<Long, String> stale = new HashMap<>();
+        List<Long> toLoad = new ArrayList<>();
+
+        for (Long userId : new LinkedHashSet<>(userIds)) {
+            if (userId == null) {
+                continue;
+            }
+            String username = entries.get(userId);
+            if (username != null) {
+                hits.increment();
+                result.put(userId, username);
+                continue;
+            }
+            misses.increment();
+            String expired = entries.getStale(userId, staleTtlMillis);
+            // Failed a moment ago, user service is not asked again yet
+            if (entries.isFailing(userId)) {
+                if (expired != null) {
+                    result.put(userId, expired);
+                    staleHits.increment();
+                }
+                continue;
+            }
+            if (expired != null) {
+                stale.put(userId, expired);
+            }
+            toLoad.add(userId);
+        }
+
+        if (toLoad.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, String> loaded = load(toLoad);
+        if (loaded == null) {
+            // User service is down, fall back to whatever we still have
+            toLoad.forEach(entries::failed);
+            staleHits.increment(stale.size());
+            result.putAll(stale);
+            return result;
+        }
+
+        for (Map.Entry<Long, String> e : loaded.entrySet()) {
+            if (e.getValue() != null) {
+                entries.put(e.getKey(), e.getValue());
+            }
+        }
+        result.putAll(loaded);
+        return result;
+    }
+
+    public void invalidate(Long userId) {
+        entries.invalidate(userId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /* Bulk username lookup, returns null if user service is not available */
+    private Map<Long, String> load(List<Long> userIds) {
+        HttpEntity<List<Long>> request = new HttpEntity<>(userIds);
+        try {
+            ResponseEntity<Map<Long, String>> response = restTemplate.exchange(
+                    userBaseUrl + "/usernames",
+                    HttpMethod.POST,
+                    request,
+                    new ParameterizedTypeReference<Map<Long, String>>() {}
+            );
+            return response.getBody() != null ? response.getBody() : Map.of();
+        } catch (Exception e) {
+            loadFailures.increment();
+            log.warn("Could not fetch usernames from user service: {}", e.getMessage());
+            return null;
+        }
+    }
+}
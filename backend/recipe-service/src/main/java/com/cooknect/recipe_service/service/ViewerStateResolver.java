@@ -0,0 +1,54 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.repository.RecipeLikeRepository;
+import com.cooknect.recipe_service.repository.RecipeSavedRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Set;
+
+/*
+ * Resolves the "liked by me / saved by me" flags for a whole page of recipes.
+ * Runs one IN query against likes and one against saved_recipes,
+ * instead of two lookups per recipe.
+ */
+@Component
+public class ViewerStateResolver {
+
+    private final RecipeLikeRepository likeRepository;
+    private final RecipeSavedRepository savedRepository;
+
+    public ViewerStateResolver(RecipeLikeRepository likeRepository, RecipeSavedRepository savedRepository) {
+        this.likeRepository = likeRepository;
+        this.savedRepository = savedRepository;
+    }
+
+    public ViewerState resolve(Collection<Long> recipeIds, Long userId) {
+        // Anonymous viewers or empty pages need no lookups at all
+        if (userId == null || recipeIds == null || recipeIds.isEmpty()) {
+            return ViewerState.EMPTY;
+        }
+        Set<Long> liked = likeRepository.findLikedRecipeIds(userId, recipeIds);
+        Set<Long> saved = savedRepository.findSavedRecipeIds(userId, recipeIds);
+        return new ViewerState(liked, saved);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ViewerState {
+        public static final ViewerState EMPTY = new ViewerState(Set.of(), Set.of());
+
+        private final Set<Long> likedRecipeIds;
+        private final Set<Long> savedRecipeIds;
+
+        public boolean isLiked(Long recipeId) {
+            return likedRecipeIds.contains(recipeId);
+        }
+
+        public boolean isSaved(Long recipeId) {
+            return savedRecipeIds.contains(recipeId);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.cooknect.recipe_service.utils;
+
+import com.cooknect.recipe_service.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/*
+ * Opaque keyset cursor for a recipe's comments, holds the id of the last comment of a page.
+ * Comments are paged newest first, so the next page starts below that id.
+ */
+public class CommentCursor {
+
+    private static final String VERSION = "c1";
+
+    private CommentCursor() {}
+
+    /* Id to seek below, the first page starts above every id */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2 || !VERSION.equals(parts[0])) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return Long.parseLong(parts[1]);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public static String encode(long lastId) {
+        String raw = VERSION + "|" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
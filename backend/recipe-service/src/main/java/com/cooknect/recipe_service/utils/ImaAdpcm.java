@@ -0,0 +1,209 @@
+package com.cooknect.recipe_service.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * IMA-ADPCM codec for mono 16 bit speech, in the standard WAV layout (format tag 0x11, RFC 2361 audio/vnd.wave;codec=11).
+ *
+ * Every sample is coded as a 4 bit step relative to a predictor, so the data is about a quarter of the PCM size.
+ * Samples are grouped in blocks of BLOCK_ALIGN bytes that start with the uncoded first sample and the step index,
+ * so each block can be decoded on its own. The last block is padded, the fact chunk holds the real sample count.
+ */
+public class ImaAdpcm {
+
+    public static final String MEDIA_TYPE = "audio/vnd.wave;codec=11";
+    public static final int BLOCK_ALIGN = 1024;
+    public static final int SAMPLES_PER_BLOCK = (BLOCK_ALIGN - 4) * 2 + 1;
+
+    private static final int HEADER_SIZE = 60;
+
+    private static final int[] INDEX_TABLE = {
+            -1, -1, -1, -1, 2, 4, 6, 8,
+            -1, -1, -1, -1, 2, 4, 6, 8
+    };
+
+    private static final int[] STEP_TABLE = {
+            7, 8, 9, 10, 11, 12, 13, 14, 16, 17, 19, 21, 23, 25, 28, 31, 34, 37, 41, 45,
+            50, 55, 60, 66, 73, 80, 88, 97, 107, 118, 130, 143, 157, 173, 190, 209, 230, 253, 279, 307,
+            337, 371, 408, 449, 494, 544, 598, 658, 724, 796, 876, 963, 1060, 1166, 1282, 1411, 1552, 1707, 1878, 2066,
+            2272, 2499, 2749, 3024, 3327, 3660, 4026, 4428, 4871, 5358, 5894, 6484, 7132, 7845, 8630, 9493, 10442, 11487, 12635, 13899,
+            15289, 16818, 18500, 20350, 22385, 24623, 27086, 29794, 32767
+    };
+
+    /* Encodes a mono 16 bit PCM WAV file, other formats are rejected with IllegalArgumentException */
+    public static byte[] encodeWav(byte[] pcmWav) {
+        WavFormat.Info info;
+        ByteArrayInputStream in = new ByteArrayInputStream(pcmWav);
+        try {
+            info = WavFormat.readHeader(in);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid WAV file: " + e.getMessage(), e);
+        }
+        if (info.getFormatTag() != WavFormat.FORMAT_PCM || info.getBitsPerSample() != 16 || info.getChannels() != 1) {
+            throw new IllegalArgumentException("Only mono 16 bit PCM can be encoded");
+        }
+        int offset = pcmWav.length - in.available();
+        int sampleCount = (int) Math.min(info.getDataSize(), in.available()) / 2;
+        return encode(ByteBuffer.wrap(pcmWav, offset, sampleCount * 2).order(ByteOrder.LITTLE_ENDIAN), sampleCount, info.getSampleRate());
+    }
+
+    private static byte[] encode(ByteBuffer pcm, int sampleCount, int sampleRate) {
+        int blocks = Math.max(1, (sampleCount + SAMPLES_PER_BLOCK - 1) / SAMPLES_PER_BLOCK);
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + blocks * BLOCK_ALIGN).order(ByteOrder.LITTLE_ENDIAN);
+        writeHeader(out, sampleCount, sampleRate, blocks * BLOCK_ALIGN);
+
+        int index = 0;
+        int position = 0;
+        for (int block = 0; block < blocks; block++) {
+            // The block header carries the first sample as is, the predictor restarts from it
+            int predictor = sample(pcm, position++, sampleCount);
+            out.putShort((short) predictor);
+            out.put((byte) index);
+            out.put((byte) 0);
+            for (int i = 0; i < BLOCK_ALIGN - 4; i++) {
+                int low = encodeSample(sample(pcm, position++, sampleCount), predictor, index);
+                predictor = decodeSample(low, predictor, index);
+                index = nextIndex(index, low);
+                int high = encodeSample(sample(pcm, position++, sampleCount), predictor, index);
+                predictor = decodeSample(high, predictor, index);
+                index = nextIndex(index, high);
+                out.put((byte) (low | (high << 4)));
+            }
+        }
+        return out.array();
+    }
+
+    /* Length of the PCM WAV file decodeWav produces for the given IMA-ADPCM file */
+    public static long decodedLength(InputStream adpcmWav) throws IOException {
+        return WavFormat.HEADER_SIZE + 2L * sampleCount(WavFormat.readHeader(adpcmWav));
+    }
+
+    /* Decodes an IMA-ADPCM WAV file into a 16 bit PCM WAV file, block by block without buffering the whole file */
+    public static void decodeWav(InputStream adpcmWav, OutputStream out) throws IOException {
+        WavFormat.Info info = WavFormat.readHeader(adpcmWav);
+        if (info.getFormatTag() != WavFormat.FORMAT_IMA_ADPCM || info.getChannels() != 1) {
+            throw new IOException("Only mono IMA-ADPCM can be decoded");
+        }
+        long remaining = sampleCount(info);
+        out.write(WavFormat.pcm16Header((int) (remaining * 2), info.getSampleRate(), 1));
+
+        int blockAlign = info.getBlockAlign();
+        byte[] block = new byte[blockAlign];
+        ByteBuffer pcm = ByteBuffer.allocate(samplesPerBlock(info) * 2).order(ByteOrder.LITTLE_ENDIAN);
+        while (remaining > 0) {
+            int read = adpcmWav.readNBytes(block, 0, blockAlign);
+            if (read < 4) {
+                throw new EOFException("Truncated IMA-ADPCM data");
+            }
+            pcm.clear();
+            int predictor = (short) ((block[0] & 0xff) | (block[1] << 8));
+            int index = Math.min(block[2] & 0xff, STEP_TABLE.length - 1);
+            pcm.putShort((short) predictor);
+            for (int i = 4; i < read; i++) {
+                int low = block[i] & 0x0f;
+                predictor = decodeSample(low, predictor, index);
+                index = nextIndex(index, low);
+                pcm.putShort((short) predictor);
+                int high = (block[i] >> 4) & 0x0f;
+                predictor = decodeSample(high, predictor, index);
+                index = nextIndex(index, high);
+                pcm.putShort((short) predictor);
+            }
+            int samples = (int) Math.min(remaining, pcm.position() / 2);
+            out.write(pcm.array(), 0, samples * 2);
+            remaining -= samples;
+        }
+    }
+
+    private static int encodeSample(int sample, int predictor, int index) {
+        int step = STEP_TABLE[index];
+        int diff = sample - predictor;
+        int nibble = 0;
+        if (diff < 0) {
+            nibble = 8;
+            diff = -diff;
+        }
+        if (diff >= step) {
+            nibble |= 4;
+            diff -= step;
+        }
+        step >>= 1;
+        if (diff >= step) {
+            nibble |= 2;
+            diff -= step;
+        }
+        step >>= 1;
+        if (diff >= step) {
+            nibble |= 1;
+        }
+        return nibble;
+    }
+
+    private static int decodeSample(int nibble, int predictor, int index) {
+        int step = STEP_TABLE[index];
+        int delta = step >> 3;
+        if ((nibble & 4) != 0) {
+            delta += step;
+        }
+        if ((nibble & 2) != 0) {
+            delta += step >> 1;
+        }
+        if ((nibble & 1) != 0) {
+            delta += step >> 2;
+        }
+        predictor += (nibble & 8) != 0 ? -delta : delta;
+        return Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, predictor));
+    }
+
+    private static int nextIndex(int index, int nibble) {
+        return Math.max(0, Math.min(STEP_TABLE.length - 1, index + INDEX_TABLE[nibble]));
+    }
+
+    /* Samples past the end pad the last block with silence */
+    private static int sample(ByteBuffer pcm, int position, int sampleCount) {
+        return position < sampleCount ? pcm.getShort(pcm.position() + position * 2) : 0;
+    }
+
+    private static int samplesPerBlock(WavFormat.Info info) {
+        return info.getSamplesPerBlock() > 0 ? info.getSamplesPerBlock() : (info.getBlockAlign() - 4) * 2 + 1;
+    }
+
+    /* Files without a fact chunk are taken to fill all their blocks */
+    private static long sampleCount(WavFormat.Info info) {
+        if (info.getSampleCount() >= 0) {
+            return info.getSampleCount();
+        }
+        return info.getDataSize() / info.getBlockAlign() * samplesPerBlock(info);
+    }
+
+    private static void writeHeader(ByteBuffer out, int sampleCount, int sampleRate, int dataSize) {
+        out.put("RIFF".getBytes(StandardCharsets.US_ASCII));
+        out.putInt(HEADER_SIZE - 8 + dataSize);
+        out.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+
+        out.put("fmt ".getBytes(StandardCharsets.US_ASCII));
+        out.putInt(20);
+        out.putShort((short) WavFormat.FORMAT_IMA_ADPCM);
+        out.putShort((short) 1); // mono
+        out.putInt(sampleRate);
+        out.putInt(sampleRate * BLOCK_ALIGN / SAMPLES_PER_BLOCK); // average bytes per second
+        out.putShort((short) BLOCK_ALIGN);
+        out.putShort((short) 4); // bits per sample
+        out.putShort((short) 2); // extra format bytes
+        out.putShort((short) SAMPLES_PER_BLOCK);
+
+        out.put("fact".getBytes(StandardCharsets.US_ASCII));
+        out.putInt(4);
+        out.putInt(sampleCount);
+
+        out.put("data".getBytes(StandardCharsets.US_ASCII));
+        out.putInt(dataSize);
+    }
+}
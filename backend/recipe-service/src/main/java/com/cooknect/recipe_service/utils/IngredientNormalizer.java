@@ -0,0 +1,29 @@
+package com.cooknect.recipe_service.utils;
+
+import java.util.Locale;
+
+/*
+ * Normalizes ingredient names so that "Tomatoes ", "tomato" and "TOMATO" share one index key.
+ */
+public class IngredientNormalizer {
+
+    private IngredientNormalizer() {}
+
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String n = name.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        // Naive singularization, good enough for the common plural forms in ingredient lists
+        if (n.length() > 4 && n.endsWith("ies")) {
+            return n.substring(0, n.length() - 3) + "y";
+        }
+        if (n.length() > 4 && n.endsWith("oes")) {
+            return n.substring(0, n.length() - 2);
+        }
+        if (n.length() > 3 && n.endsWith("s") && !n.endsWith("ss")) {
+            return n.substring(0, n.length() - 1);
+        }
+        return n;
+    }
+}
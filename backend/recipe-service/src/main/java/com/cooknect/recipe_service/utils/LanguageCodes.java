@@ -0,0 +1,33 @@
+package com.cooknect.recipe_service.utils;
+
+import java.util.Locale;
+
+/* Language names and codes accepted by the translation and audio endpoints */
+public class LanguageCodes {
+
+    /* Maps the supported language names to their ISO 639-1 code, anything else is taken as a code already */
+    public static String normalize(String language) {
+        if (language == null) {
+            return "en";
+        }
+
+        String lang = language.trim().toLowerCase();
+        switch (lang) {
+            case "english": return "en";
+            case "hindi": return "hi";
+            case "bengali": return "bn";
+            case "marathi": return "mr";
+            case "telugu": return "te";
+            case "french": return "fr";
+            case "german": return "de";
+            case "spanish": return "es";
+            default: return lang; // Already a language code
+        }
+    }
+
+    /* English name of a language code for model prompts, e.g. "hi" -> "Hindi" */
+    public static String displayName(String code) {
+        String name = Locale.forLanguageTag(code).getDisplayLanguage(Locale.ENGLISH);
+        return name.isEmpty() ? code : name;
+    }
+}
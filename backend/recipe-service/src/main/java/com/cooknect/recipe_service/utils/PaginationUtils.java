@@ -3,14 +3,51 @@ import com.cooknect.common.dto.PageRequestDTO;
 import com.cooknect.common.dto.PageResponseDTO;
 import org.springframework.data.domain.*;
 
+import java.util.Set;
+
 public class PaginationUtils {
+
+    /* Columns clients may sort recipe listings by; anything else falls back to id */
+    public static final Set<String> SORTABLE_FIELDS = Set.of("id", "title", "description", "cuisine", "likes");
+
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    /* Largest page any listing returns, bigger requested sizes are clamped */
+    public static final int MAX_PAGE_SIZE = 50;
+
     public static Pageable toPageable(PageRequestDTO req) {
+        return toPageable(req, SORTABLE_FIELDS);
+    }
 
-        Sort sort = req.getDirection().equalsIgnoreCase("asc")
-                ? Sort.by(req.getSortBy()).ascending()
-                : Sort.by(req.getSortBy()).descending();
+    /*
+     * Supports comma separated sortBy/direction pairs ("likes,title" + "desc,asc").
+     * Unknown fields are dropped and id is always appended as a tie-breaker
+     * so that page boundaries stay stable.
+     */
+    public static Pageable toPageable(PageRequestDTO req, Set<String> allowedFields) {
+        String[] sortFields = req.getSortBy() == null ? new String[0] : req.getSortBy().split(",");
+        String[] directions = req.getDirection() == null ? new String[0] : req.getDirection().split(",");
 
-        return PageRequest.of(req.getPage(), req.getSize(), sort);
+        Sort sort = Sort.unsorted();
+        boolean hasId = false;
+        for (int i = 0; i < sortFields.length; i++) {
+            String field = sortFields[i].trim();
+            if (!allowedFields.contains(field)) {
+                continue;
+            }
+            Sort.Direction dir = Sort.Direction.ASC;
+            if (i < directions.length) {
+                dir = Sort.Direction.fromOptionalString(directions[i].trim()).orElse(Sort.Direction.ASC);
+            }
+            sort = sort.and(Sort.by(dir, field));
+            hasId = hasId || field.equals("id");
+        }
+        if (!hasId) {
+            sort = sort.and(Sort.by(Sort.Direction.ASC, "id"));
+        }
+
+        int page = Math.max(req.getPage(), 0);
+        int size = req.getSize() > 0 ? Math.min(req.getSize(), MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        return PageRequest.of(page, size, sort);
     }
 
     public static <T> PageResponseDTO<T> toPageResponse(Page<T> page) {
@@ -27,6 +64,3 @@ public class PaginationUtils {
         return dto;
     }
 }
-
-
-
@@ -0,0 +1,103 @@
+package com.cooknect.recipe_service.utils;
+
+import com.cooknect.recipe_service.exception.BadRequestException;
+import com.cooknect.recipe_service.model.Recipe;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/*
+ * Opaque keyset cursor for the recipe feed.
+ * Encodes the sort field together with the last (sort key, id) pair of a page,
+ * clients only pass it back and never need to parse it.
+ */
+@Getter
+public class RecipeCursor {
+
+    public static final String SORT_ID = "id";
+    public static final String SORT_LIKES = "likes";
+    public static final String SORT_CREATED_AT = "createdAt";
+
+    private static final String VERSION = "v1";
+    // Upper bound for the first page of the creation time ordering
+    private static final Instant MAX_CREATED_AT = Instant.parse("9999-12-31T23:59:59Z");
+
+    private final String sortBy;
+    private final long sortKey;
+    private final long id;
+
+    private RecipeCursor(String sortBy, long sortKey, long id) {
+        this.sortBy = sortBy;
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    /* Cursor positioned before the first row of the given ordering */
+    public static RecipeCursor first(String sortBy) {
+        return switch (normalizeSort(sortBy)) {
+            case SORT_LIKES -> new RecipeCursor(SORT_LIKES, Integer.MAX_VALUE, Long.MAX_VALUE);
+            case SORT_CREATED_AT -> new RecipeCursor(SORT_CREATED_AT, toMicros(MAX_CREATED_AT), Long.MAX_VALUE);
+            default -> new RecipeCursor(SORT_ID, 0L, 0L);
+        };
+    }
+
+    /* Cursor positioned right after the given recipe */
+    public static RecipeCursor after(String sortBy, Recipe last) {
+        return switch (normalizeSort(sortBy)) {
+            case SORT_LIKES -> new RecipeCursor(SORT_LIKES, last.getLikes(), last.getId());
+            case SORT_CREATED_AT -> new RecipeCursor(SORT_CREATED_AT, toMicros(last.getCreatedAt()), last.getId());
+            default -> new RecipeCursor(SORT_ID, last.getId(), last.getId());
+        };
+    }
+
+    /* Cursor positioned right after the recipe with the given id, for listings keyed by id alone */
+    public static RecipeCursor afterId(long id) {
+        return new RecipeCursor(SORT_ID, id, id);
+    }
+
+    public static RecipeCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            String sortBy = normalizeSort(parts[1]);
+            if (!sortBy.equals(parts[1])) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new RecipeCursor(sortBy, Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException e) {
+            // Covers malformed base64 and number parsing
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = VERSION + "|" + sortBy + "|" + sortKey + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /* Creation time key, stored in the cursor as epoch microseconds to match the column precision */
+    public Instant getCreatedAt() {
+        return Instant.EPOCH.plus(sortKey, ChronoUnit.MICROS);
+    }
+
+    private static long toMicros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    public static String normalizeSort(String sortBy) {
+        if (sortBy == null) {
+            return SORT_ID;
+        }
+        return switch (sortBy.trim()) {
+            case SORT_LIKES -> SORT_LIKES;
+            case SORT_CREATED_AT, "created_at", "recent" -> SORT_CREATED_AT;
+            default -> SORT_ID;
+        };
+    }
+}
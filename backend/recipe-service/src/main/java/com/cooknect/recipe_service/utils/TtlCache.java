@@ -0,0 +1,114 @@
+package com.cooknect.recipe_service.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/*
+ * Bounded in-process cache with a time to live, shared by the near-caches of this service.
+ *
+ * The map is access ordered, so once maxSize is reached the least recently used entry is evicted.
+ * Entries are fresh for ttl, expired values stay available through getStale for callers that prefer an old
+ * value to none. A failed load can be remembered for failureTtl, so a down dependency is not called again
+ * by every request for the same key. All methods are thread safe.
+ */
+public class TtlCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final long failureTtlMillis;
+    private final Map<K, Entry<V>> entries;
+
+    public TtlCache(int maxSize, long ttlMillis, long failureTtlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.failureTtlMillis = failureTtlMillis;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > TtlCache.this.maxSize;
+            }
+        };
+    }
+
+    /* The value if it is still fresh, otherwise null */
+    public V get(K key) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            return entry != null && entry.value != null && now - entry.loadedAt < ttlMillis ? entry.value : null;
+        }
+    }
+
+    /* The value if it was loaded less than maxAgeMillis ago, expired or not, otherwise null */
+    public V getStale(K key, long maxAgeMillis) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            return entry != null && entry.value != null && now - entry.loadedAt < maxAgeMillis ? entry.value : null;
+        }
+    }
+
+    public void put(K key, V value) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, now, 0));
+        }
+    }
+
+    /* Stores value unless a fresh cached value is there that replaces(cached, value) does not want replaced */
+    public void putIf(K key, V value, BiPredicate<V, V> replaces) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null || entry.value == null || now - entry.loadedAt >= ttlMillis || replaces.test(entry.value, value)) {
+                entries.put(key, new Entry<>(value, now, 0));
+            }
+        }
+    }
+
+    /* Remembers a failed load of key, an expired value stays available through getStale */
+    public void failed(K key) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            entries.put(key, entry == null
+                    ? new Entry<>(null, 0, now + failureTtlMillis)
+                    : new Entry<>(entry.value, entry.loadedAt, now + failureTtlMillis));
+        }
+    }
+
+    /* Whether loading key failed less than failureTtl ago, callers should not try again before that */
+    public boolean isFailing(K key) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            return entry != null && now < entry.failedUntil;
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static final class Entry<V> {
+        // null while only a failure is recorded
+        private final V value;
+        private final long loadedAt;
+        private final long failedUntil;
+
+        private Entry(V value, long loadedAt, long failedUntil) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.failedUntil = failedUntil;
+        }
+    }
+}
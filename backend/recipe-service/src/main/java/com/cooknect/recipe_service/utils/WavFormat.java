@@ -0,0 +1,122 @@
+package com.cooknect.recipe_service.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/* Minimal RIFF/WAVE reader and writer for the audio produced by the speech models */
+public class WavFormat {
+
+    public static final int HEADER_SIZE = 44;
+    public static final int FORMAT_PCM = 1;
+    public static final int FORMAT_IMA_ADPCM = 0x11;
+
+    /* Wraps raw little-endian 16 bit PCM (LINEAR16) into a WAV file */
+    public static byte[] fromPcm16(byte[] pcmData, int sampleRate, int channels) {
+        byte[] wav = new byte[HEADER_SIZE + pcmData.length];
+        System.arraycopy(pcm16Header(pcmData.length, sampleRate, channels), 0, wav, 0, HEADER_SIZE);
+        System.arraycopy(pcmData, 0, wav, HEADER_SIZE, pcmData.length);
+        return wav;
+    }
+
+    /* Canonical 44 byte header of a 16 bit PCM WAV file with dataSize bytes of samples */
+    public static byte[] pcm16Header(int dataSize, int sampleRate, int channels) {
+        int bitsPerSample = 16;
+        int byteRate = sampleRate * channels * bitsPerSample / 8;
+        int blockAlign = channels * bitsPerSample / 8;
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        out.put("RIFF".getBytes(StandardCharsets.US_ASCII));
+        out.putInt(36 + dataSize);
+        out.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+
+        out.put("fmt ".getBytes(StandardCharsets.US_ASCII));
+        out.putInt(16); // Subchunk1Size
+        out.putShort((short) FORMAT_PCM);
+        out.putShort((short) channels);
+        out.putInt(sampleRate);
+        out.putInt(byteRate);
+        out.putShort((short) blockAlign);
+        out.putShort((short) bitsPerSample);
+
+        out.put("data".getBytes(StandardCharsets.US_ASCII));
+        out.putInt(dataSize);
+        return out.array();
+    }
+
+    /*
+     * Reads the chunks of a WAV file up to the start of the sample data, the stream is left positioned there.
+     * Unknown chunks are skipped, the sample count is only known if the file has a fact chunk (-1 otherwise).
+     */
+    public static Info readHeader(InputStream in) throws IOException {
+        ByteBuffer riff = ByteBuffer.wrap(readFully(in, 12)).order(ByteOrder.LITTLE_ENDIAN);
+        if (!"RIFF".equals(fourCc(riff, 0)) || !"WAVE".equals(fourCc(riff, 8))) {
+            throw new IOException("Not a WAV file");
+        }
+        int formatTag = -1, channels = 0, sampleRate = 0, blockAlign = 0, bitsPerSample = 0, samplesPerBlock = 0;
+        long sampleCount = -1;
+        while (true) {
+            ByteBuffer chunk = ByteBuffer.wrap(readFully(in, 8)).order(ByteOrder.LITTLE_ENDIAN);
+            String id = fourCc(chunk, 0);
+            long size = Integer.toUnsignedLong(chunk.getInt(4));
+            if ("data".equals(id)) {
+                if (formatTag < 0) {
+                    throw new IOException("WAV data chunk before fmt chunk");
+                }
+                return new Info(formatTag, channels, sampleRate, blockAlign, bitsPerSample, samplesPerBlock, sampleCount, size);
+            }
+            // Chunks are padded to an even size
+            long padded = size + (size & 1);
+            if ("fmt ".equals(id) || "fact".equals(id)) {
+                ByteBuffer body = ByteBuffer.wrap(readFully(in, (int) padded)).order(ByteOrder.LITTLE_ENDIAN);
+                if ("fmt ".equals(id)) {
+                    formatTag = Short.toUnsignedInt(body.getShort(0));
+                    channels = Short.toUnsignedInt(body.getShort(2));
+                    sampleRate = body.getInt(4);
+                    blockAlign = Short.toUnsignedInt(body.getShort(12));
+                    bitsPerSample = Short.toUnsignedInt(body.getShort(14));
+                    if (size >= 20) {
+                        samplesPerBlock = Short.toUnsignedInt(body.getShort(18));
+                    }
+                } else {
+                    sampleCount = Integer.toUnsignedLong(body.getInt(0));
+                }
+            } else {
+                in.skipNBytes(padded);
+            }
+        }
+    }
+
+    private static byte[] readFully(InputStream in, int length) throws IOException {
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("Truncated WAV header");
+        }
+        return bytes;
+    }
+
+    private static String fourCc(ByteBuffer buffer, int offset) {
+        byte[] id = new byte[4];
+        buffer.get(offset, id);
+        return new String(id, StandardCharsets.US_ASCII);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Info {
+        private final int formatTag;
+        private final int channels;
+        private final int sampleRate;
+        private final int blockAlign;
+        private final int bitsPerSample;
+        private final int samplesPerBlock;
+        private final long sampleCount;
+        private final long dataSize;
+    }
+}
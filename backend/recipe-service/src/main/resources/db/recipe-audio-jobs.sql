@@ -0,0 +1,2 @@
+-- One audio job per (recipe, language, voice), see AudioJobService.submit.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_audio_job_recipe_language_voice ON audio_job (recipe_id, language, voice);
@@ -0,0 +1,6 @@
+-- One generated audio per (recipe, language, voice), see SpeechSynthService.getOrCreateAudio.
+-- Duplicates from concurrent generations are dropped before the index is built, the oldest row is kept.
+DELETE FROM recipe_audio a USING recipe_audio b
+WHERE a.recipe_id = b.recipe_id AND a.language = b.language AND a.voice = b.voice AND a.id > b.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_recipe_audio_recipe_language_voice ON recipe_audio (recipe_id, language, voice);
@@ -0,0 +1,5 @@
+-- Denormalized comment counts, see RecipeRepository.incrementCommentCount.
+-- Brings counts of recipes commented on before the column existed in line, a no-op once they match.
+UPDATE recipe r SET comment_count = c.cnt
+FROM (SELECT recipe_id, count(*) AS cnt FROM comment GROUP BY recipe_id) c
+WHERE r.id = c.recipe_id AND r.comment_count <> c.cnt;
@@ -0,0 +1,8 @@
+-- Ingredient lookups, see RecipeRepository.findByIngredientName.
+-- Runs after recipe-search.sql, which creates the pg_trgm extension.
+
+-- Element collection tables get no index on their join column by default
+CREATE INDEX IF NOT EXISTS idx_recipe_ingredients_recipe_id ON recipe_ingredients (recipe_id);
+
+-- Trigram index on the normalized ingredient name, serves LOWER(name) LIKE '%q%' without a scan
+CREATE INDEX IF NOT EXISTS idx_recipe_ingredients_name_trgm ON recipe_ingredients USING GIN (lower(name) gin_trgm_ops);
@@ -0,0 +1,6 @@
+-- One like per (recipe, user), see RecipeService.likeAndUnlike.
+-- Duplicates left behind by the old read-modify-write toggle are dropped before the index is built.
+DELETE FROM likes a USING likes b
+WHERE a.recipe_id = b.recipe_id AND a.user_id = b.user_id AND a.id > b.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_likes_recipe_user ON likes (recipe_id, user_id);
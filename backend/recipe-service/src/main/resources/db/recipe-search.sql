@@ -0,0 +1,22 @@
+-- Full-text search over recipe title, description and ingredient names.
+-- Runs after Hibernate has created/updated the tables, every statement is idempotent.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Ingredient names are denormalized into recipe.search_ingredients by the application,
+-- backfill rows that were created before the column existed
+UPDATE recipe r
+SET search_ingredients = coalesce((SELECT string_agg(i.name, ' ') FROM recipe_ingredients i WHERE i.recipe_id = r.id), '')
+WHERE r.search_ingredients IS NULL;
+
+ALTER TABLE recipe ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(search_ingredients, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'C')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_recipe_search_vector ON recipe USING GIN (search_vector);
+
+-- Trigram index for typo tolerant fallback, also serves the existing ILIKE '%q%' title filters
+CREATE INDEX IF NOT EXISTS idx_recipe_title_trgm ON recipe USING GIN (upper(title) gin_trgm_ops);
@@ -0,0 +1,5 @@
+-- Recipe ids come from recipe_seq (pooled, allocationSize 50) since recipes used to be IDENTITY keyed.
+-- Hibernate creates the sequence starting at 1, move it past the existing ids. Idempotent, a sequence
+-- that is already ahead is left alone.
+SELECT setval('recipe_seq', (SELECT max(id) FROM recipe) + 50)
+WHERE (SELECT max(id) FROM recipe) + 50 > (SELECT last_value FROM recipe_seq);
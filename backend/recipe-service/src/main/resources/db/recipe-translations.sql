@@ -0,0 +1,3 @@
+-- One translation per (recipe, recipe version, language), see TranslationService.translate.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_recipe_translation_recipe_version_language ON recipe_translation (recipe_id, recipe_version, language);
+CREATE INDEX IF NOT EXISTS idx_recipe_translation_recipe_language_hash ON recipe_translation (recipe_id, language, source_hash);
@@ -0,0 +1,66 @@
+package com.cooknect.recipe_service.config;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphQlConfigTest {
+
+    private static final int MAX_COMPLEXITY = 1000;
+
+    private GraphQL graphQl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        GraphQLSchema schema;
+        try (InputStream in = getClass().getResourceAsStream("/graphql/schema.graphqls")) {
+            schema = new SchemaGenerator().makeExecutableSchema(
+                    new SchemaParser().parse(new InputStreamReader(in, StandardCharsets.UTF_8)),
+                    RuntimeWiring.newRuntimeWiring().build());
+        }
+        graphQl = GraphQL.newGraphQL(schema)
+                .instrumentation(new MaxQueryComplexityInstrumentation(MAX_COMPLEXITY, GraphQlConfig.pageSizeComplexity()))
+                .build();
+    }
+
+    @Test
+    void smallPageWithCommentsIsAccepted() {
+        assertFalse(rejected("{ recipes(first: 5) { edges { node { comments { text } } } } }"));
+    }
+
+    @Test
+    void nullFirstIsCountedAsTheDefaultPageSize() {
+        assertTrue(rejected("{ recipes(first: null) { edges { node { comments { text } } } } }"));
+    }
+
+    @Test
+    void firstAboveTheCapIsClamped() {
+        // 1 + (1 + (1 + 1)) * 50, not * 1000000
+        assertFalse(rejected("{ recipes(first: 1000000) { edges { node { id } } } }"));
+    }
+
+    @Test
+    void listFieldsWithoutFirstAreCountedAtTheirCap() {
+        assertTrue(rejected("{ searchRecipes(title: \"soup\") { comments { text } } }"));
+        assertTrue(rejected("{ recipesByIngredient(name: \"rice\") { comments { text } } }"));
+    }
+
+    private boolean rejected(String query) {
+        ExecutionResult result = graphQl.execute(query);
+        return result.getErrors().stream()
+                .anyMatch(error -> error.getMessage().contains("maximum query complexity exceeded"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.cooknect.recipe_service.controller;
+
+import com.cooknect.recipe_service.model.Comment;
+import com.cooknect.recipe_service.model.Ingredient;
+import com.cooknect.recipe_service.model.Recipe;
+import com.cooknect.recipe_service.service.RecipeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RecipeGraphQlControllerTest {
+
+    private RecipeService svc;
+    private RecipeGraphQlController controller;
+
+    @BeforeEach
+    void setUp() {
+        svc = mock(RecipeService.class);
+        controller = new RecipeGraphQlController(svc);
+    }
+
+    @Test
+    void ingredientsOfAllRecipesAreLoadedWithOneCall() {
+        List<Recipe> recipes = List.of(recipe(1L, 10L), recipe(2L, 10L), recipe(3L, 11L));
+        when(svc.findIngredientsByRecipeIds(anyCollection())).thenReturn(Map.of(
+                1L, List.of(new Ingredient("rice", "1 cup")),
+                3L, List.of(new Ingredient("egg", "2"), new Ingredient("salt", "1 tsp"))));
+
+        Map<Recipe, List<Ingredient>> ingredients = controller.ingredients(recipes);
+
+        verify(svc, times(1)).findIngredientsByRecipeIds(List.of(1L, 2L, 3L));
+        assertEquals(1, ingredients.get(recipes.get(0)).size());
+        assertTrue(ingredients.get(recipes.get(1)).isEmpty());
+        assertEquals("salt", ingredients.get(recipes.get(2)).get(1).getName());
+    }
+
+    @Test
+    void commentsOfAllRecipesAreLoadedWithOneCall() {
+        List<Recipe> recipes = List.of(recipe(1L, 10L), recipe(2L, 10L));
+        Comment comment = new Comment();
+        comment.setRecipeId(2L);
+        comment.setText("Lovely");
+        when(svc.findCommentsByRecipeIds(anyCollection())).thenReturn(Map.of(2L, List.of(comment)));
+
+        Map<Recipe, List<Comment>> comments = controller.comments(recipes);
+
+        verify(svc, times(1)).findCommentsByRecipeIds(anyCollection());
+        assertTrue(comments.get(recipes.get(0)).isEmpty());
+        assertEquals("Lovely", comments.get(recipes.get(1)).get(0).getText());
+    }
+
+    @Test
+    void authorsAreResolvedWithOneUsernameLookup() {
+        List<Recipe> recipes = List.of(recipe(1L, 10L), recipe(2L, 10L), recipe(3L, 11L), recipe(4L, null));
+        when(svc.findUsernames(anyCollection())).thenReturn(Map.of(10L, "asha", 11L, "bruno"));
+
+        Map<Recipe, String> authors = controller.author(recipes);
+
+        verify(svc, times(1)).findUsernames(Set.of(10L, 11L));
+        assertEquals("asha", authors.get(recipes.get(1)));
+        assertEquals("bruno", authors.get(recipes.get(2)));
+        assertNull(authors.get(recipes.get(3)));
+    }
+
+    private Recipe recipe(Long id, Long userId) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setUserId(userId);
+        return recipe;
+    }
+}
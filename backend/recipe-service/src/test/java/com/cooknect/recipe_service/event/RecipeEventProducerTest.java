@@ -0,0 +1,205 @@
+package com.cooknect.recipe_service.event;
+
+import com.cooknect.common.events.RecipeEvent;
+import com.cooknect.recipe_service.service.RecipeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RecipeEventProducerTest {
+
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private RecipeService recipeService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        recipeService = mock(RecipeService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(recipeService.getUserContactsByIds(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> userIds = inv.getArgument(0);
+            return userIds.stream()
+                    // User 3 does not exist
+                    .filter(userId -> userId != 3L)
+                    .collect(Collectors.toMap(userId -> userId, userId -> Map.<String, Object>of(
+                            "email", "user" + userId + "@example.com",
+                            "fullName", "User " + userId)));
+        });
+    }
+
+    @Test
+    void publishDoesNotTouchUserServiceOrKafka() {
+        RecipeEventProducer producer = new RecipeEventProducer(kafkaTemplate, recipeService, meterRegistry, 10, 100, 10, 100);
+
+        producer.publish(1L, RecipeEventProducer.Type.RECIPE_LIKED);
+
+        verifyNoInteractions(recipeService, kafkaTemplate);
+        assertEquals(1.0, meterRegistry.get("recipe.events.queued").gauge().value());
+    }
+
+    @Test
+    void usersAreLookedUpWithOneCallPerBatch() {
+        acknowledgeSends();
+        RecipeEventProducer producer = new RecipeEventProducer(kafkaTemplate, recipeService, meterRegistry, 10, 100, 10, 100);
+
+        producer.publish(1L, RecipeEventProducer.Type.RECIPE_LIKED);
+        producer.publish(1L, RecipeEventProducer.Type.RECIPE_SAVED);
+        producer.publish(2L, RecipeEventProducer.Type.COMMENT_ADDED);
+        producer.publishPending();
+
+        verify(recipeService, times(1)).getUserContactsByIds(Set.of(1L, 2L));
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaTemplate, times(3)).send(eq("recipe-topic"), anyString(), events.capture());
+        RecipeEvent saved = (RecipeEvent) events.getAllValues().get(1);
+        assertEquals("user1@example.com", saved.getEmail());
+        assertEquals("Saved/Unsaved Recipe Successfully", saved.getMessageSubject());
+        assertEquals(3.0, meterRegistry.counter("recipe.events.published", "result", "sent").count());
+        assertEquals(3, meterRegistry.timer("recipe.events.publish.latency", "result", "sent").count());
+    }
+
+    @Test
+    void failedDeliveriesAreCounted() {
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        RecipeEventProducer producer = new RecipeEventProducer(kafkaTemplate, recipeService, meterRegistry, 10, 100, 10, 100);
+
+        producer.publish(1L, RecipeEventProducer.Type.RECIPE_CREATED);
+        producer.publishPending();
+
+        assertEquals(1.0, meterRegistry.counter("recipe.events.published", "result", "failed").count());
+        assertEquals(0.0, meterRegistry.counter("recipe.events.published", "result", "sent").count());
+    }
+
+    @Test
+    void unknownUsersAreSkipped() {
+        acknowledgeSends();
+        RecipeEventProducer producer = new RecipeEventProducer(kafkaTemplate, recipeService, meterRegistry, 10, 100, 10, 100);
+
+        producer.publish(3L, RecipeEventProducer.Type.RECIPE_DELETED);
+        producer.publish(1L, RecipeEventProducer.Type.RECIPE_DELETED);
+        producer.publishPending();
+
+        verify(kafkaTemplate, times(1)).send(anyString(), eq("1"), any());
+        assertEquals(1.0, meterRegistry.counter("recipe.events.published", "result", "unresolved").count());
+    }
+
+    @Test
+    void batchIsRetriedWhenTheUserLookupFails() {
+        acknowledgeSends();
+        Map<Long, Map<String, Object>> contacts = Map.of(
+                1L, Map.of("email", "user1@example.com"),
+                2L, Map.of("email", "user2@example.com"));
+        when(recipeService.getUserContactsByIds(anyCollection()))
+                .thenThrow(new RuntimeException("Read timed out"))
+                .thenReturn(contacts);
+        RecipeEventProducer producer = new RecipeEventProducer(kafkaTemplate, recipeService, meterRegistry, 10, 100, 10, 100);
+
+        producer.publish(1L, RecipeEventProducer.Type.RECIPE_LIKED);
+        producer.publish(2L, RecipeEventProducer.Type.RECIPE_LIKED);
+        producer.start();
+
+        verify(kafkaTemplate, timeout(5000).times(2)).send(eq("recipe-topic"), anyString(), any());
+        producer.stop();
+        verify(recipeService, times(2)).getUserContactsByIds(Set.of(1L, 2L));
+        assertEquals(0.0, meterRegistry.counter("recipe.events.published", "result", "unresolved").count());
+        assertEquals(0.0, meterRegistry.counter("recipe.events.published", "result", "dropped").count());
+    }
+
+    @Test
+    void finalDrainDropsABatchWhoseUsersCannotBeLookedUp() {
+        when(recipeService.getUserContactsByIds(anyCollection())).thenThrow(new RuntimeException("Read timed out"));
+        RecipeEventProducer producer = new RecipeEventProducer(kafkaTemplate, recipeService, meterRegistry, 10, 100, 10, 100);
+
+        producer.publish(1L, RecipeEventProducer.Type.RECIPE_LIKED);
+        producer.publish(2L, RecipeEventProducer.Type.RECIPE_LIKED);
+        producer.publishPending();
+
+        verifyNoInteractions(kafkaTemplate);
+        assertEquals(2.0, meterRegistry.counter("recipe.events.published", "result", "dropped").count());
+        assertEquals(0.0, meterRegistry.counter("recipe.events.published", "result", "unresolved").count());
+    }
+
+    @Test
+    void retryDelayDoublesUpToTheMaximum() {
+        RecipeEventProducer producer = new RecipeEventProducer(kafkaTemplate, recipeService, meterRegistry, 10, 100, 1000, 5000);
+
+        assertEquals(1000, producer.retryDelayMillis(1));
+        assertEquals(2000, producer.retryDelayMillis(2));
+        assertEquals(4000, producer.retryDelayMillis(3));
+        assertEquals(5000, producer.retryDelayMillis(4));
+    }
+
+    @Test
+    void stopWaitsForTheRunningBatchBeforeTheFinalDrain() throws InterruptedException {
+        acknowledgeSends();
+        CountDownLatch lookupStarted = new CountDownLatch(1);
+        CountDownLatch releaseLookup = new CountDownLatch(1);
+        Set<String> lookupThreads = ConcurrentHashMap.newKeySet();
+        when(recipeService.getUserContactsByIds(anyCollection())).thenAnswer(inv -> {
+            lookupThreads.add(Thread.currentThread().getName());
+            lookupStarted.countDown();
+            // A slow user-service call that ignores the interrupt, like a blocking socket read
+            while (true) {
+                try {
+                    releaseLookup.await();
+                    break;
+                } catch (InterruptedException ignored) {
+                    // keep waiting
+                }
+            }
+            Collection<Long> userIds = inv.getArgument(0);
+            return userIds.stream().collect(Collectors.toMap(userId -> userId,
+                    userId -> Map.<String, Object>of("email", "user" + userId + "@example.com")));
+        });
+        RecipeEventProducer producer = new RecipeEventProducer(kafkaTemplate, recipeService, meterRegistry, 10, 100, 10, 100);
+        producer.start();
+        producer.publish(1L, RecipeEventProducer.Type.RECIPE_LIKED);
+        assertTrue(lookupStarted.await(5, TimeUnit.SECONDS));
+        producer.publish(2L, RecipeEventProducer.Type.RECIPE_SAVED);
+
+        Thread stopper = new Thread(producer::stop);
+        stopper.start();
+        Thread.sleep(100);
+        // The final drain has not started while the publisher is still busy with its batch
+        assertEquals(Set.of("recipe-event-publisher"), lookupThreads);
+        releaseLookup.countDown();
+        stopper.join(5000);
+
+        assertFalse(stopper.isAlive());
+        verify(kafkaTemplate, times(2)).send(eq("recipe-topic"), anyString(), any());
+    }
+
+    @Test
+    void fullQueueDropsInsteadOfBlocking() {
+        RecipeEventProducer producer = new RecipeEventProducer(kafkaTemplate, recipeService, meterRegistry, 2, 100, 10, 100);
+
+        for (int i = 0; i < 5; i++) {
+            producer.publish(1L, RecipeEventProducer.Type.RECIPE_LIKED);
+        }
+
+        assertEquals(3.0, meterRegistry.counter("recipe.events.published", "result", "dropped").count());
+    }
+
+    private void acknowledgeSends() {
+        doReturn(CompletableFuture.completedFuture(mock(SendResult.class)))
+                .when(kafkaTemplate).send(anyString(), anyString(), any());
+    }
+}
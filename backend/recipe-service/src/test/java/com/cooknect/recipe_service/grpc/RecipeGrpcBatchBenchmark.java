@@ -0,0 +1,123 @@
+package com.cooknect.recipe_service.grpc;
+
+import com.cooknect.recipe_service.model.Ingredient;
+import com.cooknect.recipe_service.model.Recipe;
+import com.cooknect.recipe_service.repository.CommentRepository;
+import com.cooknect.recipe_service.repository.RecipeRepository;
+import com.recipe.GetRecipeByIdRequest;
+import com.recipe.GetRecipesByIdsRequest;
+import com.recipe.GetRecipesByIdsResponse;
+import com.recipe.RecipeResponse;
+import com.recipe.RecipeServiceGrpc;
+import com.recipe.RecipeView;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+ * N GetRecipeById calls versus one GetRecipesByIds call for the same N recipes, over a real (loopback) Netty channel.
+ * The repository answers after dbRoundTripMicros, standing in for the query round trip each call costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipeGrpcBatchBenchmark {
+
+    @Param({"50"})
+    private int recipes;
+
+    @Param({"0", "300"})
+    private long dbRoundTripMicros;
+
+    private Server server;
+    private ManagedChannel channel;
+    private RecipeServiceGrpc.RecipeServiceBlockingStub stub;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        RecipeRepository recipeRepository = mock(RecipeRepository.class);
+        when(recipeRepository.findAllWithIngredientsByIdIn(anyCollection())).thenAnswer(inv -> {
+            LockSupport.parkNanos(dbRoundTripMicros * 1000);
+            Collection<Long> requested = inv.getArgument(0);
+            return requested.stream().map(RecipeGrpcBatchBenchmark::recipe).toList();
+        });
+        RecipeGrpcServiceImpl service = new RecipeGrpcServiceImpl(recipeRepository, mock(CommentRepository.class),
+                mock(PlatformTransactionManager.class));
+
+        server = Grpc.newServerBuilderForPort(0, InsecureServerCredentials.create())
+                .addService(service)
+                .build()
+                .start();
+        channel = Grpc.newChannelBuilder("localhost:" + server.getPort(), InsecureChannelCredentials.create()).build();
+        stub = RecipeServiceGrpc.newBlockingStub(channel);
+        ids = LongStream.rangeClosed(1, recipes).boxed().toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public List<RecipeResponse> unaryCalls() {
+        List<RecipeResponse> responses = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            responses.add(stub.getRecipeById(GetRecipeByIdRequest.newBuilder()
+                    .setRecipeId(id)
+                    .setView(RecipeView.RECIPE_VIEW_WITH_INGREDIENTS)
+                    .build()));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public GetRecipesByIdsResponse batchCall() {
+        return stub.getRecipesByIds(GetRecipesByIdsRequest.newBuilder()
+                .addAllRecipeIds(ids)
+                .setView(RecipeView.RECIPE_VIEW_WITH_INGREDIENTS)
+                .build());
+    }
+
+    private static Recipe recipe(Long id) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setTitle("Recipe " + id);
+        recipe.setDescription("Description " + id);
+        recipe.setUserId(1L);
+        recipe.setIngredients(List.of(new Ingredient("rice", "1 cup"), new Ingredient("salt", "1 tsp")));
+        return recipe;
+    }
+}
@@ -0,0 +1,217 @@
+package com.cooknect.recipe_service.grpc;
+
+import com.cooknect.recipe_service.dto.RecipeSummary;
+import com.cooknect.recipe_service.model.Comment;
+import com.cooknect.recipe_service.model.Ingredient;
+import com.cooknect.recipe_service.model.Recipe;
+import com.cooknect.recipe_service.repository.CommentRepository;
+import com.cooknect.recipe_service.repository.RecipeRepository;
+import com.recipe.GetRecipeByIdRequest;
+import com.recipe.GetRecipesByIdsRequest;
+import com.recipe.GetRecipesByIdsResponse;
+import com.recipe.RecipeResponse;
+import com.recipe.RecipeView;
+import com.recipe.StreamRecipesRequest;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RecipeGrpcServiceImplTest {
+
+    private RecipeRepository recipeRepository;
+    private CommentRepository commentRepository;
+    private RecipeGrpcServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        recipeRepository = mock(RecipeRepository.class);
+        commentRepository = mock(CommentRepository.class);
+        // Only ids below 1000 exist
+        when(recipeRepository.findAllWithIngredientsByIdIn(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().filter(id -> id < 1000).map(RecipeGrpcServiceImplTest::recipe).toList();
+        });
+        when(commentRepository.findByRecipeIdInOrderByIdAsc(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().map(id -> new Comment(id, "cook", "nice " + id, Instant.now(), id)).toList();
+        });
+        when(recipeRepository.findSummariesByIdIn(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().filter(id -> id < 1000).map(RecipeGrpcServiceImplTest::summary).toList();
+        });
+        when(recipeRepository.findById(anyLong())).thenAnswer(inv -> {
+            Long id = inv.getArgument(0);
+            Recipe recipe = recipe(id);
+            recipe.setComments(List.of(new Comment(id, "cook", "nice " + id, Instant.now(), id)));
+            return Optional.of(recipe);
+        });
+        service = new RecipeGrpcServiceImpl(recipeRepository, commentRepository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void batchLoadsAllRecipesWithOneQuery() {
+        Collector<GetRecipesByIdsResponse> observer = new Collector<>();
+        service.getRecipesByIds(GetRecipesByIdsRequest.newBuilder()
+                .addAllRecipeIds(LongStream.rangeClosed(1, 50).boxed().toList())
+                .addRecipeIds(5000L)
+                .build(), observer);
+
+        GetRecipesByIdsResponse response = observer.single();
+        assertEquals(50, response.getRecipesCount());
+        assertFalse(response.containsRecipes(5000L));
+        assertEquals("Recipe 7", response.getRecipesOrThrow(7L).getTitle());
+        assertEquals("nice 7", response.getRecipesOrThrow(7L).getComments(0).getText());
+        verify(recipeRepository, times(1)).findAllWithIngredientsByIdIn(anyCollection());
+        verify(commentRepository, times(1)).findByRecipeIdInOrderByIdAsc(anyCollection());
+        verify(recipeRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void largeBatchesAreSplitIntoBoundedQueries() {
+        Collector<GetRecipesByIdsResponse> observer = new Collector<>();
+        service.getRecipesByIds(GetRecipesByIdsRequest.newBuilder()
+                .addAllRecipeIds(LongStream.range(0, RecipeGrpcServiceImpl.MAX_IDS_PER_QUERY + 1).boxed().toList())
+                .build(), observer);
+
+        verify(recipeRepository, times(2)).findAllWithIngredientsByIdIn(anyCollection());
+    }
+
+    @Test
+    void streamFollowsRequestOrderAndSkipsMissingIds() {
+        Collector<RecipeResponse> observer = new Collector<>();
+        service.streamRecipes(StreamRecipesRequest.newBuilder()
+                .addAllRecipeIds(List.of(30L, 5000L, 10L, 20L, 10L))
+                .build(), observer);
+
+        assertTrue(observer.completed);
+        assertEquals(List.of(30L, 10L, 20L), observer.values.stream().map(RecipeResponse::getId).toList());
+    }
+
+    @Test
+    void defaultViewStillReturnsComments() {
+        Collector<RecipeResponse> observer = new Collector<>();
+        service.getRecipeById(GetRecipeByIdRequest.newBuilder().setRecipeId(7L).build(), observer);
+
+        RecipeResponse response = observer.single();
+        assertEquals(1, response.getIngredientsCount());
+        assertEquals("nice 7", response.getComments(0).getText());
+    }
+
+    @Test
+    void ingredientsViewDoesNotLoadComments() {
+        Collector<RecipeResponse> observer = new Collector<>();
+        service.getRecipeById(GetRecipeByIdRequest.newBuilder()
+                .setRecipeId(7L)
+                .setView(RecipeView.RECIPE_VIEW_WITH_INGREDIENTS)
+                .build(), observer);
+
+        RecipeResponse response = observer.single();
+        assertEquals("Recipe 7", response.getTitle());
+        assertEquals("rice", response.getIngredients(0).getName());
+        assertEquals(0, response.getCommentsCount());
+        verify(recipeRepository, never()).findById(anyLong());
+        verify(commentRepository, never()).findByRecipeIdInOrderByIdAsc(anyCollection());
+    }
+
+    @Test
+    void summaryViewOnlyReadsTheProjection() {
+        Collector<RecipeResponse> summaryObserver = new Collector<>();
+        service.getRecipeById(GetRecipeByIdRequest.newBuilder()
+                .setRecipeId(7L)
+                .setView(RecipeView.RECIPE_VIEW_SUMMARY)
+                .build(), summaryObserver);
+        Collector<RecipeResponse> fullObserver = new Collector<>();
+        service.getRecipeById(GetRecipeByIdRequest.newBuilder().setRecipeId(7L).build(), fullObserver);
+
+        RecipeResponse summary = summaryObserver.single();
+        assertEquals(7L, summary.getId());
+        assertEquals(1L, summary.getUserId());
+        assertEquals(12, summary.getLikes());
+        assertEquals(0, summary.getIngredientsCount());
+        assertTrue(summary.getSerializedSize() < fullObserver.single().getSerializedSize());
+        verify(recipeRepository, never()).findAllWithIngredientsByIdIn(anyCollection());
+        verify(commentRepository, never()).findByRecipeIdInOrderByIdAsc(anyCollection());
+    }
+
+    @Test
+    void missingRecipeInNarrowViewIsTheDefaultInstance() {
+        Collector<RecipeResponse> observer = new Collector<>();
+        service.getRecipeById(GetRecipeByIdRequest.newBuilder()
+                .setRecipeId(5000L)
+                .setView(RecipeView.RECIPE_VIEW_SUMMARY)
+                .build(), observer);
+
+        assertEquals(0L, observer.single().getId());
+    }
+
+    @Test
+    void batchViewAppliesToEveryRecipe() {
+        Collector<GetRecipesByIdsResponse> observer = new Collector<>();
+        service.getRecipesByIds(GetRecipesByIdsRequest.newBuilder()
+                .addAllRecipeIds(List.of(1L, 2L, 3L))
+                .setView(RecipeView.RECIPE_VIEW_WITH_INGREDIENTS)
+                .build(), observer);
+
+        GetRecipesByIdsResponse response = observer.single();
+        assertEquals(3, response.getRecipesCount());
+        response.getRecipesMap().values().forEach(r -> assertEquals(0, r.getCommentsCount()));
+        verify(commentRepository, never()).findByRecipeIdInOrderByIdAsc(anyCollection());
+    }
+
+    private static RecipeSummary summary(Long id) {
+        RecipeSummary summary = mock(RecipeSummary.class);
+        when(summary.getId()).thenReturn(id);
+        when(summary.getTitle()).thenReturn("Recipe " + id);
+        when(summary.getLikes()).thenReturn(12);
+        when(summary.getUserId()).thenReturn(1L);
+        return summary;
+    }
+
+    private static Recipe recipe(Long id) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setTitle("Recipe " + id);
+        recipe.setDescription("Description " + id);
+        recipe.setUserId(1L);
+        recipe.setIngredients(List.of(new Ingredient("rice", "1 cup")));
+        return recipe;
+    }
+
+    private static class Collector<T> implements StreamObserver<T> {
+        private final List<T> values = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public void onNext(T value) {
+            values.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            fail(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            completed = true;
+        }
+
+        T single() {
+            assertTrue(completed);
+            assertEquals(1, values.size());
+            return values.get(0);
+        }
+    }
+}
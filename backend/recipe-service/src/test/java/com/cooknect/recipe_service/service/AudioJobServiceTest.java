@@ -0,0 +1,87 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.model.AudioJob;
+import com.cooknect.recipe_service.repository.AudioJobRepository;
+import com.cooknect.recipe_service.repository.RecipeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AudioJobServiceTest {
+
+    private AudioJobRepository jobRepository;
+    private RecipeRepository recipeRepository;
+    private SpeechSynthService speechSynth;
+    private JdbcTemplate jdbc;
+    private AudioJobService service;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(AudioJobRepository.class);
+        recipeRepository = mock(RecipeRepository.class);
+        speechSynth = mock(SpeechSynthService.class);
+        jdbc = mock(JdbcTemplate.class);
+        service = new AudioJobService(jobRepository, recipeRepository, speechSynth, jdbc, new SimpleMeterRegistry(),
+                1, 1000, 50, 600, 5, 1000, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void retryDelayDoublesUpToTheMaximum() {
+        assertEquals(1000, service.retryDelayMillis(1));
+        assertEquals(2000, service.retryDelayMillis(2));
+        assertEquals(4000, service.retryDelayMillis(3));
+        assertEquals(5000, service.retryDelayMillis(4));
+        assertEquals(5000, service.retryDelayMillis(100));
+    }
+
+    @Test
+    void failedAttemptIsQueuedAgainWithItsBackoff() {
+        AudioJob job = new AudioJob();
+        job.setId(7L);
+        job.setRecipeId(1L);
+        job.setLanguage("en");
+        job.setVoice(SpeechSynthService.DEFAULT_VOICE);
+        job.setAttempts(2);
+        when(jdbc.query(contains("SET status = 'RUNNING'"), ArgumentMatchers.<RowMapper<Long>>any()))
+                .thenReturn(List.of(7L))
+                .thenReturn(List.of());
+        when(jobRepository.findById(7L)).thenReturn(Optional.of(job));
+        when(recipeRepository.existsById(1L)).thenReturn(true);
+        when(speechSynth.getOrCreateAudio(anyLong(), anyString(), anyString()))
+                .thenThrow(new IllegalStateException("TTS quota exceeded"));
+
+        service.start();
+
+        verify(jdbc, timeout(5000)).update(contains("next_attempt_at = now() + ?"),
+                eq("QUEUED"), eq("TTS quota exceeded"), eq(2000L), eq(7L));
+        // Only jobs whose backoff has passed are claimed
+        verify(jdbc, atLeastOnce()).query(contains("next_attempt_at <= now()"), ArgumentMatchers.<RowMapper<Long>>any());
+    }
+
+    @Test
+    void staleJobsOutOfAttemptsAreFailedInsteadOfQueued() {
+        when(jdbc.query(contains("WHERE status = 'RUNNING' AND started_at < ?"), ArgumentMatchers.<RowMapper<String>>any(),
+                eq(5), eq(5), any())).thenReturn(List.of("QUEUED", "FAILED"));
+
+        service.recoverStaleJobs();
+
+        verify(jdbc).query(contains("CASE WHEN attempts < ? THEN 'QUEUED' ELSE 'FAILED' END"),
+                ArgumentMatchers.<RowMapper<String>>any(), eq(5), eq(5), any());
+    }
+}
@@ -0,0 +1,93 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.event.RecipeChangedEvent;
+import com.cooknect.recipe_service.model.Cuisine;
+import com.cooknect.recipe_service.model.Recipe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * A personalized feed page merged from the per-cuisine lists versus filtering all recipes of the user's cuisines
+ * and sorting them, once for the first page and once for a page in the middle of the feed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CuisineFeedIndexBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final Set<Cuisine> PREFERRED = EnumSet.of(Cuisine.INDIAN, Cuisine.ITALIAN, Cuisine.MEXICAN);
+
+    @Param({"10000", "100000"})
+    private int recipes;
+
+    @Param({"first", "middle"})
+    private String page;
+
+    private CuisineFeedIndex index;
+    private long[] ids;
+    private Cuisine[] cuisines;
+    private Long afterId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        Cuisine[] values = Cuisine.values();
+        index = new CuisineFeedIndex(null, recipes);
+        ids = new long[recipes];
+        cuisines = new Cuisine[recipes];
+        for (int i = 0; i < recipes; i++) {
+            Recipe recipe = new Recipe();
+            recipe.setId((long) i + 1);
+            recipe.setCuisine(values[random.nextInt(values.length)]);
+            index.onRecipeChanged(new RecipeChangedEvent(RecipeChangedEvent.Type.CREATED, recipe.getId(), recipe));
+            ids[i] = recipe.getId();
+            cuisines[i] = recipe.getCuisine();
+        }
+        afterId = "first".equals(page) ? null : (long) recipes / 2;
+    }
+
+    @Benchmark
+    public List<Long> kWayMerge() {
+        return index.page(PREFERRED, afterId, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public long[] filterAndSort() {
+        long before = afterId == null ? Long.MAX_VALUE : afterId;
+        long[] matching = new long[ids.length];
+        int count = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] < before && PREFERRED.contains(cuisines[i])) {
+                matching[count++] = ids[i];
+            }
+        }
+        Arrays.sort(matching, 0, count);
+        // Newest first
+        long[] page = new long[Math.min(PAGE_SIZE, count)];
+        for (int i = 0; i < page.length; i++) {
+            page[i] = matching[count - 1 - i];
+        }
+        return page;
+    }
+}
@@ -0,0 +1,123 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.event.RecipeChangedEvent;
+import com.cooknect.recipe_service.model.Cuisine;
+import com.cooknect.recipe_service.model.Recipe;
+import com.cooknect.recipe_service.repository.RecipeRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CuisineFeedIndexTest {
+
+    @Test
+    void mergesPreferredCuisinesNewestFirst() {
+        CuisineFeedIndex index = new CuisineFeedIndex(mock(RecipeRepository.class), 100);
+        created(index, 1L, Cuisine.ITALIAN);
+        created(index, 2L, Cuisine.INDIAN);
+        created(index, 3L, Cuisine.MEXICAN);
+        created(index, 4L, Cuisine.ITALIAN);
+        created(index, 5L, Cuisine.INDIAN);
+
+        assertEquals(List.of(5L, 4L, 2L, 1L), index.page(Set.of(Cuisine.ITALIAN, Cuisine.INDIAN), null, 10));
+        assertEquals(List.of(2L, 1L), index.page(Set.of(Cuisine.ITALIAN, Cuisine.INDIAN), 4L, 10));
+        assertEquals(List.of(5L, 4L, 3L), index.page(Set.of(), null, 3));
+    }
+
+    @Test
+    void pagesMatchAFullSortOfTheSameRecipes() {
+        CuisineFeedIndex index = new CuisineFeedIndex(mock(RecipeRepository.class), 100_000);
+        Random random = new Random(42);
+        Map<Long, Cuisine> all = new HashMap<>();
+        for (long id = 1; id <= 5000; id++) {
+            Cuisine cuisine = Cuisine.values()[random.nextInt(Cuisine.values().length)];
+            all.put(id, cuisine);
+            created(index, id, cuisine);
+        }
+        Set<Cuisine> preferred = EnumSet.of(Cuisine.CHINESE, Cuisine.AMERICAN, Cuisine.OTHER);
+
+        List<Long> expected = all.entrySet().stream()
+                .filter(e -> preferred.contains(e.getValue()))
+                .map(Map.Entry::getKey)
+                .sorted(Comparator.reverseOrder())
+                .toList();
+        List<Long> paged = new ArrayList<>();
+        Long after = null;
+        List<Long> page;
+        while (!(page = index.page(preferred, after, 20)).isEmpty()) {
+            paged.addAll(page);
+            after = page.get(page.size() - 1);
+        }
+
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    void updatesMoveRecipesBetweenCuisinesAndDeletesRemoveThem() {
+        CuisineFeedIndex index = new CuisineFeedIndex(mock(RecipeRepository.class), 100);
+        created(index, 1L, Cuisine.ITALIAN);
+        created(index, 2L, Cuisine.ITALIAN);
+
+        index.onRecipeChanged(new RecipeChangedEvent(RecipeChangedEvent.Type.UPDATED, 1L, recipe(1L, Cuisine.MEXICAN)));
+        index.onRecipeChanged(new RecipeChangedEvent(RecipeChangedEvent.Type.DELETED, 2L, null));
+
+        assertEquals(List.of(), index.page(Set.of(Cuisine.ITALIAN), null, 10));
+        assertEquals(List.of(1L), index.page(Set.of(Cuisine.MEXICAN), null, 10));
+        assertEquals(0, index.size(Cuisine.ITALIAN));
+    }
+
+    @Test
+    void resyncAppliesChangesMadeByOtherInstances() {
+        RecipeRepository repo = mock(RecipeRepository.class);
+        CuisineFeedIndex index = new CuisineFeedIndex(repo, 100);
+        when(repo.streamIdsAndCuisines()).thenReturn(Stream.of(
+                new Object[]{1L, Cuisine.ITALIAN}, new Object[]{2L, Cuisine.ITALIAN}, new Object[]{3L, Cuisine.INDIAN}));
+        index.rebuild();
+        // Elsewhere: 1 moved to Mexican, 4 created, 2 deleted. 5 was created here while the id scan ran.
+        created(index, 5L, Cuisine.INDIAN);
+        when(repo.findIdsAndCuisinesUpdatedSince(any())).thenReturn(List.of(
+                new Object[]{1L, Cuisine.MEXICAN}, new Object[]{4L, Cuisine.ITALIAN}));
+        when(repo.streamIds()).thenReturn(Stream.of(1L, 3L, 4L));
+        when(repo.findExistingIds(anyCollection())).thenReturn(List.of(5L));
+
+        index.resync();
+
+        assertEquals(List.of(4L), index.page(Set.of(Cuisine.ITALIAN), null, 10));
+        assertEquals(List.of(1L), index.page(Set.of(Cuisine.MEXICAN), null, 10));
+        assertEquals(List.of(5L, 3L), index.page(Set.of(Cuisine.INDIAN), null, 10));
+    }
+
+    @Test
+    void listsKeepOnlyTheNewestRecipes() {
+        CuisineFeedIndex index = new CuisineFeedIndex(mock(RecipeRepository.class), 3);
+        for (long id = 1; id <= 10; id++) {
+            created(index, id, Cuisine.INDIAN);
+        }
+
+        assertEquals(3, index.size(Cuisine.INDIAN));
+        assertEquals(List.of(10L, 9L, 8L), index.page(Set.of(Cuisine.INDIAN), null, 10));
+    }
+
+    private static void created(CuisineFeedIndex index, Long id, Cuisine cuisine) {
+        index.onRecipeChanged(new RecipeChangedEvent(RecipeChangedEvent.Type.CREATED, id, recipe(id, cuisine)));
+    }
+
+    private static Recipe recipe(Long id, Cuisine cuisine) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setCuisine(cuisine);
+        return recipe;
+    }
+}
@@ -0,0 +1,167 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.exception.NotFoundException;
+import com.cooknect.recipe_service.model.Comment;
+import com.cooknect.recipe_service.model.Cuisine;
+import com.cooknect.recipe_service.model.Recipe;
+import com.cooknect.recipe_service.repository.CommentRepository;
+import com.cooknect.recipe_service.repository.RecipeLikeRepository;
+import com.cooknect.recipe_service.repository.RecipeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Hammers one recipe with concurrent like toggles. Runs against a throwaway Postgres container, never the
+ * configured database, and is skipped where Docker is not available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class LikeToggleConcurrencyTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final int USERS = 64;
+    private static final int TOGGLES_PER_USER = 7;
+
+    @Autowired
+    private RecipeService service;
+    @Autowired
+    private RecipeRepository repo;
+    @Autowired
+    private RecipeLikeRepository likeRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private Long recipeId;
+
+    @BeforeEach
+    void setUp() {
+        Recipe recipe = new Recipe();
+        recipe.setTitle("like-stress-" + System.nanoTime());
+        recipe.setCuisine(Cuisine.OTHER);
+        recipe.setUserId(-1L);
+        recipeId = repo.save(recipe).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        List<Long> userIds = LongStream.rangeClosed(1, USERS).boxed().toList();
+        for (Long userId : userIds) {
+            likeRepository.getByRecipeIdAndUserId(recipeId, userId).ifPresent(likeRepository::delete);
+        }
+        commentRepository.deleteAll(commentRepository.findByRecipeIdInOrderByIdAsc(List.of(recipeId)));
+        repo.deleteById(recipeId);
+    }
+
+    @Test
+    void counterMatchesLikeRowsUnderConcurrentToggles() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (long userId = 1; userId <= USERS; userId++) {
+                long user = userId;
+                // Every user toggles an odd number of times, two threads per user race each other
+                for (int t = 0; t < 2; t++) {
+                    int toggles = t == 0 ? TOGGLES_PER_USER : TOGGLES_PER_USER - 1;
+                    futures.add(pool.submit((Callable<Void>) () -> {
+                        start.await();
+                        for (int i = 0; i < toggles; i++) {
+                            service.likeAndUnlike(recipeId, user);
+                        }
+                        return null;
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Set<Long> likedBy = LongStream.rangeClosed(1, USERS).boxed()
+                .filter(userId -> likeRepository.getByRecipeIdAndUserId(recipeId, userId).isPresent())
+                .collect(Collectors.toSet());
+        int likes = repo.findById(recipeId).orElseThrow().getLikes();
+
+        assertEquals(likedBy.size(), likes);
+        assertTrue(likes >= 0);
+    }
+
+    @Test
+    void likeDuringPatchSurvivesTheSave() {
+        // What patchUpdate loaded before a like committed
+        Recipe stale = repo.findById(recipeId).orElseThrow();
+        service.likeAndUnlike(recipeId, 1L);
+
+        String title = "patched-" + System.nanoTime();
+        stale.setTitle(title);
+        repo.save(stale);
+
+        Recipe saved = repo.findById(recipeId).orElseThrow();
+        assertEquals(title, saved.getTitle());
+        assertEquals(1, saved.getLikes());
+    }
+
+    @Test
+    void commentDuringPatchDoesNotFailTheSave() {
+        // What patchUpdate loaded before a comment committed
+        Recipe stale = repo.findById(recipeId).orElseThrow();
+        Comment comment = new Comment();
+        comment.setAuthor("commenter");
+        comment.setText("Lovely");
+        service.addComment(recipeId, comment);
+
+        String title = "patched-" + System.nanoTime();
+        stale.setTitle(title);
+        repo.save(stale);
+
+        Recipe saved = repo.findById(recipeId).orElseThrow();
+        assertEquals(title, saved.getTitle());
+        assertEquals(1, saved.getCommentCount());
+    }
+
+    @Test
+    void patchKeepsTheLikeCounter() {
+        service.likeAndUnlike(recipeId, 1L);
+        service.likeAndUnlike(recipeId, 2L);
+
+        Recipe updates = new Recipe();
+        updates.setTitle("patched-" + System.nanoTime());
+        service.patchUpdate(recipeId, updates, -1L);
+
+        assertEquals(2, repo.findById(recipeId).orElseThrow().getLikes());
+    }
+
+    @Test
+    void toggleOnMissingRecipeLeavesNoLikeBehind() {
+        Long missing = Long.MAX_VALUE;
+        assertThrows(NotFoundException.class,
+                () -> service.likeAndUnlike(missing, 1L));
+        assertTrue(likeRepository.getByRecipeIdAndUserId(missing, 1L).isEmpty());
+    }
+}
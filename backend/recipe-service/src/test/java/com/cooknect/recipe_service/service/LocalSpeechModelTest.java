@@ -0,0 +1,39 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.utils.WavFormat;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalSpeechModelTest {
+
+    private final LocalSpeechModel model = new LocalSpeechModel(0);
+
+    @Test
+    void producesAValidWavFile() {
+        byte[] wav = model.synthesize("Boil the pasta", "Kore");
+
+        ByteBuffer header = ByteBuffer.wrap(wav).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals("RIFF", new String(wav, 0, 4, StandardCharsets.US_ASCII));
+        assertEquals("WAVE", new String(wav, 8, 4, StandardCharsets.US_ASCII));
+        assertEquals(wav.length - 8, header.getInt(4));
+        assertEquals(24000, header.getInt(24));
+        assertEquals(wav.length - WavFormat.HEADER_SIZE, header.getInt(40));
+    }
+
+    @Test
+    void outputIsDeterministicAndGrowsWithTheText() {
+        assertArrayEquals(model.synthesize("Boil the pasta", "Kore"), model.synthesize("Boil the pasta", "Kore"));
+        assertTrue(model.synthesize("Boil the pasta for ten minutes", "Kore").length
+                > model.synthesize("Boil the pasta", "Kore").length);
+    }
+
+    @Test
+    void translationKeepsTheText() {
+        assertEquals("[hi] Boil the pasta", model.translate("Boil the pasta", "hi"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.model.Ingredient;
+import com.cooknect.recipe_service.model.Recipe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Pantry search over the ingredient bitmaps versus scanning every recipe's ingredient list,
+ * which is what a query without the index has to do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PantryIndexBenchmark {
+
+    private static final int VOCABULARY = 500;
+    private static final int INGREDIENTS_PER_RECIPE = 8;
+    private static final int PANTRY_SIZE = 10;
+    private static final int MIN_MATCHED = 2;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "100000"})
+    private int recipes;
+
+    private PantryIndex index;
+    private List<String[]> recipeIngredients;
+    private List<String> pantry;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        index = new PantryIndex(null);
+        recipeIngredients = new ArrayList<>(recipes);
+        for (long id = 1; id <= recipes; id++) {
+            Set<String> names = new HashSet<>();
+            while (names.size() < INGREDIENTS_PER_RECIPE) {
+                names.add(ingredient(random));
+            }
+            Recipe recipe = new Recipe();
+            recipe.setId(id);
+            recipe.setIngredients(names.stream().map(name -> new Ingredient(name, "1")).toList());
+            index.upsert(recipe);
+            recipeIngredients.add(names.toArray(String[]::new));
+        }
+
+        Set<String> names = new HashSet<>();
+        while (names.size() < PANTRY_SIZE) {
+            names.add(ingredient(random));
+        }
+        pantry = List.copyOf(names);
+    }
+
+    @Benchmark
+    public PantryIndex.PantryResult bitmapIndex() {
+        return index.search(pantry, List.of(), MIN_MATCHED, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<long[]> fullScan() {
+        Set<String> available = new HashSet<>(pantry);
+        // [id, matched, coverage in per mille], the worst of the kept matches on top
+        Comparator<long[]> ranking = Comparator.<long[]>comparingLong(m -> m[2])
+                .thenComparingLong(m -> m[1])
+                .thenComparing(Comparator.<long[]>comparingLong(m -> m[0]).reversed());
+        PriorityQueue<long[]> best = new PriorityQueue<>(PAGE_SIZE + 1, ranking);
+        for (int i = 0; i < recipeIngredients.size(); i++) {
+            String[] ingredients = recipeIngredients.get(i);
+            int matched = 0;
+            for (String ingredient : ingredients) {
+                if (available.contains(ingredient)) {
+                    matched++;
+                }
+            }
+            if (matched < MIN_MATCHED) {
+                continue;
+            }
+            best.add(new long[]{i + 1, matched, 1000L * matched / ingredients.length});
+            if (best.size() > PAGE_SIZE) {
+                best.poll();
+            }
+        }
+        List<long[]> page = new ArrayList<>(best);
+        page.sort(ranking.reversed());
+        return page;
+    }
+
+    private static String ingredient(Random random) {
+        // Skewed towards the first names, like salt and onion in real recipes
+        int n = (int) (VOCABULARY * Math.pow(random.nextDouble(), 2));
+        return "ingredient" + n;
+    }
+}
@@ -0,0 +1,108 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.event.RecipeChangedEvent;
+import com.cooknect.recipe_service.model.Ingredient;
+import com.cooknect.recipe_service.model.Recipe;
+import com.cooknect.recipe_service.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PantryIndexTest {
+
+    private PantryIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PantryIndex(mock(RecipeRepository.class));
+        index.upsert(recipe(1L, "Tomatoes", "Pasta", "Basil"));
+        index.upsert(recipe(2L, "tomato", "egg"));
+        index.upsert(recipe(3L, "Potato", "Egg", "Onion", "Cheese"));
+    }
+
+    @Test
+    void ranksByCoverage() {
+        PantryIndex.PantryResult result = index.search(List.of("tomato", "eggs", "pasta"), List.of(), 1, 0, 10);
+
+        assertEquals(3, result.getTotal());
+        List<Long> ids = result.getMatches().stream().map(PantryIndex.Match::getRecipeId).toList();
+        assertEquals(List.of(2L, 1L, 3L), ids);
+        assertEquals(1.0, result.getMatches().get(0).getCoverage());
+        assertEquals(List.of("basil"), result.getMatches().get(1).getMissingIngredients());
+    }
+
+    @Test
+    void requiredIngredientsAndMinMatchedFilterCandidates() {
+        PantryIndex.PantryResult required = index.search(List.of("tomato"), List.of("egg"), 1, 0, 10);
+        assertEquals(List.of(2L, 3L), required.getMatches().stream().map(PantryIndex.Match::getRecipeId).toList());
+
+        PantryIndex.PantryResult minMatched = index.search(List.of("tomato", "egg", "onion"), List.of(), 2, 0, 10);
+        assertEquals(List.of(2L, 3L), minMatched.getMatches().stream().map(PantryIndex.Match::getRecipeId).toList());
+    }
+
+    @Test
+    void followsRecipeChanges() {
+        index.onRecipeChanged(new RecipeChangedEvent(RecipeChangedEvent.Type.UPDATED, 1L, recipe(1L, "Rice")));
+        index.onRecipeChanged(new RecipeChangedEvent(RecipeChangedEvent.Type.DELETED, 2L, null));
+
+        assertEquals(0, index.search(List.of("tomato"), List.of(), 1, 0, 10).getTotal());
+        assertEquals(1, index.search(List.of("rice"), List.of(), 1, 0, 10).getTotal());
+    }
+
+    @Test
+    void resyncAppliesChangesMadeByOtherInstances() {
+        RecipeRepository repo = mock(RecipeRepository.class);
+        PantryIndex synced = new PantryIndex(repo);
+        when(repo.streamIngredientNames()).thenReturn(Stream.of(
+                new Object[]{1L, "Tomatoes"}, new Object[]{2L, "tomato"}, new Object[]{2L, "egg"}));
+        synced.rebuild();
+        // Elsewhere: 1 now uses rice, 4 created, 2 deleted
+        when(repo.findIdsUpdatedSince(any())).thenReturn(List.of(1L, 4L));
+        when(repo.findAllWithIngredientsByIdIn(List.of(1L, 4L))).thenReturn(List.of(recipe(1L, "Rice"), recipe(4L, "Tomato")));
+        when(repo.streamIds()).thenReturn(Stream.of(1L, 4L));
+        when(repo.findExistingIds(anyCollection())).thenReturn(List.of());
+
+        synced.resync();
+
+        assertEquals(List.of(4L), synced.search(List.of("tomato", "egg"), List.of(), 1, 0, 10).getMatches().stream()
+                .map(PantryIndex.Match::getRecipeId).toList());
+        assertEquals(1, synced.search(List.of("rice"), List.of(), 1, 0, 10).getTotal());
+    }
+
+    @Test
+    void pagesThroughRankedMatches() {
+        PantryIndex.PantryResult second = index.search(List.of("tomato", "egg"), List.of(), 1, 1, 2);
+
+        assertEquals(3, second.getTotal());
+        assertEquals(1, second.getMatches().size());
+    }
+
+    @Test
+    void pagePastTheLastMatchIsEmpty() {
+        PantryIndex.PantryResult far = index.search(List.of("tomato", "egg"), List.of(), 1, 10_000_000, 50);
+        PantryIndex.PantryResult overflowing = index.search(List.of("tomato", "egg"), List.of(), 1, Integer.MAX_VALUE, 50);
+
+        assertEquals(3, far.getTotal());
+        assertTrue(far.getMatches().isEmpty());
+        assertEquals(3, overflowing.getTotal());
+        assertTrue(overflowing.getMatches().isEmpty());
+    }
+
+    private static Recipe recipe(Long id, String... ingredients) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        List<Ingredient> list = new ArrayList<>();
+        for (String name : ingredients) {
+            list.add(new Ingredient(name, "1"));
+        }
+        recipe.setIngredients(list);
+        return recipe;
+    }
+}
@@ -0,0 +1,74 @@
+package com.cooknect.recipe_service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelReadExecutorTest {
+
+    private final ParallelReadExecutor executor = new ParallelReadExecutor(2, 100);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void completedTaskReturnsItsValue() {
+        assertEquals("value", executor.supply("read", () -> "value", "fallback").join());
+    }
+
+    @Test
+    void failedTaskReturnsTheFallback() {
+        assertEquals("fallback", executor.supply("read", () -> {
+            throw new IllegalStateException("user-service down");
+        }, "fallback").join());
+    }
+
+    @Test
+    void hungTaskIsInterruptedAndGivesItsPermitBack() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        String result = executor.supply("read", () -> {
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "late";
+        }, "fallback").join();
+
+        assertEquals("fallback", result);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        waitForPermits(2);
+    }
+
+    @Test
+    void hungTasksDoNotStarveLaterReads() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            executor.supply("hung", () -> {
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "late";
+            }, "fallback").join();
+        }
+        waitForPermits(2);
+
+        assertEquals("value", executor.supply("read", () -> "value", "fallback").join());
+    }
+
+    private void waitForPermits(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.availablePermits() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, executor.availablePermits());
+    }
+}
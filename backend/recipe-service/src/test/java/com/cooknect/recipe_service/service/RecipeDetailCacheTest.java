@@ -0,0 +1,61 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.dto.GetRecipeDTO;
+import com.cooknect.recipe_service.event.RecipeChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipeDetailCacheTest {
+
+    private final RecipeDetailCache cache = new RecipeDetailCache(new SimpleMeterRegistry(), 2, 300);
+
+    @Test
+    void servesOnlyTheCachedVersion() {
+        GetRecipeDTO body = body(1L);
+        cache.put(1L, 3, 0, body);
+
+        assertSame(body, cache.get(1L, 3, 0));
+        assertNull(cache.get(1L, 4, 0));
+    }
+
+    @Test
+    void olderVersionDoesNotReplaceNewerEntry() {
+        GetRecipeDTO fresh = body(1L);
+        cache.put(1L, 5, 0, fresh);
+        cache.put(1L, 4, 0, body(1L));
+
+        assertSame(fresh, cache.get(1L, 5, 0));
+    }
+
+    @Test
+    void newCommentMissesAndOlderCommentCountDoesNotReplaceNewerEntry() {
+        GetRecipeDTO withComment = body(1L);
+        cache.put(1L, 5, 2, body(1L));
+        assertNull(cache.get(1L, 5, 3));
+
+        cache.put(1L, 5, 3, withComment);
+        cache.put(1L, 5, 2, body(1L));
+        assertSame(withComment, cache.get(1L, 5, 3));
+    }
+
+    @Test
+    void recipeChangesEvictAndSizeIsBounded() {
+        cache.put(1L, 1, 0, body(1L));
+        cache.put(2L, 1, 0, body(2L));
+        cache.onRecipeChanged(new RecipeChangedEvent(RecipeChangedEvent.Type.DELETED, 1L, null));
+        assertNull(cache.get(1L, 1, 0));
+
+        cache.put(3L, 1, 0, body(3L));
+        cache.put(4L, 1, 0, body(4L));
+        assertEquals(2, cache.size());
+        assertNull(cache.get(2L, 1, 0));
+    }
+
+    private static GetRecipeDTO body(Long id) {
+        GetRecipeDTO dto = new GetRecipeDTO();
+        dto.setId(id);
+        return dto;
+    }
+}
@@ -0,0 +1,108 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.dto.RecipeCreateDTO;
+import com.cooknect.recipe_service.dto.RecipeImportProgressDTO;
+import com.cooknect.recipe_service.event.RecipeChangedEvent;
+import com.cooknect.recipe_service.event.RecipeEventProducer;
+import com.cooknect.recipe_service.model.Recipe;
+import com.cooknect.recipe_service.repository.RecipeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RecipeImportServiceTest {
+
+    private static final long USER_ID = 7L;
+
+    private RecipeRepository repo;
+    private RecipeEventProducer recipeEventProducer;
+    private ApplicationEventPublisher events;
+    private RecipeImportService importService;
+    private final List<RecipeImportProgressDTO> progress = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(RecipeRepository.class);
+        recipeEventProducer = mock(RecipeEventProducer.class);
+        events = mock(ApplicationEventPublisher.class);
+        RecipeService recipeService = mock(RecipeService.class);
+        when(recipeService.toRecipe(any(), any())).thenAnswer(inv -> {
+            Recipe recipe = new Recipe();
+            recipe.setTitle(((RecipeCreateDTO) inv.getArgument(0)).getTitle());
+            recipe.setUserId(inv.getArgument(1));
+            return recipe;
+        });
+
+        importService = new RecipeImportService(repo, recipeService, recipeEventProducer, events,
+                mock(PlatformTransactionManager.class), new ObjectMapper(), new SimpleMeterRegistry(), 2);
+    }
+
+    @Test
+    void recipesAreSavedInBatchesWithOneNotificationPerBatch() throws IOException {
+        RecipeImportProgressDTO result = importLines(recipe("a"), recipe("b"), recipe("c"), recipe("d"), recipe("e"));
+
+        verify(repo, times(3)).saveAll(anyList());
+        verify(repo, never()).save(any());
+        verify(recipeEventProducer, times(3)).publish(USER_ID, RecipeEventProducer.Type.RECIPES_IMPORTED);
+        verify(events, times(5)).publishEvent(any(RecipeChangedEvent.class));
+
+        assertEquals(3, progress.size());
+        assertEquals(2, progress.get(0).getImported());
+        assertFalse(progress.get(0).isDone());
+        assertEquals(5, result.getImported());
+        assertEquals(3, result.getBatches());
+        assertTrue(result.isDone());
+    }
+
+    @Test
+    void invalidLinesAreReportedAndSkipped() throws IOException {
+        RecipeImportProgressDTO result = importLines(recipe("a"), "{not json", "", "{\"description\":\"no title\"}", recipe("b"));
+
+        assertEquals(4, result.getRead());
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getFailed());
+        List<String> errors = progress.stream().flatMap(p -> p.getErrors().stream()).toList();
+        assertEquals(2, errors.size());
+        assertTrue(errors.get(0).startsWith("line 2: invalid JSON"));
+        assertEquals("line 4: title is required", errors.get(1));
+    }
+
+    @Test
+    void failedBatchIsRetriedRecipeByRecipe() throws IOException {
+        when(repo.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("value too long"));
+        when(repo.save(argThat((Recipe recipe) -> "bad".equals(recipe.getTitle()))))
+                .thenThrow(new DataIntegrityViolationException("value too long"));
+
+        RecipeImportProgressDTO result = importLines(recipe("good"), recipe("bad"));
+
+        verify(repo, times(2)).save(any());
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals("line 2: value too long", progress.get(0).getErrors().get(0));
+        verify(events, times(1)).publishEvent(any(RecipeChangedEvent.class));
+        verify(recipeEventProducer, times(1)).publish(USER_ID, RecipeEventProducer.Type.RECIPES_IMPORTED);
+    }
+
+    private RecipeImportProgressDTO importLines(String... lines) throws IOException {
+        byte[] ndjson = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        return importService.importRecipes(new ByteArrayInputStream(ndjson), USER_ID, progress::add);
+    }
+
+    private static String recipe(String title) {
+        return "{\"title\":\"" + title + "\",\"cuisine\":\"italian\",\"ingredients\":[{\"name\":\"salt\",\"quantity\":\"1 tsp\"}]}";
+    }
+}
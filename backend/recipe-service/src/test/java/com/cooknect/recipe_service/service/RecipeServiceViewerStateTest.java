@@ -0,0 +1,105 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.common.dto.PageRequestDTO;
+import com.cooknect.common.dto.PageResponseDTO;
+import com.cooknect.recipe_service.dto.GetRecipeDTO;
+import com.cooknect.recipe_service.model.Cuisine;
+import com.cooknect.recipe_service.model.Recipe;
+import com.cooknect.recipe_service.repository.CommentRepository;
+import com.cooknect.recipe_service.repository.RecipeLikeRepository;
+import com.cooknect.recipe_service.repository.RecipeRepository;
+import com.cooknect.recipe_service.repository.RecipeSavedRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RecipeServiceViewerStateTest {
+
+    private static final long VIEWER_ID = 7L;
+
+    private RecipeRepository repo;
+    private RecipeLikeRepository likeRepository;
+    private RecipeSavedRepository savedRepository;
+    private RecipeService service;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(RecipeRepository.class);
+        likeRepository = mock(RecipeLikeRepository.class);
+        savedRepository = mock(RecipeSavedRepository.class);
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), ArgumentMatchers.<ParameterizedTypeReference<Map<Long, String>>>any()))
+                .thenReturn(ResponseEntity.ok(Map.of()));
+
+        UsernameCache usernameCache = new UsernameCache(restTemplate, new SimpleMeterRegistry(),
+                "http://user-service/api/v1/users/", 100, 600, 86400, 30);
+        service = new RecipeService(repo, likeRepository, savedRepository,
+                new ViewerStateResolver(likeRepository, savedRepository), usernameCache,
+                new ParallelReadExecutor(4, 5000), new PantryIndex(repo), mock(ApplicationEventPublisher.class),
+                mock(LikeWriteBehind.class), mock(CommentRepository.class),
+                new RecipeDetailCache(new SimpleMeterRegistry(), 100, 300),
+                new CuisineFeedIndex(repo, 100), mock(CuisinePreferenceCache.class));
+    }
+
+    @Test
+    void pageOfFiftyRecipesResolvesViewerStateWithTwoQueries() {
+        List<Recipe> page = LongStream.rangeClosed(1, 50).mapToObj(this::recipe).toList();
+        when(repo.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(page));
+        when(likeRepository.findLikedRecipeIds(eq(VIEWER_ID), anyCollection())).thenReturn(Set.of(3L, 10L));
+        when(savedRepository.findSavedRecipeIds(eq(VIEWER_ID), anyCollection())).thenReturn(Set.of(10L));
+
+        PageRequestDTO request = new PageRequestDTO();
+        request.setPage(0);
+        request.setSize(50);
+        PageResponseDTO<GetRecipeDTO> result = service.getAllRecipes(VIEWER_ID, request);
+
+        verify(likeRepository, times(1)).findLikedRecipeIds(eq(VIEWER_ID), anyCollection());
+        verify(savedRepository, times(1)).findSavedRecipeIds(eq(VIEWER_ID), anyCollection());
+        verify(likeRepository, never()).getByRecipeIdAndUserId(any(), any());
+        verify(savedRepository, never()).getByRecipeIdAndUserId(any(), any());
+
+        assertEquals(50, result.getContent().size());
+        GetRecipeDTO third = result.getContent().get(2);
+        assertTrue(third.isLikedByUser());
+        assertFalse(third.isSavedByUser());
+        GetRecipeDTO tenth = result.getContent().get(9);
+        assertTrue(tenth.isLikedByUser());
+        assertTrue(tenth.isSavedByUser());
+    }
+
+    @Test
+    void anonymousViewerNeedsNoViewerStateQueries() {
+        when(repo.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(recipe(1L), recipe(2L))));
+
+        service.getAllRecipes(null, new PageRequestDTO());
+
+        verifyNoInteractions(likeRepository, savedRepository);
+    }
+
+    private Recipe recipe(long id) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setTitle("Recipe " + id);
+        recipe.setCuisine(Cuisine.OTHER);
+        recipe.setUserId(100L + id);
+        return recipe;
+    }
+}
@@ -0,0 +1,84 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.recipe_service.event.RecipeChangedEvent;
+import com.cooknect.recipe_service.model.Ingredient;
+import com.cooknect.recipe_service.model.Recipe;
+import com.cooknect.recipe_service.model.RecipeTranslation;
+import com.cooknect.recipe_service.repository.RecipeRepository;
+import com.cooknect.recipe_service.repository.RecipeTranslationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TranslationServiceTest {
+
+    private RecipeRepository recipeRepository;
+    private RecipeTranslationRepository translationRepository;
+    private SpeechModel speechModel;
+    private TranslationService service;
+
+    @BeforeEach
+    void setUp() {
+        recipeRepository = mock(RecipeRepository.class);
+        translationRepository = mock(RecipeTranslationRepository.class);
+        speechModel = spy(new LocalSpeechModel(0));
+        service = new TranslationService(recipeRepository, translationRepository, speechModel, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void translatesOnceAndStoresTheResult() {
+        Recipe recipe = recipe(1L, 3L, "Dal");
+        when(recipeRepository.findById(1L)).thenReturn(Optional.of(recipe));
+        when(translationRepository.findByRecipeIdAndRecipeVersionAndLanguage(1L, 3L, "hi"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(translation(3L, TranslationService.sourceText(recipe), "translated")));
+
+        RecipeTranslation result = service.translate(1L, "hindi");
+
+        assertEquals("translated", result.getTranslatedText());
+        verify(speechModel).translate(TranslationService.sourceText(recipe), "Hindi");
+        verify(translationRepository).insertIfAbsent(eq(1L), eq(3L), eq("hi"), anyString(), anyString());
+    }
+
+    @Test
+    void reusesTranslationOfTheSameTextFromAnOlderVersion() {
+        Recipe recipe = recipe(1L, 5L, "Dal");
+        RecipeTranslation older = translation(3L, TranslationService.sourceText(recipe), "cached");
+        when(recipeRepository.findById(1L)).thenReturn(Optional.of(recipe));
+        when(translationRepository.findByRecipeIdAndRecipeVersionAndLanguage(1L, 5L, "hi")).thenReturn(Optional.empty());
+        when(translationRepository.findFirstByRecipeIdAndLanguageAndSourceHashOrderByRecipeVersionDesc(eq(1L), eq("hi"), anyString()))
+                .thenReturn(Optional.of(older));
+
+        assertSame(older, service.translate(1L, "hi"));
+        verifyNoInteractions(speechModel);
+    }
+
+    @Test
+    void updateRemovesTranslationsOfOtherText() {
+        service.onRecipeChanged(new RecipeChangedEvent(RecipeChangedEvent.Type.UPDATED, 1L, recipe(1L, 4L, "Dal tadka")));
+
+        verify(translationRepository).deleteStale(eq(1L), anyString());
+    }
+
+    private static Recipe recipe(Long id, Long version, String title) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setVersion(version);
+        recipe.setTitle(title);
+        recipe.setDescription("Lentils");
+        recipe.setIngredients(List.of(new Ingredient("lentils", "1 cup")));
+        return recipe;
+    }
+
+    private static RecipeTranslation translation(long version, String source, String text) {
+        return new RecipeTranslation(10L, 1L, version, "hi", Integer.toHexString(source.hashCode()), text, Instant.now());
+    }
+}
@@ -0,0 +1,192 @@
+package com.cooknect.recipe_service.service;
+
+import com.cooknect.common.dto.PageResponseDTO;
+import com.cooknect.recipe_service.dto.TrendingRecipeDTO;
+import com.cooknect.recipe_service.event.RecipeChangedEvent;
+import com.cooknect.recipe_service.repository.RecipeRepository;
+import com.cooknect.recipe_service.repository.TrendingScoreRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TrendingServiceTest {
+
+    private static final long HOUR = 3_600_000;
+
+    private TrendingScoreRepository scoreRepository;
+    private RecipeRepository recipeRepository;
+    private JdbcTemplate jdbc;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        scoreRepository = mock(TrendingScoreRepository.class);
+        recipeRepository = mock(RecipeRepository.class);
+        jdbc = mock(JdbcTemplate.class);
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    void recentActivityOutranksOlderActivity() {
+        TrendingService trending = service(10);
+        // With a 24h half-life three likes a day ago are worth 1.5 likes now
+        trending.record(1L, 1, now - 24 * HOUR);
+        trending.record(1L, 1, now - 24 * HOUR);
+        trending.record(1L, 1, now - 24 * HOUR);
+        trending.record(2L, 1, now);
+        trending.record(3L, 3, now);
+
+        PageResponseDTO<TrendingRecipeDTO> page = trending.getTrending(1, 10, now);
+
+        assertEquals(List.of(3L, 1L, 2L), ids(page));
+        assertEquals(1.5, page.getContent().get(1).getScore(), 1e-9);
+        assertEquals(1.0, page.getContent().get(2).getScore(), 1e-9);
+    }
+
+    @Test
+    void scoresDecayWithTime() {
+        TrendingService trending = service(10);
+        trending.record(1L, 4, now);
+
+        assertEquals(2.0, trending.getTrending(1, 10, now + 24 * HOUR).getContent().get(0).getScore(), 1e-9);
+    }
+
+    @Test
+    void onlyTopKRecipesAreRanked() {
+        TrendingService trending = service(3);
+        for (long id = 1; id <= 10; id++) {
+            trending.record(id, id, now);
+        }
+
+        PageResponseDTO<TrendingRecipeDTO> page = trending.getTrending(1, 10, now);
+
+        assertEquals(List.of(10L, 9L, 8L), ids(page));
+        assertEquals(3, page.getTotalElements());
+    }
+
+    @Test
+    void pagesAreOneBased() {
+        TrendingService trending = service(10);
+        for (long id = 1; id <= 5; id++) {
+            trending.record(id, id, now);
+        }
+
+        assertEquals(List.of(3L, 2L), ids(trending.getTrending(2, 2, now)));
+        assertEquals(3, trending.getTrending(2, 2, now).getTotalPages());
+    }
+
+    @Test
+    void overtakenRecipeReturnsAfterCheckpoint() {
+        TrendingService trending = service(2);
+        trending.record(1L, 5, now);
+        trending.record(2L, 4, now);
+        trending.record(3L, 3, now);
+        // Recipe 2 loses its likes, 3 is not ranked until the set is rebuilt
+        trending.record(2L, -3, now);
+
+        trending.checkpoint(now);
+
+        assertEquals(List.of(1L, 3L), ids(trending.getTrending(1, 10, now)));
+    }
+
+    @Test
+    void deletedRecipesLeaveTheRanking() {
+        TrendingService trending = service(10);
+        trending.record(1L, 1, now);
+        trending.record(2L, 1, now);
+
+        trending.onRecipeChanged(new RecipeChangedEvent(RecipeChangedEvent.Type.DELETED, 1L, null));
+        trending.checkpoint(now);
+
+        assertEquals(List.of(2L), ids(trending.getTrending(1, 10, now)));
+        verify(scoreRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    void checkpointOnlyWritesChangedScores() {
+        TrendingService trending = service(10);
+        trending.record(1L, 1, now);
+        trending.checkpoint(now);
+        trending.checkpoint(now);
+
+        verify(jdbc, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void decayedScoresAreForgotten() {
+        TrendingService trending = service(10);
+        trending.record(1L, 1, now);
+
+        // Ten half-lives bring one like below the minimum score of 0.01
+        trending.checkpoint(now + 240 * HOUR);
+
+        assertTrue(trending.getTrending(1, 10, now + 240 * HOUR).getContent().isEmpty());
+        // The stored row may hold other instances' activity, it is only deleted once its combined score has decayed
+        verify(scoreRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(jdbc).update(startsWith("DELETE FROM recipe_trending"), any(), eq(24 * 3600.0), eq(0.01));
+    }
+
+    @Test
+    void checkpointAddsOnlyTheChangeSinceTheLastOne() {
+        TrendingService trending = service(10);
+        trending.record(1L, 2, now);
+        trending.checkpoint(now);
+        trending.record(1L, 1, now);
+        trending.record(1L, -3, now);
+        trending.record(2L, 1, now);
+        trending.checkpoint(now);
+
+        List<List<Object[]>> batches = checkpointedBatches(2);
+        assertEquals(1, batches.get(0).size());
+        assertEquals(2, batches.get(1).size());
+        assertEquals(2.0, score(batches.get(0), 1L), 1e-9);
+        // The stored score is increased, never replaced, so a replica does not overwrite the others
+        assertEquals(-2.0, score(batches.get(1), 1L), 1e-9);
+        assertEquals(1.0, score(batches.get(1), 2L), 1e-9);
+    }
+
+    @Test
+    void failedCheckpointKeepsItsChangesForTheNextOne() {
+        TrendingService trending = service(10);
+        when(jdbc.batchUpdate(anyString(), anyList()))
+                .thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(new int[]{1});
+        trending.record(1L, 2, now);
+        trending.checkpoint(now);
+        trending.record(1L, 1, now);
+        trending.checkpoint(now);
+
+        List<List<Object[]>> batches = checkpointedBatches(2);
+        assertEquals(3.0, score(batches.get(1), 1L), 1e-9);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Object[]>> checkpointedBatches(int times) {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbc, times(times)).batchUpdate(sql.capture(), rows.capture());
+        assertTrue(sql.getValue().contains("recipe_trending.score *"));
+        return rows.getAllValues();
+    }
+
+    private static double score(List<Object[]> rows, Long recipeId) {
+        return rows.stream().filter(row -> row[0].equals(recipeId)).mapToDouble(row -> (Double) row[1]).findFirst().orElseThrow();
+    }
+
+    private TrendingService service(int topK) {
+        return new TrendingService(scoreRepository, recipeRepository, jdbc, new SimpleMeterRegistry(),
+                topK, 24, 1, 3, 0.01);
+    }
+
+    private static List<Long> ids(PageResponseDTO<TrendingRecipeDTO> page) {
+        return page.getContent().stream().map(TrendingRecipeDTO::getId).toList();
+    }
+}
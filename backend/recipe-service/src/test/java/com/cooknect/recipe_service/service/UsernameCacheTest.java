@@ -0,0 +1,87 @@
+package com.cooknect.recipe_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UsernameCacheTest {
+
+    private RestTemplate restTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate = mock(RestTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void warmCacheMakesNoCallsToUserService() {
+        stubUsernames(Map.of(1L, "alice", 2L, "bob"));
+        UsernameCache cache = new UsernameCache(restTemplate, meterRegistry, "http://users/", 100, 600, 86400, 30);
+
+        cache.getUsernames(List.of(1L, 2L));
+        Map<Long, String> second = cache.getUsernames(List.of(2L, 1L));
+
+        assertEquals(Map.of(1L, "alice", 2L, "bob"), second);
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), ArgumentMatchers.<ParameterizedTypeReference<Map<Long, String>>>any());
+        assertEquals(2.0, meterRegistry.counter("recipe.username.cache", "result", "hit").count());
+        assertEquals(2.0, meterRegistry.counter("recipe.username.cache", "result", "miss").count());
+    }
+
+    @Test
+    void expiredEntriesAreServedWhenUserServiceIsDown() {
+        stubUsernames(Map.of(1L, "alice"));
+        // ttl of zero makes every entry expired right away
+        UsernameCache cache = new UsernameCache(restTemplate, meterRegistry, "http://users/", 100, 0, 86400, 30);
+        cache.getUsernames(List.of(1L));
+
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), ArgumentMatchers.<ParameterizedTypeReference<Map<Long, String>>>any()))
+                .thenThrow(new ResourceAccessException("connection refused"));
+
+        assertEquals(Map.of(1L, "alice"), cache.getUsernames(List.of(1L)));
+    }
+
+    @Test
+    void failedIdsAreNotRequestedAgainRightAway() {
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), ArgumentMatchers.<ParameterizedTypeReference<Map<Long, String>>>any()))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+        UsernameCache cache = new UsernameCache(restTemplate, meterRegistry, "http://users/", 100, 600, 86400, 30);
+
+        assertEquals(Map.of(), cache.getUsernames(List.of(1L)));
+        assertEquals(Map.of(), cache.getUsernames(List.of(1L)));
+
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), ArgumentMatchers.<ParameterizedTypeReference<Map<Long, String>>>any());
+        assertEquals(1.0, meterRegistry.counter("recipe.username.cache.load.failures").count());
+    }
+
+    @Test
+    void cacheIsBoundedBySize() {
+        stubUsernames(Map.of(1L, "alice", 2L, "bob", 3L, "carol"));
+        UsernameCache cache = new UsernameCache(restTemplate, meterRegistry, "http://users/", 2, 600, 86400, 30);
+
+        cache.getUsernames(List.of(1L, 2L, 3L));
+
+        assertEquals(2, cache.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubUsernames(Map<Long, String> usernames) {
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), ArgumentMatchers.<ParameterizedTypeReference<Map<Long, String>>>any()))
+                .thenReturn(ResponseEntity.ok(usernames));
+    }
+}
@@ -0,0 +1,80 @@
+package com.cooknect.recipe_service.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Encode and decode throughput of the ADPCM codec on two minutes of 24 kHz speech-like audio,
+ * the length of a typical recipe narration. Decoding runs on every PCM download, encoding once per synthesis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImaAdpcmBenchmark {
+
+    private static final int SAMPLE_RATE = 24000;
+    private static final int SECONDS = 120;
+
+    private byte[] pcmWav;
+    private byte[] adpcmWav;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        int samples = SAMPLE_RATE * SECONDS;
+        ByteBuffer pcm = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < samples; i++) {
+            double value = Math.sin(i * 0.05) * 8000 + Math.sin(i * 0.31) * 3000 + random.nextGaussian() * 200;
+            pcm.putShort((short) value);
+        }
+        pcmWav = WavFormat.fromPcm16(pcm.array(), SAMPLE_RATE, 1);
+        adpcmWav = ImaAdpcm.encodeWav(pcmWav);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return ImaAdpcm.encodeWav(pcmWav);
+    }
+
+    @Benchmark
+    public long decode() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        ImaAdpcm.decodeWav(new ByteArrayInputStream(adpcmWav), out);
+        return out.count;
+    }
+
+    /* Stands in for the response stream, only counts so the benchmark measures the codec */
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.cooknect.recipe_service.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImaAdpcmTest {
+
+    private static final int SAMPLE_RATE = 24000;
+
+    @Test
+    void compressesAboutFourToOne() {
+        byte[] wav = WavFormat.fromPcm16(speechLikePcm(SAMPLE_RATE * 10), SAMPLE_RATE, 1);
+
+        byte[] encoded = ImaAdpcm.encodeWav(wav);
+
+        assertTrue(wav.length / (double) encoded.length > 3.9);
+    }
+
+    @Test
+    void roundTripKeepsLengthAndIsClose() throws IOException {
+        // Not a multiple of the block size, the last block is padded
+        int samples = ImaAdpcm.SAMPLES_PER_BLOCK * 3 + 123;
+        byte[] pcm = speechLikePcm(samples);
+        byte[] encoded = ImaAdpcm.encodeWav(WavFormat.fromPcm16(pcm, SAMPLE_RATE, 1));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImaAdpcm.decodeWav(new ByteArrayInputStream(encoded), out);
+        byte[] decoded = out.toByteArray();
+
+        assertEquals(WavFormat.HEADER_SIZE + pcm.length, decoded.length);
+        assertEquals(decoded.length, ImaAdpcm.decodedLength(new ByteArrayInputStream(encoded)));
+
+        ByteBuffer original = ByteBuffer.wrap(pcm).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer restored = ByteBuffer.wrap(decoded).order(ByteOrder.LITTLE_ENDIAN);
+        double signal = 0, noise = 0;
+        for (int i = 0; i < samples; i++) {
+            int x = original.getShort(i * 2);
+            int y = restored.getShort(WavFormat.HEADER_SIZE + i * 2);
+            signal += (double) x * x;
+            noise += (double) (x - y) * (x - y);
+        }
+        double snrDb = 10 * Math.log10(signal / noise);
+        assertTrue(snrDb > 25, "SNR " + snrDb);
+    }
+
+    @Test
+    void decodedHeaderDescribesPcm() throws IOException {
+        byte[] encoded = ImaAdpcm.encodeWav(WavFormat.fromPcm16(speechLikePcm(1000), SAMPLE_RATE, 1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImaAdpcm.decodeWav(new ByteArrayInputStream(encoded), out);
+
+        WavFormat.Info info = WavFormat.readHeader(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(WavFormat.FORMAT_PCM, info.getFormatTag());
+        assertEquals(SAMPLE_RATE, info.getSampleRate());
+        assertEquals(2000, info.getDataSize());
+    }
+
+    @Test
+    void rejectsStereo() {
+        byte[] stereo = WavFormat.fromPcm16(new byte[400], SAMPLE_RATE, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> ImaAdpcm.encodeWav(stereo));
+    }
+
+    private static byte[] speechLikePcm(int samples) {
+        Random random = new Random(42);
+        ByteBuffer pcm = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < samples; i++) {
+            double value = Math.sin(i * 0.05) * 8000 + Math.sin(i * 0.31) * 3000 + random.nextGaussian() * 200;
+            pcm.putShort((short) value);
+        }
+        return pcm.array();
+    }
+}
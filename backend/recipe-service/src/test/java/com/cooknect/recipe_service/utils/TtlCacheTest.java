@@ -0,0 +1,62 @@
+package com.cooknect.recipe_service.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TtlCacheTest {
+
+    @Test
+    void expiredValuesAreOnlyServedAsStale() {
+        // ttl of zero makes every entry expired right away
+        TtlCache<Long, String> cache = new TtlCache<>(10, 0, 1000);
+        cache.put(1L, "alice");
+
+        assertNull(cache.get(1L));
+        assertEquals("alice", cache.getStale(1L, 60_000));
+        assertNull(cache.getStale(1L, 0));
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        TtlCache<Long, String> cache = new TtlCache<>(2, 60_000, 1000);
+        cache.put(1L, "alice");
+        cache.put(2L, "bob");
+        cache.get(1L);
+        cache.put(3L, "carol");
+
+        assertEquals(2, cache.size());
+        assertEquals("alice", cache.get(1L));
+        assertNull(cache.get(2L));
+    }
+
+    @Test
+    void failuresAreRememberedForFailureTtlAndKeepTheValue() {
+        TtlCache<Long, String> cache = new TtlCache<>(10, 0, 60_000);
+        cache.put(1L, "alice");
+        cache.failed(1L);
+        cache.failed(2L);
+
+        assertTrue(cache.isFailing(1L));
+        assertTrue(cache.isFailing(2L));
+        assertEquals("alice", cache.getStale(1L, 60_000));
+        assertNull(cache.getStale(2L, 60_000));
+
+        cache.put(2L, "bob");
+        assertFalse(cache.isFailing(2L));
+        assertFalse(new TtlCache<Long, String>(10, 60_000, 0).isFailing(1L));
+    }
+
+    @Test
+    void putIfKeepsTheCachedValueUnlessReplaced() {
+        TtlCache<Long, Integer> cache = new TtlCache<>(10, 60_000, 0);
+        cache.put(1L, 5);
+        cache.putIf(1L, 4, (cached, value) -> value > cached);
+        assertEquals(5, cache.get(1L));
+
+        cache.putIf(1L, 6, (cached, value) -> value > cached);
+        assertEquals(6, cache.get(1L));
+        cache.putIf(2L, 1, (cached, value) -> false);
+        assertEquals(1, cache.get(2L));
+    }
+}
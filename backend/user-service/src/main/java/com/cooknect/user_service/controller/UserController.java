@@ -66,6 +66,15 @@ public class UserController {
         return ResponseEntity.ok(usernames);
     }
 
+    // Bulk fetch email and name by IDs, used for notifications
+    @PostMapping("/contacts")
+    @Operation(summary = "Get user contacts by IDs", security = @SecurityRequirement(name = "bearerAuth"), hidden = true)
+    public ResponseEntity<Map<Long, UserContactDTO>> getContactsByIds(@RequestBody List<Long> userIds) {
+        Map<Long, UserContactDTO> contacts = service.getContactsByIds(userIds);
+        logger.info("Contacts fetched successfully for {} IDs", userIds.size());
+        return ResponseEntity.ok(contacts);
+    }
+
     @GetMapping("/user-details")
     @Operation(summary = "Get user details from header", security = @SecurityRequirement(name = "bearerAuth"), hidden = true)
     public ResponseEntity<UsersDTO> getUserDetailsFromHeader(HttpServletRequest request) {
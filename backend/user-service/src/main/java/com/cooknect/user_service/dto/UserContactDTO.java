@@ -0,0 +1,16 @@
+package com.cooknect.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/* What the other services need to notify a user */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserContactDTO {
+    private String email;
+    private String fullName;
+}
@@ -20,6 +20,8 @@ public interface UserService {
 
     public Map<Long, String> getUsernamesByIds(List<Long> ids);
 
+    public Map<Long, UserContactDTO> getContactsByIds(List<Long> ids);
+
     public UsersDTO getUserByEmail(String email);
 
     public UsersDTO updateUser(Long id, UsersDTO userDTO, String userEmailHeader);
@@ -166,6 +166,12 @@ public class UserServiceImpl implements UserService{
                 .collect(Collectors.toMap(UserModel::getId, UserModel::getUsername));
     }
 
+    @Override
+    public Map<Long, UserContactDTO> getContactsByIds(List<Long> ids) {
+        return repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(UserModel::getId, user -> new UserContactDTO(user.getEmail(), user.getFullName())));
+    }
+
     @Override
     public UsersDTO getUserByEmail(String email) {
         UserModel user = repository.findByEmail(email);